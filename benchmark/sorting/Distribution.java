@@ -0,0 +1,115 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/** Distributions of input arrays for sorting benchmarks.
+ * Each distribution generates same array for same size and seed, so results of different runs are comparable.
+ */
+public enum Distribution {
+
+    /** Random ints from whole range. */
+    UNIFORM {
+        @Override
+        void fill(@NotNull int[] array, @NotNull SplittableRandom random) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = random.nextInt();
+            }
+        }
+    },
+    /** Ascending ints, with duplicates. */
+    SORTED {
+        @Override
+        void fill(@NotNull int[] array, @NotNull SplittableRandom random) {
+            UNIFORM.fill(array, random);
+            Arrays.sort(array);
+        }
+    },
+    /** Descending ints, with duplicates. */
+    REVERSED {
+        @Override
+        void fill(@NotNull int[] array, @NotNull SplittableRandom random) {
+            SORTED.fill(array, random);
+            for (int i = 0, j = array.length - 1; i < j; i++, j--) {
+                int tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        }
+    },
+    /** Ascending first half and descending second half: 0, 1, 2, ..., 2, 1, 0. */
+    ORGAN_PIPE {
+        @Override
+        void fill(@NotNull int[] array, @NotNull SplittableRandom random) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = Math.min(i, array.length - 1 - i);
+            }
+        }
+    },
+    /** Random ints from FEW_UNIQUE_KEYS distinct values. */
+    FEW_UNIQUE {
+        @Override
+        void fill(@NotNull int[] array, @NotNull SplittableRandom random) {
+            int[] keys = random.ints(FEW_UNIQUE_KEYS).toArray();
+            for (int i = 0; i < array.length; i++) {
+                array[i] = keys[random.nextInt(FEW_UNIQUE_KEYS)];
+            }
+        }
+    },
+    /** Zipf distribution with exponent 1 over min(n, ZIPF_KEYS) keys: key of rank r has frequency ~ 1 / r.
+     * Ranks are scrambled by multiplication with odd constant, so frequent keys are spread over whole range.
+     */
+    ZIPF {
+        @Override
+        void fill(@NotNull int[] array, @NotNull SplittableRandom random) {
+            int keys = Math.max(1, Math.min(array.length, ZIPF_KEYS));
+            double[] cumulative = new double[keys];
+            double sum = 0;
+            for (int rank = 0; rank < keys; rank++) {
+                sum += 1.0 / (rank + 1);
+                cumulative[rank] = sum;
+            }
+            for (int i = 0; i < array.length; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                array[i] = (rank < 0 ? -rank - 1 : rank) * 0x9E3779B9;
+            }
+        }
+    },
+    /** Concatenation of RUNS sorted runs of random ints, like appended sorted batches. */
+    RUNS {
+        @Override
+        void fill(@NotNull int[] array, @NotNull SplittableRandom random) {
+            UNIFORM.fill(array, random);
+            for (int run = 0; run < RUNS_COUNT; run++) {
+                Arrays.sort(array, (int) ((long) array.length * run / RUNS_COUNT),
+                        (int) ((long) array.length * (run + 1) / RUNS_COUNT));
+            }
+        }
+    };
+
+    /** Number of distinct keys of FEW_UNIQUE. */
+    private static final int FEW_UNIQUE_KEYS = 16;
+    /** Maximal number of distinct keys of ZIPF. */
+    private static final int ZIPF_KEYS = 1 << 20;
+    /** Number of sorted runs of RUNS. */
+    private static final int RUNS_COUNT = 32;
+
+    /** Returns new array of specified size with this distribution.
+     *
+     * @param size Size of array, >= 0
+     * @param seed Seed of random generator
+     *
+     * @return array of ints
+     */
+    @NotNull int[] generate(int size, long seed) {
+        int[] array = new int[size];
+        fill(array, new SplittableRandom(seed));
+        return array;
+    }
+
+    /** Fills array with values of this distribution, using random generator. */
+    abstract void fill(@NotNull int[] array, @NotNull SplittableRandom random);
+
+}
@@ -0,0 +1,145 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of sorters of objects by int key, comparison sorts against sorts extracting keys into primitive arrays,
+ * over sizes from 256 to 2^20 and all distributions. Keys of objects are ints of distribution.
+ * Each operation copies references of input into work array and sorts it, COPY measures copying alone.
+ * Objects are allocated once in setup, operations only read their keys and move references.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Thread)
+public class ObjectSortBenchmark {
+
+    /** Comparator of items by key. */
+    private static final Comparator<Item> BY_KEY = Comparator.comparingInt(item -> item.key);
+
+    /** Sorted object with int key. */
+    static final class Item {
+
+        final int key;
+
+        Item(int key) {
+            this.key = key;
+        }
+    }
+
+    /** Sorters of objects by key. */
+    public enum Algorithm {
+        /** Only copying input, baseline for other algorithms. */
+        COPY {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+            }
+        },
+        /** Arrays.sort of JDK with comparator (TimSort), reference. */
+        JDK {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+                Arrays.sort(input, BY_KEY);
+            }
+        },
+        QUICK {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+                QuickSort.sort(input, BY_KEY);
+            }
+        },
+        MERGE {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+                MergeSort.sort(input, BY_KEY);
+            }
+        },
+        /** Counting sort with workspace reused by operations, keys of whole int range take its sparse path. */
+        COUNTING {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+                CountingSort.sort(input, item -> item.key, Integer.MIN_VALUE, Integer.MAX_VALUE, workspace);
+            }
+        },
+        KEY_INT {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+                KeySort.sortByIntKey(input, item -> item.key);
+            }
+        },
+        KEY_LONG {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+                KeySort.sortByLongKey(input, item -> (long) item.key);
+            }
+        },
+        /** Keys are extracted into column, which is argsorted, and objects are permuted in place. */
+        ARGSORT {
+            @Override
+            void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace) {
+                int[] keys = new int[input.length];
+                for (int i = 0; i < input.length; i++) {
+                    keys[i] = input[i].key;
+                }
+                ArgSort.permute(ArgSort.argsort(keys), input);
+            }
+        };
+
+        /** Sorts input with this algorithm. */
+        abstract void sort(@NotNull Item[] input, @NotNull CountingSort.Workspace workspace);
+    }
+
+    /** Size of input. */
+    @Param({ "256", "65536", "1048576" })
+    public int size;
+
+    /** Distribution of keys. */
+    @Param
+    public Distribution distribution;
+
+    /** Sorting algorithm. */
+    @Param
+    public Algorithm algorithm;
+
+    /** Generated input, not modified. */
+    private Item[] source;
+    /** Copy of input, sorted by each operation. */
+    private Item[] work;
+    /** Buffers of counting sort, reused by operations of this thread. */
+    private final CountingSort.Workspace workspace = new CountingSort.Workspace();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] keys = distribution.generate(size, size);
+        source = new Item[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = new Item(keys[i]);
+        }
+        work = new Item[size];
+    }
+
+    @Benchmark
+    public Item[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        algorithm.sort(work, workspace);
+        return work;
+    }
+
+}
@@ -0,0 +1,112 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of parallel sorters of large int arrays, sizes from 2^16 to 10^8.
+ * Parallel sorters run in common fork-join pool, so scaling with number of threads is measured by running this
+ * benchmark with different parallelism of common pool:
+ * -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N (N = 1 runs sequential paths).
+ * Passing -p parallelism=N too labels results with N, setup checks that it matches parallelism of common pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Benchmark)
+public class ParallelSortBenchmark {
+
+    /** Parallel sorters of int arrays. */
+    public enum Algorithm {
+        /** Arrays.parallelSort of JDK (parallel merge sort), reference. */
+        JDK {
+            @Override
+            void sort(@NotNull int[] input) {
+                Arrays.parallelSort(input);
+            }
+        },
+        /** Sorts.sort, which picks parallel quick sort for large inputs without better strategy. */
+        SORTS {
+            @Override
+            void sort(@NotNull int[] input) {
+                Sorts.sort(input);
+            }
+        },
+        QUICK {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.parallelSort(input);
+            }
+        },
+        MERGE {
+            @Override
+            void sort(@NotNull int[] input) {
+                MergeSort.parallelSort(input);
+            }
+        },
+        SAMPLE {
+            @Override
+            void sort(@NotNull int[] input) {
+                SampleSort.parallelSort(input);
+            }
+        };
+
+        /** Sorts input with this algorithm. */
+        abstract void sort(@NotNull int[] input);
+    }
+
+    /** Size of input. */
+    @Param({ "65536", "1048576", "16777216", "100000000" })
+    public int size;
+
+    /** Distribution of input. */
+    @Param({ "UNIFORM", "FEW_UNIQUE", "ZIPF", "RUNS" })
+    public Distribution distribution;
+
+    /** Sorting algorithm. */
+    @Param
+    public Algorithm algorithm;
+
+    /** Expected parallelism of common pool, only a label of results, 0 == not checked. */
+    @Param("0")
+    public int parallelism;
+
+    /** Generated input, not modified. */
+    private int[] source;
+    /** Copy of input, sorted by each operation. */
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (parallelism != 0 && parallelism != ForkJoinPool.getCommonPoolParallelism()) {
+            throw new IllegalStateException("Error @ ParallelSortBenchmark.setUp() :: common pool parallelism != "
+                    + parallelism + " == " + ForkJoinPool.getCommonPoolParallelism());
+        }
+        source = distribution.generate(size, size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        algorithm.sort(work);
+        return work;
+    }
+
+}
@@ -0,0 +1,245 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of generated sorters of primitive types other than int (LongSort, DoubleSort, FloatSort, ShortSort and
+ * CharSort) against Arrays.sort of same type, over sizes from 256 to 2^24 and all distributions.
+ * Inputs are converted from ints of distribution by order preserving mapping, so sorted ints stay sorted, and few
+ * unique ints stay few unique (16-bit types keep only high half of int, so UNIFORM has many duplicates for them).
+ * Each operation copies input into work array and sorts it, COPY measures copying alone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Thread)
+public class PrimitiveSortBenchmark {
+
+    /** Sorters of arrays of each primitive type. */
+    public enum Algorithm {
+        /** Only copying input, baseline for other algorithms. */
+        COPY,
+        /** Arrays.sort of JDK (dual-pivot quick sort, counting sort for large arrays of 16-bit types), reference. */
+        JDK,
+        /** sort of sorter: quick sort, counting sort for large arrays of 16-bit types. */
+        SORT,
+        QUICK,
+        MERGE
+    }
+
+    /** Element types with their sorters. */
+    public enum Type {
+        LONG {
+            @Override
+            @NotNull Object convert(@NotNull int[] values) {
+                long[] array = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = (long) values[i] << Integer.SIZE;
+                }
+                return array;
+            }
+
+            @Override
+            void sort(@NotNull Object input, @NotNull Algorithm algorithm) {
+                long[] array = (long[]) input;
+                switch (algorithm) {
+                    case JDK:
+                        Arrays.sort(array);
+                        break;
+                    case SORT:
+                        LongSort.sort(array);
+                        break;
+                    case QUICK:
+                        LongSort.quickSort(array);
+                        break;
+                    case MERGE:
+                        LongSort.mergeSort(array);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        },
+        DOUBLE {
+            @Override
+            @NotNull Object convert(@NotNull int[] values) {
+                double[] array = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = values[i] / 1024.0;
+                }
+                return array;
+            }
+
+            @Override
+            void sort(@NotNull Object input, @NotNull Algorithm algorithm) {
+                double[] array = (double[]) input;
+                switch (algorithm) {
+                    case JDK:
+                        Arrays.sort(array);
+                        break;
+                    case SORT:
+                        DoubleSort.sort(array);
+                        break;
+                    case QUICK:
+                        DoubleSort.quickSort(array);
+                        break;
+                    case MERGE:
+                        DoubleSort.mergeSort(array);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        },
+        FLOAT {
+            @Override
+            @NotNull Object convert(@NotNull int[] values) {
+                float[] array = new float[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = values[i];
+                }
+                return array;
+            }
+
+            @Override
+            void sort(@NotNull Object input, @NotNull Algorithm algorithm) {
+                float[] array = (float[]) input;
+                switch (algorithm) {
+                    case JDK:
+                        Arrays.sort(array);
+                        break;
+                    case SORT:
+                        FloatSort.sort(array);
+                        break;
+                    case QUICK:
+                        FloatSort.quickSort(array);
+                        break;
+                    case MERGE:
+                        FloatSort.mergeSort(array);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        },
+        SHORT {
+            @Override
+            @NotNull Object convert(@NotNull int[] values) {
+                short[] array = new short[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = (short) (values[i] >> Short.SIZE);
+                }
+                return array;
+            }
+
+            @Override
+            void sort(@NotNull Object input, @NotNull Algorithm algorithm) {
+                short[] array = (short[]) input;
+                switch (algorithm) {
+                    case JDK:
+                        Arrays.sort(array);
+                        break;
+                    case SORT:
+                        ShortSort.sort(array);
+                        break;
+                    case QUICK:
+                        ShortSort.quickSort(array);
+                        break;
+                    case MERGE:
+                        ShortSort.mergeSort(array);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        },
+        CHAR {
+            @Override
+            @NotNull Object convert(@NotNull int[] values) {
+                char[] array = new char[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = (char) ((values[i] >> Character.SIZE) - Short.MIN_VALUE);
+                }
+                return array;
+            }
+
+            @Override
+            void sort(@NotNull Object input, @NotNull Algorithm algorithm) {
+                char[] array = (char[]) input;
+                switch (algorithm) {
+                    case JDK:
+                        Arrays.sort(array);
+                        break;
+                    case SORT:
+                        CharSort.sort(array);
+                        break;
+                    case QUICK:
+                        CharSort.quickSort(array);
+                        break;
+                    case MERGE:
+                        CharSort.mergeSort(array);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        };
+
+        /** Returns new array of this type, converted from values in same order. */
+        abstract @NotNull Object convert(@NotNull int[] values);
+
+        /** Sorts array of this type with algorithm. */
+        abstract void sort(@NotNull Object input, @NotNull Algorithm algorithm);
+    }
+
+    /** Size of input. */
+    @Param({ "256", "65536", "1048576", "16777216" })
+    public int size;
+
+    /** Distribution of input. */
+    @Param
+    public Distribution distribution;
+
+    /** Element type. */
+    @Param
+    public Type type;
+
+    /** Sorting algorithm. */
+    @Param
+    public Algorithm algorithm;
+
+    /** Generated input, not modified. */
+    private Object source;
+    /** Copy of input, sorted by each operation. */
+    private Object work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = type.convert(distribution.generate(size, size));
+        work = type.convert(new int[size]);
+    }
+
+    @Benchmark
+    public Object sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        type.sort(work, algorithm);
+        return work;
+    }
+
+}
@@ -0,0 +1,80 @@
+package sorting;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of RecordSort on heap and direct buffers of records of several widths, over sizes from 256 to 2^20
+ * records and all distributions. Key of each record is int of distribution with flipped sign bit, written
+ * big-endian at offset 0, so records are sorted in same order as ints. Rest of record is filled with its index.
+ * Each operation copies input into work buffer and sorts it, with sort == false it measures copying alone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Thread)
+public class RecordSortBenchmark {
+
+    /** Number of records. */
+    @Param({ "256", "65536", "1048576" })
+    public int size;
+
+    /** Size of record in bytes, key takes first 4 bytes. */
+    @Param({ "8", "16", "64" })
+    public int recordWidth;
+
+    /** True == buffers are direct, false == heap buffers. */
+    @Param({ "false", "true" })
+    public boolean direct;
+
+    /** True == records are sorted, false == only copied, baseline. */
+    @Param({ "true", "false" })
+    public boolean sort;
+
+    /** Distribution of keys. */
+    @Param
+    public Distribution distribution;
+
+    /** Generated records, not modified. */
+    private ByteBuffer source;
+    /** Copy of records, sorted by each operation. */
+    private ByteBuffer work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] keys = distribution.generate(size, size);
+        source = direct ? ByteBuffer.allocateDirect(size * recordWidth) : ByteBuffer.allocate(size * recordWidth);
+        work = direct ? ByteBuffer.allocateDirect(size * recordWidth) : ByteBuffer.allocate(size * recordWidth);
+        for (int i = 0; i < size; i++) {
+            source.putInt(i * recordWidth, keys[i] ^ Integer.MIN_VALUE);
+            for (int offset = Integer.BYTES; offset + Integer.BYTES <= recordWidth; offset += Integer.BYTES) {
+                source.putInt(i * recordWidth + offset, i);
+            }
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer sort() {
+        work.clear();
+        work.put(source.duplicate());
+        work.flip();
+        if (sort) {
+            RecordSort.sort(work, recordWidth, 0, Integer.BYTES);
+        }
+        return work;
+    }
+
+}
@@ -0,0 +1,123 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of quadratic sorters and leaf sorts on small int arrays, sizes from 4 to 1024.
+ * Quadratic sorters can not run on large sizes of SortBenchmark. Sizes around cutoffs of SortProfile show where
+ * insertion sort stops being faster than partitioning or merging, so this benchmark is used for checking cutoffs
+ * chosen by SortCalibration (run with -jvmArgsAppend -Dsorting.profile=path).
+ * Result is average time of one sort in nanoseconds, including copy of input (see COPY).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SmallSortBenchmark {
+
+    /** Sorters of small int arrays. */
+    public enum Algorithm {
+        /** Only copying input, baseline for other algorithms. */
+        COPY {
+            @Override
+            void sort(@NotNull int[] input) {
+            }
+        },
+        INSERTION {
+            @Override
+            void sort(@NotNull int[] input) {
+                InsertionSort.sort(input);
+            }
+        },
+        SELECTION {
+            @Override
+            void sort(@NotNull int[] input) {
+                SelectionSort.sort(input);
+            }
+        },
+        BUBBLE {
+            @Override
+            void sort(@NotNull int[] input) {
+                BubbleSort.sort(input);
+            }
+        },
+        /** Leaf sort of quick sort: vectorized sorting network or insertion sort (sizes up to LEAF_SIZE). */
+        KERNEL {
+            @Override
+            void sort(@NotNull int[] input) {
+                if (input.length <= SortKernel.LEAF_SIZE) {
+                    SortKernels.KERNEL.sort(input, 0, input.length);
+                } else {
+                    QuickSort.sort(input, QuickSort.Partition.VECTOR);
+                }
+            }
+        },
+        QUICK {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.sort(input, QuickSort.Partition.HOARE);
+            }
+        },
+        MERGE {
+            @Override
+            void sort(@NotNull int[] input) {
+                MergeSort.sort(input);
+            }
+        },
+        TIM {
+            @Override
+            void sort(@NotNull int[] input) {
+                TimSort.sort(input);
+            }
+        };
+
+        /** Sorts input with this algorithm. */
+        abstract void sort(@NotNull int[] input);
+    }
+
+    /** Size of input. */
+    @Param({ "4", "8", "16", "24", "32", "48", "64", "128", "256", "1024" })
+    public int size;
+
+    /** Distribution of input. */
+    @Param({ "UNIFORM", "SORTED", "REVERSED", "FEW_UNIQUE" })
+    public Distribution distribution;
+
+    /** Sorting algorithm. */
+    @Param
+    public Algorithm algorithm;
+
+    /** Generated input, not modified. */
+    private int[] source;
+    /** Copy of input, sorted by each operation. */
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = distribution.generate(size, size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        algorithm.sort(work);
+        return work;
+    }
+
+}
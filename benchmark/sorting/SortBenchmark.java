@@ -0,0 +1,152 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of O(n log(n)) and linear sorters of int arrays over sizes from 16 to 10^8 and all distributions.
+ * Each operation copies generated input into work array and sorts it, COPY measures copying alone.
+ * Throughput is reported in sorts per second; run with -prof gc for allocation rate per sort and with -t for
+ * scaling of independent sorts with number of threads (each thread has own arrays).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    /** Sorters of int arrays. */
+    public enum Algorithm {
+        /** Only copying input, baseline for other algorithms. */
+        COPY {
+            @Override
+            void sort(@NotNull int[] input) {
+            }
+        },
+        /** Arrays.sort of JDK (dual-pivot quick sort), reference. */
+        JDK {
+            @Override
+            void sort(@NotNull int[] input) {
+                Arrays.sort(input);
+            }
+        },
+        /** Sorts.sort, strategy picked by input. */
+        SORTS {
+            @Override
+            void sort(@NotNull int[] input) {
+                Sorts.sort(input);
+            }
+        },
+        /** Quick sort, partition picked by sample. */
+        QUICK {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.sort(input);
+            }
+        },
+        QUICK_HOARE {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.sort(input, QuickSort.Partition.HOARE);
+            }
+        },
+        QUICK_LOMUTO {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.sort(input, QuickSort.Partition.LOMUTO);
+            }
+        },
+        QUICK_THREE_WAY {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.sort(input, QuickSort.Partition.THREE_WAY);
+            }
+        },
+        QUICK_BLOCK {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.sort(input, QuickSort.Partition.BLOCK);
+            }
+        },
+        /** Quick sort with vectorized kernels, scalar kernels without --add-modules jdk.incubator.vector. */
+        QUICK_VECTOR {
+            @Override
+            void sort(@NotNull int[] input) {
+                QuickSort.sort(input, QuickSort.Partition.VECTOR);
+            }
+        },
+        MERGE {
+            @Override
+            void sort(@NotNull int[] input) {
+                MergeSort.sort(input);
+            }
+        },
+        TIM {
+            @Override
+            void sort(@NotNull int[] input) {
+                TimSort.sort(input);
+            }
+        },
+        HEAP {
+            @Override
+            void sort(@NotNull int[] input) {
+                HeapSort.sort(input);
+            }
+        },
+        RADIX {
+            @Override
+            void sort(@NotNull int[] input) {
+                RadixSort.sort(input);
+            }
+        };
+
+        /** Sorts input with this algorithm. */
+        abstract void sort(@NotNull int[] input);
+    }
+
+    /** Size of input. */
+    @Param({ "16", "256", "4096", "65536", "1048576", "16777216", "100000000" })
+    public int size;
+
+    /** Distribution of input. */
+    @Param
+    public Distribution distribution;
+
+    /** Sorting algorithm. */
+    @Param
+    public Algorithm algorithm;
+
+    /** Generated input, not modified. */
+    private int[] source;
+    /** Copy of input, sorted by each operation. */
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = distribution.generate(size, size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        algorithm.sort(work);
+        return work;
+    }
+
+}
@@ -0,0 +1,118 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of sorters of strings over sizes from 256 to 2^20 and all distributions.
+ * Each int of distribution is written as 8 lowercase hex digits of the int with flipped sign bit, so strings have
+ * same order as ints, characters are in '0'..'f' and sorted or few unique ints give sorted or few unique strings.
+ * Each operation copies references of input into work array and sorts it, COPY measures copying alone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Thread)
+public class StringSortBenchmark {
+
+    /** Length of strings. */
+    private static final int LENGTH = 8;
+
+    /** Sorters of strings. */
+    public enum Algorithm {
+        /** Only copying input, baseline for other algorithms. */
+        COPY {
+            @Override
+            void sort(@NotNull String[] input) {
+            }
+        },
+        /** Arrays.sort of JDK (TimSort with String.compareTo), reference. */
+        JDK {
+            @Override
+            void sort(@NotNull String[] input) {
+                Arrays.sort(input);
+            }
+        },
+        MSD {
+            @Override
+            void sort(@NotNull String[] input) {
+                MsdRadixSort.sort(input, '0', 'f');
+            }
+        },
+        /** Parallel MSD radix sort in common fork-join pool. */
+        MSD_PARALLEL {
+            @Override
+            void sort(@NotNull String[] input) {
+                MsdRadixSort.parallelSort(input, '0', 'f');
+            }
+        },
+        /** LSD radix sort by counting sort of each character, strings are converted to arrays of characters. */
+        LSD {
+            @Override
+            void sort(@NotNull String[] input) {
+                RadixSort.sort(input, '0', 'f', LENGTH);
+            }
+        },
+        /** Strings are argsorted and permuted in place. */
+        ARGSORT {
+            @Override
+            void sort(@NotNull String[] input) {
+                ArgSort.permute(ArgSort.argsort(input), input);
+            }
+        };
+
+        /** Sorts input with this algorithm. */
+        abstract void sort(@NotNull String[] input);
+    }
+
+    /** Size of input. */
+    @Param({ "256", "65536", "1048576" })
+    public int size;
+
+    /** Distribution of input. */
+    @Param
+    public Distribution distribution;
+
+    /** Sorting algorithm. */
+    @Param
+    public Algorithm algorithm;
+
+    /** Generated input, not modified. */
+    private String[] source;
+    /** Copy of input, sorted by each operation. */
+    private String[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] values = distribution.generate(size, size);
+        source = new String[size];
+        for (int i = 0; i < size; i++) {
+            String hex = Integer.toHexString(values[i] ^ Integer.MIN_VALUE);
+            source[i] = "00000000".substring(hex.length()) + hex;
+        }
+        work = new String[size];
+    }
+
+    @Benchmark
+    public String[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        algorithm.sort(work);
+        return work;
+    }
+
+}
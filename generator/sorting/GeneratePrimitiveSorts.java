@@ -0,0 +1,138 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/** This class generating sorters of primitive types (LongSort, DoubleSort, FloatSort, ShortSort and CharSort) from
+ * PrimitiveSort.template, so they keep same structure and differ only in element type.
+ * Placeholders of template: $Type$ (prefix of class name), $type$ (element type), $Boxed$ (wrapper class),
+ * $rawBits$ (method returning raw bits of floating point value), $zero$ (zero literal) and $nanNote$ (note, that
+ * input must not contain NaN). Lines between "//#if FLAG" and "//#else" or "//#endif" are kept only for types with
+ * FLAG, lines between "//#else" and "//#endif" only for other types. Conditions are not nested.
+ * Run from root of project: java sorting.GeneratePrimitiveSorts [--check]
+ * With --check files are not written, generator lists outdated files and exits with status 1 if there are any.
+ */
+final class GeneratePrimitiveSorts {
+
+    /** Path of template, relative to root of project. */
+    private static final String TEMPLATE = "generator/sorting/PrimitiveSort.template";
+    /** Directory of generated sorters, relative to root of project. */
+    private static final String OUTPUT = "src/sorting";
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+
+    private GeneratePrimitiveSorts() {
+        throw new RuntimeException("GeneratePrimitiveSorts is noninstantiable");
+    }
+
+    /** Element types of generated sorters with values of placeholders and flags of conditions. */
+    enum ElementType {
+        LONG("Long", "long", "Long", "", "", false, false),
+        DOUBLE("Double", "double", "Double", "Double.doubleToRawLongBits", "0.0", true, false),
+        FLOAT("Float", "float", "Float", "Float.floatToRawIntBits", "0.0f", true, false),
+        SHORT("Short", "short", "Short", "", "", false, true),
+        CHAR("Char", "char", "Character", "", "", false, true);
+
+        /** Prefix of class name. */
+        private final String prefix;
+        /** Primitive element type. */
+        private final String type;
+        /** Wrapper class of element type. */
+        private final String boxed;
+        /** Method returning raw bits of floating point value, empty for integral types. */
+        private final String rawBits;
+        /** Zero literal of floating point type, empty for integral types. */
+        private final String zero;
+        /** True == FLOATING condition: NaN and -0.0 need special handling. */
+        private final boolean floating;
+        /** True == SMALL condition: 16 bit type, large arrays are sorted with counting sort. */
+        private final boolean small;
+
+        ElementType(@NotNull String prefix, @NotNull String type, @NotNull String boxed, @NotNull String rawBits,
+                    @NotNull String zero, boolean floating, boolean small) {
+            this.prefix = prefix;
+            this.type = type;
+            this.boxed = boxed;
+            this.rawBits = rawBits;
+            this.zero = zero;
+            this.floating = floating;
+            this.small = small;
+        }
+
+        /** Returns true if this type has flag of condition. */
+        private boolean has(@NotNull String flag) {
+            switch (flag) {
+                case "FLOATING":
+                    return floating;
+                case "SMALL":
+                    return small;
+                default:
+                    throw new IllegalArgumentException(
+                            "Error @ GeneratePrimitiveSorts.has() :: unknown flag == " + flag);
+            }
+        }
+
+        /** Returns source of sorter of this type, generated from lines of template. */
+        @NotNull String generate(@NotNull List<String> template) {
+            StringBuilder source = new StringBuilder();
+            boolean keep = true;
+            for (String line : template) {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("//#if ")) {
+                    keep = has(trimmed.substring("//#if ".length()).trim());
+                } else if (trimmed.equals("//#else")) {
+                    keep = !keep;
+                } else if (trimmed.equals("//#endif")) {
+                    keep = true;
+                } else if (keep) {
+                    source.append(line.replace("$Type$", prefix).replace("$type$", type).replace("$Boxed$", boxed)
+                            .replace("$rawBits$", rawBits).replace("$zero$", zero)
+                            .replace("$nanNote$", floating ? ", must not contain NaN" : "")).append('\n');
+                }
+            }
+            return source.toString();
+        }
+    }
+
+    /** Generates sorters of all element types, or checks that they are up to date with --check argument.
+     *
+     * @param args Command line arguments
+     *
+     * @throws IOException if template can not be read or sorter can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        boolean check = args.length == 1 && args[0].equals("--check");
+        if (args.length > 1 || args.length == 1 && !check) {
+            System.err.println("Usage: java sorting.GeneratePrimitiveSorts [--check]");
+            return;
+        }
+        List<String> template = Files.readAllLines(Paths.get(TEMPLATE), StandardCharsets.UTF_8);
+        int outdated = 0;
+        for (ElementType type : ElementType.values()) {
+            Path file = Paths.get(OUTPUT, type.prefix + "Sort.java");
+            byte[] source = type.generate(template).getBytes(StandardCharsets.UTF_8);
+            if (check) {
+                if (!Files.isRegularFile(file) || !Arrays.equals(source, Files.readAllBytes(file))) {
+                    System.out.println("Outdated: " + file);
+                    outdated++;
+                }
+            } else {
+                Files.write(file, source);
+                System.out.println("Generated: " + file);
+            }
+        }
+        if (outdated > 0) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,252 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/** Vectorized kernels of quick sort, using 256-bit vectors of 8 ints from Vector API (jdk.incubator.vector).
+ * This class needs JDK 16+ and --add-modules jdk.incubator.vector for compiling and running, so it is kept in
+ * optional source root src-vector, and src compiles without it. It is never referenced directly: SortKernels loads it
+ * by name and falls back to scalar kernels, if it can not be loaded.
+ */
+final class VectorSortKernel implements SortKernel {
+
+    /** Species of vectors: 8 lanes of ints. */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_256;
+    /** Number of lanes in vector. */
+    private static final int LANES = 8;
+    /** Vector of Integer.MAX_VALUE, used for padding. */
+    private static final IntVector PADDING = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+
+    /** Shuffles, exchanging lanes l and l ^ j, indexed by j (1, 2 or 4). */
+    private static final VectorShuffle<Integer>[] EXCHANGE;
+    /** Masks of lanes with (l & j) != 0, taking max in ascending block, indexed by j. */
+    private static final VectorMask<Integer>[] UPPER;
+    /** Masks of lanes taking max, when blocks of size k < LANES are inside vector, indexed by k and j. */
+    private static final VectorMask<Integer>[][] BLOCK_UPPER;
+    /** Shuffles moving lanes set in mask to start of vector and other lanes to end, indexed by bits of mask. */
+    private static final VectorShuffle<Integer>[] COMPRESS;
+
+    /** Scratch array of each thread, leaf is padded in it to power of 2 with Integer.MAX_VALUE. */
+    private static final ThreadLocal<int[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new int[LEAF_SIZE]);
+
+    static {
+        @SuppressWarnings({"rawtypes", "unchecked"}) VectorShuffle<Integer>[] exchange = new VectorShuffle[LANES];
+        @SuppressWarnings({"rawtypes", "unchecked"}) VectorMask<Integer>[] upper = new VectorMask[LANES];
+        @SuppressWarnings({"rawtypes", "unchecked"}) VectorMask<Integer>[][] blockUpper = new VectorMask[LANES][LANES];
+        for (int j = 1; j < LANES; j <<= 1) {
+            final int stride = j;
+            exchange[j] = VectorShuffle.fromOp(SPECIES, l -> l ^ stride);
+            boolean[] lanes = new boolean[LANES];
+            for (int l = 0; l < LANES; l++) {
+                lanes[l] = (l & j) != 0;
+            }
+            upper[j] = VectorMask.fromArray(SPECIES, lanes, 0);
+            for (int k = 2 * j; k < LANES; k <<= 1) {
+                for (int l = 0; l < LANES; l++) {
+                    lanes[l] = ((l & j) != 0) != ((l & k) != 0);
+                }
+                blockUpper[k][j] = VectorMask.fromArray(SPECIES, lanes, 0);
+            }
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"}) VectorShuffle<Integer>[] compress = new VectorShuffle[1 << LANES];
+        int[] indexes = new int[LANES];
+        for (int bits = 0; bits < 1 << LANES; bits++) {
+            int n = 0;
+            for (int l = 0; l < LANES; l++) {
+                if ((bits & 1 << l) != 0) {
+                    indexes[n++] = l;
+                }
+            }
+            for (int l = 0; l < LANES; l++) {
+                if ((bits & 1 << l) == 0) {
+                    indexes[n++] = l;
+                }
+            }
+            compress[bits] = VectorShuffle.fromArray(SPECIES, indexes, 0);
+        }
+
+        EXCHANGE = exchange;
+        UPPER = upper;
+        BLOCK_UPPER = blockUpper;
+        COMPRESS = compress;
+    }
+
+    // Thread safety argument:
+    //      This class is thread safe, because it has no state: static fields are immutable after initialization.
+    //      Each thread uses own scratch array.
+
+    /** Creates kernels, called by SortKernels through reflection.
+     *
+     * @throws UnsupportedOperationException if hardware has no vectors of 8 ints, so Vector API would be emulated
+     */
+    VectorSortKernel() {
+        if (IntVector.SPECIES_PREFERRED.length() < LANES) {
+            throw new UnsupportedOperationException(
+                    "Error @ new VectorSortKernel() :: no 256-bit vectors == " + IntVector.SPECIES_PREFERRED);
+        }
+    }
+
+    /** Sorts part of input with vectorized bitonic sorting network.
+     * Part is loaded with masked loads into scratch of power of 2 size (8, 16, 32 or 64), padded with
+     * Integer.MAX_VALUE. Stages with stride >= 8 compare-exchange whole vectors with min and max, stages with
+     * smaller strides exchange lanes inside one vector with shuffle, min, max and blend, without storing it between
+     * stages. Result is stored back with masked stores.
+     * Complexity: O(n log^2(n) / 8), where n <= LEAF_SIZE
+     */
+    @Override
+    public void sort(@NotNull int[] input, int left, int right) {
+        int size = right - left;
+        if (size < LANES) {
+            InsertionSort.sort(input, left, right);
+            return;
+        }
+        int padded = Integer.highestOneBit(size - 1) << 1;
+        int[] scratch = SCRATCH.get();
+        for (int i = 0; i < padded; i += LANES) {
+            VectorMask<Integer> mask = SPECIES.indexInRange(i, size);
+            IntVector.fromArray(SPECIES, input, left + i, mask).blend(PADDING, mask.not()).intoArray(scratch, i);
+        }
+
+        for (int k = 2; k <= padded; k <<= 1) {
+            int j = k >>> 1;
+            for (; j >= LANES; j >>>= 1) {
+                for (int i = 0; i < padded; i += 2 * j) {
+                    for (int t = i; t < i + j; t += LANES) {
+                        IntVector a = IntVector.fromArray(SPECIES, scratch, t);
+                        IntVector b = IntVector.fromArray(SPECIES, scratch, t + j);
+                        boolean ascending = (t & k) == 0;
+                        a.min(b).intoArray(scratch, ascending ? t : t + j);
+                        a.max(b).intoArray(scratch, ascending ? t + j : t);
+                    }
+                }
+            }
+            for (int i = 0; i < padded; i += LANES) {
+                IntVector v = IntVector.fromArray(SPECIES, scratch, i);
+                for (int stride = j; stride > 0; stride >>>= 1) {
+                    IntVector exchanged = v.rearrange(EXCHANGE[stride]);
+                    VectorMask<Integer> upper = k < LANES ? BLOCK_UPPER[k][stride]
+                            : (i & k) == 0 ? UPPER[stride] : UPPER[stride].not();
+                    v = v.min(exchanged).blend(v.max(exchanged), upper);
+                }
+                v.intoArray(scratch, i);
+            }
+        }
+
+        for (int i = 0; i < size; i += LANES) {
+            IntVector.fromArray(SPECIES, scratch, i).intoArray(input, left + i, SPECIES.indexInRange(i, size));
+        }
+    }
+
+    /** Performs in-place vectorized partition of input[left..right-1] around pivot input[right-1].
+     * Elements < pivot are moved to the left part and elements >= pivot to the right part, then pivot is swapped to
+     * boundary of parts. If left part is empty, pivot is minimum of part, which is typical for many equal keys (all
+     * keys equal or few unique keys): right part is partitioned again into elements == pivot and > pivot, so equal
+     * keys are placed next to pivot and are not partitioned again. Otherwise each partition of equal keys would move
+     * all of them to the right part, until recursion is too deep and quick sort falls back to heap sort.
+     * Complexity: O(n / 8)
+     *
+     * @return (leftTo << 32 | rightFrom), where input[left..leftTo-1] < pivot, input[leftTo..rightFrom-1] == pivot
+     *         and input[rightFrom..right-1] >= pivot
+     */
+    @Override
+    public long partition(@NotNull int[] input, int left, int right) {
+        int pivot = input[right - 1];
+        int end = right - 1;
+        int part = partition(input, left, end, pivot, false);
+        input[end] = input[part];
+        input[part] = pivot;
+        SortMetrics.swaps(1);
+        if (part > left) {
+            return (long) part << Integer.SIZE | part + 1;
+        }
+        return (long) left << Integer.SIZE | partition(input, left + 1, right, pivot, true);
+    }
+
+    /** Performs in-place vectorized partition of input[from..to-1], elements < pivot (or <= pivot, if inclusive)
+     * are moved to the left part and other elements to the right part.
+     * First and last vectors are saved in registers, which leaves free space of one vector at both ends. Then each
+     * vector is read from the side with less free space, its lanes of the left part are moved to start and other
+     * lanes to end with shuffle from table, indexed by bits of comparison mask, and whole vector is stored twice: at
+     * write position of left part and ending at write position of right part. Free space on both sides stays >= one
+     * vector, so stores never overwrite unread elements. Tail of less than vector is loaded with masked load, so
+     * free space in the middle becomes continuous, and tail and both saved vectors are stored into it.
+     * Parts of less than 2 vectors are partitioned with scalar Lomuto partition.
+     *
+     * @return index of first element of the right part
+     */
+    private static int partition(@NotNull int[] input, int from, int to, int pivot, boolean inclusive) {
+        if (to - from < 2 * LANES) {
+            int part = from;
+            for (int i = from; i < to; i++) {
+                int value = input[i];
+                if (value < pivot || inclusive && value == pivot) {
+                    input[i] = input[part];
+                    input[part++] = value;
+                }
+            }
+            SortMetrics.swaps(part - from);
+            return part;
+        }
+
+        VectorOperators.Comparison comparison = inclusive ? VectorOperators.LE : VectorOperators.LT;
+        IntVector pivots = IntVector.broadcast(SPECIES, pivot);
+        IntVector first = IntVector.fromArray(SPECIES, input, from);
+        IntVector last = IntVector.fromArray(SPECIES, input, to - LANES);
+        int readLeft = from + LANES;
+        int readRight = to - LANES;
+        int writeLeft = from;
+        int writeRight = to;
+
+        while (readRight - readLeft >= LANES) {
+            IntVector v;
+            if (readLeft - writeLeft <= writeRight - readRight) {
+                v = IntVector.fromArray(SPECIES, input, readLeft);
+                readLeft += LANES;
+            } else {
+                readRight -= LANES;
+                v = IntVector.fromArray(SPECIES, input, readRight);
+            }
+            int less = store(v, v.compare(comparison, pivots), input, writeLeft, writeRight);
+            writeLeft += less;
+            writeRight -= LANES - less;
+        }
+
+        // less than vector is left unread, after masked load of it free space in the middle is continuous
+        VectorMask<Integer> valid = SPECIES.indexInRange(readLeft, readRight);
+        IntVector tail = IntVector.fromArray(SPECIES, input, readLeft, valid);
+        VectorMask<Integer> tailLess = tail.compare(comparison, pivots, valid);
+        // invalid lanes are moved after lanes of left part, so they are stored only by the left store and overwritten
+        IntVector compressed = tail.rearrange(COMPRESS[(int) tailLess.or(valid.not()).toLong()]);
+        compressed.intoArray(input, writeLeft);
+        compressed.intoArray(input, writeRight - LANES);
+        writeLeft += tailLess.trueCount();
+        writeRight -= valid.trueCount() - tailLess.trueCount();
+
+        int less = store(first, first.compare(comparison, pivots), input, writeLeft, writeRight);
+        writeLeft += less;
+        writeRight -= LANES - less;
+        SortMetrics.moves(to - from); // each element is stored once at its part, stores of other lanes are overwritten
+        return writeLeft + store(last, last.compare(comparison, pivots), input, writeLeft, writeRight);
+    }
+
+    /** Stores lanes of v set in mask at input[writeLeft..] and other lanes ending at input[writeRight - 1].
+     * Both stores write whole vector, so there must be free space of one vector at both positions.
+     *
+     * @return number of lanes set in mask
+     */
+    private static int store(@NotNull IntVector v, @NotNull VectorMask<Integer> mask, @NotNull int[] input,
+                             int writeLeft, int writeRight) {
+        IntVector compressed = v.rearrange(COMPRESS[(int) mask.toLong()]);
+        compressed.intoArray(input, writeLeft);
+        compressed.intoArray(input, writeRight - LANES);
+        return mask.trueCount();
+    }
+
+}
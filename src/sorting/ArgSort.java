@@ -0,0 +1,340 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.lang.reflect.Array;
+
+/** This class implementing indirect sorting: argsort returns permutation perm of indices of keys, such as for each i,
+ * keys[perm[i]] <= keys[perm[i+1]], keys are not modified. Permutation can be applied to any number of companion
+ * arrays (columns of table) in place, moving each element once.
+ */
+class ArgSort {
+
+    /** Defines size of array part, when merge sort of indices switches to insertion sort. */
+    private static final int MERGE_TO_INSERTION_THRESHOLD = 16;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      permute() modifies permutation temporarily, so permutation must not be shared between threads during it.
+
+    private ArgSort() {
+        throw new RuntimeException("ArgSort is noninstantiable");
+    }
+
+    /** Returns permutation, that sorts int keys.
+     * Each key and its index are packed in one long (key in high bits) and sorted by radix sort, so equal keys keep
+     * order of indices. Sort is stable.
+     * Complexity: O(n); Memory: n longs
+     *
+     * @param keys Array of ints, not modified
+     *
+     * @return permutation perm, such as keys[perm[i]] <= keys[perm[i+1]]
+     */
+    public static @NotNull int[] argsort(@NotNull int[] keys) {
+        long[] pairs = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            pairs[i] = (long) keys[i] << Integer.SIZE | i;
+        }
+        RadixSort.sort(pairs);
+        int[] perm = new int[keys.length];
+        for (int i = 0; i < perm.length; i++) {
+            perm[i] = (int) pairs[i];
+        }
+        return perm;
+    }
+
+    /** Returns permutation, that sorts long keys.
+     * Copy of keys is sorted by radix sort together with indices. Sort is stable.
+     * Complexity: O(n); Memory: 2n longs + 2n ints
+     *
+     * @param keys Array of longs, not modified
+     *
+     * @return permutation perm, such as keys[perm[i]] <= keys[perm[i+1]]
+     */
+    public static @NotNull int[] argsort(@NotNull long[] keys) {
+        int[] perm = identity(keys.length);
+        RadixSort.sort(keys.clone(), perm);
+        return perm;
+    }
+
+    /** Returns permutation, that sorts strings in natural order (String.compareTo).
+     * Indices are sorted by merge sort, comparing strings they point to. Sort is stable.
+     * Complexity: O(n log(n)) comparisons; Memory: 2n ints
+     *
+     * @param keys Array of strings, not null, not modified
+     *
+     * @return permutation perm, such as keys[perm[i]] <= keys[perm[i+1]]
+     */
+    public static @NotNull int[] argsort(@NotNull String[] keys) {
+        int[] perm = identity(keys.length);
+        mergeSort(keys, perm.clone(), perm, 0, perm.length);
+        return perm;
+    }
+
+    /** Rearranges column in place, such as column'[i] = column[perm[i]].
+     * Permutation is decomposed into cycles, elements of each cycle are shifted along it with one temporary
+     * variable, so each element is moved once. Visited indices are marked by inverting their entries of perm,
+     * perm is restored before return.
+     * Complexity: O(n); Memory: O(1)
+     *
+     * @param perm permutation of 0..n-1, for example result of argsort
+     * @param column Array of n ints
+     */
+    public static void permute(@NotNull int[] perm, @NotNull int[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                int tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of longs in place, see permute(int[], int[]). */
+    public static void permute(@NotNull int[] perm, @NotNull long[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                long tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of doubles in place, see permute(int[], int[]). */
+    public static void permute(@NotNull int[] perm, @NotNull double[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                double tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of floats in place, see permute(int[], int[]). */
+    public static void permute(@NotNull int[] perm, @NotNull float[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                float tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of shorts in place, see permute(int[], int[]). */
+    public static void permute(@NotNull int[] perm, @NotNull short[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                short tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of chars in place, see permute(int[], int[]). */
+    public static void permute(@NotNull int[] perm, @NotNull char[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                char tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of bytes in place, see permute(int[], int[]). */
+    public static void permute(@NotNull int[] perm, @NotNull byte[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                byte tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of booleans in place, see permute(int[], int[]). */
+    public static void permute(@NotNull int[] perm, @NotNull boolean[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                boolean tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges column of objects in place, see permute(int[], int[]).
+     *
+     * @param <T> Type of objects
+     */
+    public static <T> void permute(@NotNull int[] perm, @NotNull T[] column) {
+        checkLength(perm, column.length);
+        for (int i = 0; i < perm.length; i++) {
+            if (perm[i] >= 0) {
+                T tmp = column[i];
+                int j = i;
+                for (int k = perm[j]; k != i; j = k, k = perm[j]) {
+                    column[j] = column[k];
+                    perm[j] = ~k;
+                }
+                column[j] = tmp;
+                perm[j] = ~i;
+            }
+        }
+        restore(perm);
+    }
+
+    /** Rearranges any number of columns in place, see permute(int[], int[]).
+     * All columns are checked before any of them is rearranged, so invalid column leaves all columns unchanged.
+     *
+     * @param perm permutation of 0..n-1, for example result of argsort
+     * @param columns Arrays of n elements: arrays of primitives or of objects
+     *
+     * @throws IllegalArgumentException if some column is not array or its length is not n
+     */
+    public static void permuteAll(@NotNull int[] perm, @NotNull Object... columns) {
+        for (Object column : columns) {
+            if (column == null || !column.getClass().isArray()) {
+                throw new IllegalArgumentException("Error @ ArgSort.permuteAll() :: column is not array == " + column);
+            }
+            checkLength(perm, Array.getLength(column));
+        }
+        for (Object column : columns) {
+            if (column instanceof int[]) {
+                permute(perm, (int[]) column);
+            } else if (column instanceof long[]) {
+                permute(perm, (long[]) column);
+            } else if (column instanceof double[]) {
+                permute(perm, (double[]) column);
+            } else if (column instanceof float[]) {
+                permute(perm, (float[]) column);
+            } else if (column instanceof short[]) {
+                permute(perm, (short[]) column);
+            } else if (column instanceof char[]) {
+                permute(perm, (char[]) column);
+            } else if (column instanceof byte[]) {
+                permute(perm, (byte[]) column);
+            } else if (column instanceof boolean[]) {
+                permute(perm, (boolean[]) column);
+            } else {
+                permute(perm, (Object[]) column);
+            }
+        }
+    }
+
+    /** Returns array 0, 1, ..., size - 1. */
+    private static @NotNull int[] identity(int size) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    /** Throws exception, if length of column is not equal to length of permutation. */
+    private static void checkLength(@NotNull int[] perm, int length) {
+        if (perm.length != length) {
+            throw new IllegalArgumentException(
+                    "Error @ ArgSort.permute() :: length of column != " + perm.length + " == " + length);
+        }
+    }
+
+    /** Inverts back all entries of permutation, marked as visited. */
+    private static void restore(@NotNull int[] perm) {
+        for (int i = 0; i < perm.length; i++) {
+            perm[i] = ~perm[i];
+        }
+    }
+
+    /** Stable merge sort of indices src[left..right-1] by strings they point to, result is written to
+     * dst[left..right-1]. src and dst must contain same indices at start (roles are swapped on each level).
+     */
+    private static void mergeSort(@NotNull String[] keys, @NotNull int[] src, @NotNull int[] dst, int left, int right) {
+        if (right - left <= MERGE_TO_INSERTION_THRESHOLD) {
+            for (int i = left + 1; i < right; i++) {
+                int index = dst[i];
+                int j = i - 1;
+                for (; j >= left && keys[dst[j]].compareTo(keys[index]) > 0; j--) {
+                    dst[j + 1] = dst[j];
+                }
+                dst[j + 1] = index;
+            }
+            return;
+        }
+        int middle = (left + right) >>> 1;
+        mergeSort(keys, dst, src, left, middle);
+        mergeSort(keys, dst, src, middle, right);
+        if (keys[src[middle - 1]].compareTo(keys[src[middle]]) <= 0) {
+            System.arraycopy(src, left, dst, left, right - left);
+            return;
+        }
+        for (int i = left, l = left, r = middle; i < right; i++) {
+            if (r >= right || l < middle && keys[src[l]].compareTo(keys[src[r]]) <= 0) {
+                dst[i] = src[l++];
+            } else {
+                dst[i] = src[r++];
+            }
+        }
+    }
+}
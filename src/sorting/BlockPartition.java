@@ -0,0 +1,171 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+/** This class implementing block partition of quick sort (BlockQuicksort by Edelkamp and Weiss), which has no
+ * branches depending on comparisons of elements with pivot.
+ */
+class BlockPartition {
+
+    /** Defines number of elements in block, scanned before swapping. */
+    private static final int BLOCK_SIZE = 128;
+
+    /** Buffers of offsets of each thread: offsets of left block at [0..BLOCK_SIZE-1], right block after them. */
+    private static final ThreadLocal<int[]> OFFSETS = ThreadLocal.withInitial(() -> new int[2 * BLOCK_SIZE]);
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Each thread uses own buffers of offsets.
+
+    private BlockPartition() {
+        throw new RuntimeException("BlockPartition is noninstantiable");
+    }
+
+    /** Performs partition of input[left..right-1] around pivot input[right-1], using block partition.
+     * Hoare's partition branches on every comparison with pivot, which is mispredicted for about half of elements
+     * of random input. Block partition scans block of BLOCK_SIZE elements from the left end and writes offset of
+     * each element, but moves write position only for elements >= pivot (result of comparison is added to position
+     * as 0 or 1, without branch). Same is done from the right end for elements <= pivot. Then elements at stored
+     * offsets are swapped pairwise, number of swaps is known in advance, so loop branches are predictable.
+     * Last less than two blocks are scanned as two shorter blocks, and elements left in one of buffers are moved
+     * to the boundary of parts. Finally pivot is swapped to boundary.
+     * Complexity: O(n)
+     *
+     * @param input Array of ints for partitioning
+     * @param left Left index (from, included), must be >= 0 && < (right - 1)
+     * @param right Right index (to, excluded), must be <= input.length
+     *
+     * @return index p, such as input[p] == pivot, input[left..p-1] <= pivot and input[p+1..right-1] >= pivot
+     */
+    static int partition(@NotNull int[] input, int left, int right) {
+        int[] offsets = OFFSETS.get();
+        final int pivot = input[right - 1];
+        int begin = left;
+        int last = right - 2;
+        int numLeft = 0;
+        int numRight = 0;
+        int startLeft = 0;
+        int startRight = BLOCK_SIZE;
+        int swaps = 1; // pivot is swapped to boundary
+
+        while (last - begin + 1 > 2 * BLOCK_SIZE) {
+            if (numLeft == 0) {
+                startLeft = 0;
+                for (int j = 0; j < BLOCK_SIZE; j++) {
+                    offsets[numLeft] = j;
+                    numLeft += pivot <= input[begin + j] ? 1 : 0;
+                }
+            }
+            if (numRight == 0) {
+                startRight = BLOCK_SIZE;
+                for (int j = 0; j < BLOCK_SIZE; j++) {
+                    offsets[BLOCK_SIZE + numRight] = j;
+                    numRight += input[last - j] <= pivot ? 1 : 0;
+                }
+            }
+            int num = Math.min(numLeft, numRight);
+            swap(input, offsets, begin, startLeft, last, startRight, num);
+            swaps += num;
+            numLeft -= num;
+            numRight -= num;
+            startLeft += num;
+            startRight += num;
+            begin += numLeft == 0 ? BLOCK_SIZE : 0;
+            last -= numRight == 0 ? BLOCK_SIZE : 0;
+        }
+
+        // last two blocks, shorter than BLOCK_SIZE
+        int shiftLeft;
+        int shiftRight;
+        if (numLeft == 0 && numRight == 0) {
+            shiftLeft = (last - begin + 1) / 2;
+            shiftRight = last - begin + 1 - shiftLeft;
+            startLeft = 0;
+            startRight = BLOCK_SIZE;
+            for (int j = 0; j < shiftLeft; j++) {
+                offsets[numLeft] = j;
+                numLeft += pivot <= input[begin + j] ? 1 : 0;
+                offsets[BLOCK_SIZE + numRight] = j;
+                numRight += input[last - j] <= pivot ? 1 : 0;
+            }
+            if (shiftLeft < shiftRight) {
+                offsets[BLOCK_SIZE + numRight] = shiftRight - 1;
+                numRight += input[last - shiftRight + 1] <= pivot ? 1 : 0;
+            }
+        } else if (numRight != 0) {
+            shiftLeft = last - begin + 1 - BLOCK_SIZE;
+            shiftRight = BLOCK_SIZE;
+            startLeft = 0;
+            for (int j = 0; j < shiftLeft; j++) {
+                offsets[numLeft] = j;
+                numLeft += pivot <= input[begin + j] ? 1 : 0;
+            }
+        } else {
+            shiftLeft = BLOCK_SIZE;
+            shiftRight = last - begin + 1 - BLOCK_SIZE;
+            startRight = BLOCK_SIZE;
+            for (int j = 0; j < shiftRight; j++) {
+                offsets[BLOCK_SIZE + numRight] = j;
+                numRight += input[last - j] <= pivot ? 1 : 0;
+            }
+        }
+        int num = Math.min(numLeft, numRight);
+        swap(input, offsets, begin, startLeft, last, startRight, num);
+        swaps += num;
+        numLeft -= num;
+        numRight -= num;
+        startLeft += num;
+        startRight += num;
+        begin += numLeft == 0 ? shiftLeft : 0;
+        last -= numRight == 0 ? shiftRight : 0;
+
+        // elements left in one buffer are moved to the end of their block, next to the boundary
+        int part;
+        if (numLeft != 0) {
+            int i = startLeft + numLeft - 1;
+            int upper = last - begin;
+            for (; i >= startLeft && offsets[i] == upper; i--) {
+                upper--;
+            }
+            for (; i >= startLeft; i--) {
+                swap(input, begin + upper--, begin + offsets[i]);
+                swaps++;
+            }
+            part = begin + upper + 1;
+        } else if (numRight != 0) {
+            int i = startRight + numRight - 1;
+            int upper = last - begin;
+            for (; i >= startRight && offsets[i] == upper; i--) {
+                upper--;
+            }
+            for (; i >= startRight; i--) {
+                swap(input, last - upper--, last - offsets[i]);
+                swaps++;
+            }
+            part = last - upper;
+        } else {
+            part = begin;
+        }
+        swap(input, right - 1, part);
+        SortMetrics.swaps(swaps);
+        return part;
+    }
+
+    /** Swaps num elements at offsets from begin, stored from offsets[startLeft], with elements at offsets back from
+     * last, stored from offsets[startRight].
+     */
+    private static void swap(@NotNull int[] input, @NotNull int[] offsets, int begin, int startLeft, int last,
+                             int startRight, int num) {
+        for (int j = 0; j < num; j++) {
+            swap(input, begin + offsets[startLeft + j], last - offsets[startRight + j]);
+        }
+    }
+
+    /** Swaps input[i] and input[j]. */
+    private static void swap(@NotNull int[] input, int i, int j) {
+        int tmp = input[i];
+        input[i] = input[j];
+        input[j] = tmp;
+    }
+}
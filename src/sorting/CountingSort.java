@@ -2,13 +2,30 @@ package sorting;
 
 import com.sun.istack.internal.NotNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+
 /** This class implementing counting sort, modifying input such as for each key input[i], input[i] <= input[i+1].
  */
 class CountingSort {
 
+    /** Defines minimal number of rows in one chunk of parallel counting sort. */
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
+    /** Defines range of keys, that is always counted into dense histogram (256 KB of counters). */
+    private static final int DENSE_RANGE_LIMIT = 1 << 16;
+    /** Defines ratio of range of keys to number of objects, when sparse histogram is used instead of dense. */
+    private static final int SPARSE_RANGE_FACTOR = 4;
+
     // Thread safety argument:
     //      This class is thread safe, because it have no instances (everything static).
     //      Noninstantiability is enforced with private constructor.
+    //      Fork-join tasks of parallel sort are reading shared input and writing to own histograms or to disjoint
+    //      positions of result, computed before tasks are started.
 
     private CountingSort() {
         throw new RuntimeException("CountingSort is noninstantiable");
@@ -16,7 +33,7 @@ class CountingSort {
 
     /** Sorts input array by input[i][keyIndex] using counting sort.
      * Suitable for fast sorting integer keys in small range.
-     * Complexity: O(M + n), where M = keysTo - keysFrom
+     * Complexity: O(M + n), where M = keysTo - keysFrom + 1
      *
      * @param input array of key-value pairs to be sorted by keys
      * @param keysFrom integer <= min( keys of input )
@@ -25,29 +42,331 @@ class CountingSort {
      */
     public static void sort(@NotNull int[][] input, int keysFrom, int keysTo, int keyIndex) {
         if (input != null) {
+            SortMetrics.begin("CountingSort", input.length);
+            try {
+                int range = keysTo - keysFrom + 1;
+                int[][] result = new int[input.length][];
+                int[] counters = new int[range];
+
+                for (int[] keys : input) {
+                    counters[keys[keyIndex] - keysFrom]++;
+                }
+
+                for (int i = 0, pos = 0; i < range; i++) {
+                    int tmp = counters[i];
+                    counters[i] = pos;
+                    pos += tmp;
+                }
+
+                for (int[] keys: input) {
+                    result[counters[keys[keyIndex] - keysFrom]] = keys;
+                    counters[keys[keyIndex] - keysFrom]++;
+                }
+
+                System.arraycopy(result, 0, input, 0, input.length);
+                SortMetrics.moves(2L * input.length);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array of ints using counting sort.
+     * Occurrences of each key are counted and input is rewritten from counters, so no buffer of input size is needed.
+     * Complexity: O(M + n), where M = keysTo - keysFrom + 1
+     *
+     * @param input Array of ints
+     * @param keysFrom integer <= min( input )
+     * @param keysTo integer >= max( input ), keysTo - keysFrom must be < Integer.MAX_VALUE
+     */
+    public static void sort(@NotNull int[] input, int keysFrom, int keysTo) {
+        if (input != null) {
+            SortMetrics.begin("CountingSort", input.length);
+            try {
+                int[] counters = new int[keysTo - keysFrom + 1];
+                for (int key : input) {
+                    counters[key - keysFrom]++;
+                }
+
+                for (int i = 0, pos = 0; i < counters.length; i++) {
+                    for (int end = pos + counters[i]; pos < end; pos++) {
+                        input[pos] = keysFrom + i;
+                    }
+                }
+                SortMetrics.moves(input.length);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array of objects by int keys using stable counting sort, see sort(T[], ToIntFunction, int, int,
+     * Workspace). Buffers are allocated for this call only.
+     * Complexity: O(M + n), where M = keysTo - keysFrom + 1, or O(n) expected for sparse keys
+     *
+     * @param input Array of objects
+     * @param key Function, that returns key of object, called once for each object
+     * @param keysFrom integer <= min( keys of input )
+     * @param keysTo integer >= max( keys of input )
+     * @param <T> Type of objects
+     */
+    public static <T> void sort(@NotNull T[] input, @NotNull ToIntFunction<? super T> key, int keysFrom, int keysTo) {
+        sort(input, key, keysFrom, keysTo, new Workspace());
+    }
+
+    /** Sorts input array of objects by int keys using stable counting sort.
+     * Each key is extracted only once into primitive array of workspace. If range of keys is small (at most
+     * DENSE_RANGE_LIMIT or SPARSE_RANGE_FACTOR * n), keys are counted into dense histogram. Otherwise keys are
+     * counted into open-addressing hash histogram (IntCountMap), each key is replaced by dense index of its counter,
+     * and only distinct keys are sorted (by radix sort) for computing positions, so sort does not depend on range.
+     * Objects are scattered into output buffer of workspace and copied back, then output buffer is cleared.
+     * Buffers of workspace grow when needed and are reused by next calls with same workspace.
+     * Complexity: O(M + n), where M = keysTo - keysFrom + 1, or O(n) expected for sparse keys;
+     * Memory: n ints + n references + min(M, n) ints (sparse: + 2 * distinct longs), reused
+     *
+     * @param input Array of objects
+     * @param key Function, that returns key of object, called once for each object
+     * @param keysFrom integer <= min( keys of input )
+     * @param keysTo integer >= max( keys of input )
+     * @param workspace Buffers of histogram, keys and output, must not be used by other threads during sort
+     * @param <T> Type of objects
+     *
+     * @throws IllegalArgumentException if keysFrom > keysTo or some key is out of keysFrom..keysTo
+     */
+    public static <T> void sort(@NotNull T[] input, @NotNull ToIntFunction<? super T> key, int keysFrom, int keysTo,
+                                @NotNull Workspace workspace) {
+        if (keysFrom > keysTo) {
+            throw new IllegalArgumentException(
+                    "Error @ CountingSort.sort() :: keysFrom > keysTo == " + keysFrom + " > " + keysTo);
+        }
+        if (input == null || input.length < 2) {
+            return;
+        }
+
+        int n = input.length;
+        SortMetrics.begin("CountingSort", n);
+        try {
+            long range = (long) keysTo - keysFrom + 1;
+            int[] keys = workspace.keys(n);
+            int[] counters;
+            if (range <= Math.max(DENSE_RANGE_LIMIT, (long) SPARSE_RANGE_FACTOR * n)) {
+                counters = workspace.counters((int) range);
+                Arrays.fill(counters, 0, (int) range, 0);
+                for (int i = 0; i < n; i++) {
+                    int k = checkKey(key.applyAsInt(input[i]), keysFrom, keysTo) - keysFrom;
+                    keys[i] = k;
+                    counters[k]++;
+                }
+                for (int i = 0, pos = 0; i < range; i++) {
+                    int tmp = counters[i];
+                    counters[i] = pos;
+                    pos += tmp;
+                }
+            } else {
+                IntCountMap histogram = workspace.histogram();
+                for (int i = 0; i < n; i++) {
+                    keys[i] = histogram.add(checkKey(key.applyAsInt(input[i]), keysFrom, keysTo));
+                }
+                int distinct = histogram.size();
+                long[] order = workspace.order(distinct);
+                for (int i = 0; i < distinct; i++) {
+                    order[i] = (long) histogram.key(i) << Integer.SIZE | i;
+                }
+                RadixSort.sort(order, distinct, workspace.radixBuffer(distinct));
+                counters = workspace.counters(distinct);
+                for (int i = 0, pos = 0; i < distinct; i++) {
+                    int index = (int) order[i];
+                    counters[index] = pos;
+                    pos += histogram.count(index);
+                }
+            }
+
+            Object[] output = workspace.output(n);
+            for (int i = 0; i < n; i++) {
+                output[counters[keys[i]]++] = input[i];
+            }
+            System.arraycopy(output, 0, input, 0, n);
+            Arrays.fill(output, 0, n, null);
+            SortMetrics.moves(2L * n); // scattered into output and copied back
+        } finally {
+            SortMetrics.end();
+        }
+    }
+
+    /** Returns key, if keysFrom <= key <= keysTo, throws IllegalArgumentException otherwise. */
+    private static int checkKey(int key, int keysFrom, int keysTo) {
+        if (key < keysFrom || key > keysTo) {
+            throw new IllegalArgumentException("Error @ CountingSort.sort() :: key out of range "
+                    + keysFrom + ".." + keysTo + " == " + key);
+        }
+        return key;
+    }
+
+    /** Reusable buffers of counting sort of objects: keys, histogram, output and buffers of sorting distinct keys.
+     * Sorting many arrays with same workspace avoids allocating buffers on each call, buffers only grow.
+     * Workspace is not thread safe, each thread must use own workspace.
+     */
+    public static final class Workspace {
 
-            int range = keysTo - keysFrom;
-            int[][] result = new int[input.length][];
-            int[] counters = new int[range];
+        /** Keys of objects, or indices of their counters in sparse histogram. */
+        private int[] keys = new int[0];
+        /** Dense histogram and positions of keys. */
+        private int[] counters = new int[0];
+        /** Output buffer for scattering objects. */
+        private Object[] output = new Object[0];
+        /** Sparse histogram, created on first use. */
+        private IntCountMap histogram;
+        /** Distinct keys of sparse histogram packed with indices of their counters, sorted by radix sort. */
+        private long[] order = new long[0];
+        /** Buffer of radix sort of order. */
+        private long[] radixBuffer = new long[0];
+
+        /** Returns buffer of keys of at least size elements. */
+        private @NotNull int[] keys(int size) {
+            if (keys.length < size) {
+                keys = new int[size];
+            }
+            return keys;
+        }
 
-            for (int[] keys : input) {
-                counters[keys[keyIndex] - keysFrom]++;
+        /** Returns buffer of counters of at least size elements, content is not defined. */
+        private @NotNull int[] counters(int size) {
+            if (counters.length < size) {
+                counters = new int[size];
             }
+            return counters;
+        }
 
-            for (int i = 0, pos = 0; i < range; i++) {
-                int tmp = counters[i];
-                counters[i] = pos;
-                pos += tmp;
+        /** Returns output buffer of at least size elements, filled with nulls. */
+        private @NotNull Object[] output(int size) {
+            if (output.length < size) {
+                output = new Object[size];
             }
+            return output;
+        }
 
-            for (int[] keys: input) {
-                result[counters[keys[keyIndex] - keysFrom]] = keys;
-                counters[keys[keyIndex] - keysFrom]++;
+        /** Returns buffer of distinct keys of at least size elements, content is not defined. */
+        private @NotNull long[] order(int size) {
+            if (order.length < size) {
+                order = new long[size];
             }
+            return order;
+        }
 
-            System.arraycopy(result, 0, input, 0, input.length);
+        /** Returns buffer of radix sort of at least size elements, content is not defined. */
+        private @NotNull long[] radixBuffer(int size) {
+            if (radixBuffer.length < size) {
+                radixBuffer = new long[size];
+            }
+            return radixBuffer;
+        }
 
+        /** Returns empty sparse histogram. */
+        private @NotNull IntCountMap histogram() {
+            if (histogram == null) {
+                histogram = new IntCountMap();
+            }
+            histogram.clear();
+            return histogram;
         }
+
+    }
+
+    /** Sorts input array by input[i][keyIndex] using parallel counting sort in common fork-join pool.
+     * Input is split into chunks, one for each worker. Each chunk is counted into its own histogram concurrently.
+     * Then position of each key in each chunk is computed from histograms: rows with same key from earlier chunks
+     * are placed before rows of later chunks, so sort stays stable. After that chunks are scattered concurrently.
+     * See sort(int[][] input, int keysFrom, int keysTo, int keyIndex) for more details.
+     * Complexity: O(M * p + n / p), where M = keysTo - keysFrom + 1, p = number of workers
+     *
+     * @param input array of key-value pairs to be sorted by keys
+     * @param keysFrom integer <= min( keys of input )
+     * @param keysTo integer >= max( keys of input )
+     * @param keyIndex index of column that contain keys
+     */
+    public static void parallelSort(@NotNull int[][] input, int keysFrom, int keysTo, int keyIndex) {
+        if (input != null) {
+            SortMetrics.begin("CountingSort.parallel", input.length);
+            try {
+                int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism(), input.length / PARALLEL_CHUNK_SIZE);
+                if (chunks <= 1) {
+                    sort(input, keysFrom, keysTo, keyIndex);
+                    return;
+                }
+
+                int range = keysTo - keysFrom + 1;
+                int[][] result = new int[input.length][];
+                int[][] counters = new int[chunks][range];
+
+                List<ChunkTask> tasks = new ArrayList<>(chunks);
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    tasks.add(new ChunkTask(input, result, counters[chunk], keysFrom, keyIndex,
+                            (int) ((long) input.length * chunk / chunks),
+                            (int) ((long) input.length * (chunk + 1) / chunks)));
+                }
+                ForkJoinTask.invokeAll(tasks);
+
+                for (int i = 0, pos = 0; i < range; i++) {
+                    for (int chunk = 0; chunk < chunks; chunk++) {
+                        int tmp = counters[chunk][i];
+                        counters[chunk][i] = pos;
+                        pos += tmp;
+                    }
+                }
+
+                for (ChunkTask task : tasks) {
+                    task.reinitialize();
+                    task.scatter = true;
+                }
+                ForkJoinTask.invokeAll(tasks);
+
+                System.arraycopy(result, 0, input, 0, input.length);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Fork-join task of parallel counting sort, processing input[from..to-1].
+     * Counts keys of chunk into counters at first run and scatters rows of chunk to result at second run.
+     */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class ChunkTask extends RecursiveAction {
+
+        private final int[][] input;
+        private final int[][] result;
+        private final int[] counters;
+        private final int keysFrom;
+        private final int keyIndex;
+        private final int from;
+        private final int to;
+        /** False == count keys, true == scatter rows to positions in counters. */
+        private boolean scatter;
+
+        ChunkTask(@NotNull int[][] input, @NotNull int[][] result, @NotNull int[] counters,
+                  int keysFrom, int keyIndex, int from, int to) {
+            this.input = input;
+            this.result = result;
+            this.counters = counters;
+            this.keysFrom = keysFrom;
+            this.keyIndex = keyIndex;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (scatter) {
+                for (int i = from; i < to; i++) {
+                    result[counters[input[i][keyIndex] - keysFrom]++] = input[i];
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    counters[input[i][keyIndex] - keysFrom]++;
+                }
+            }
+        }
+
     }
 
 }
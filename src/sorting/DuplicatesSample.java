@@ -0,0 +1,59 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+/** This class estimates share of duplicates in int array by a sorted sample of its elements. */
+class DuplicatesSample {
+
+    /** Defines number of elements in sample for estimating share of duplicates. */
+    static final int SIZE = 64;
+    /** Defines minimal number of equal neighbours in sorted sample, when input has many duplicates. */
+    static final int THRESHOLD = SIZE / 4;
+
+    /** Buffers of samples of each thread, reused by every estimation. */
+    private static final ThreadLocal<int[]> SAMPLES = ThreadLocal.withInitial(() -> new int[SIZE]);
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Each thread uses own buffer of sample, input is only read.
+
+    private DuplicatesSample() {
+        throw new RuntimeException("DuplicatesSample is noninstantiable");
+    }
+
+    /** Counts equal neighbours in sorted sample of SIZE elements of input, taken with equal step.
+     * Complexity: O(SIZE^2) independent of input size; Memory: O(1), sample buffer of thread is reused.
+     *
+     * @param input Array of ints
+     *
+     * @return Number of equal neighbours in sorted sample, 0 if input is shorter than SIZE
+     */
+    static int count(@NotNull int[] input) {
+        if (input.length < SIZE) {
+            return 0;
+        }
+        int[] sample = SAMPLES.get();
+        for (int i = 0, step = input.length / SIZE; i < SIZE; i++) {
+            sample[i] = input[i * step];
+        }
+        InsertionSort.sort(sample);
+        int duplicates = 0;
+        for (int i = 1; i < SIZE; i++) {
+            if (sample[i] == sample[i - 1]) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    /** Checks if input has many duplicates, judging by sorted sample of its elements.
+     *
+     * @param input Array of ints
+     *
+     * @return true if sample of input has at least THRESHOLD equal neighbours
+     */
+    static boolean isFrequent(@NotNull int[] input) {
+        return count(input) >= THRESHOLD;
+    }
+}
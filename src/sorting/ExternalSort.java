@@ -0,0 +1,346 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/** This class implementing external merge sort of binary files with keys, which may be much larger than memory.
+ * Result is a file with same keys, such as for each i, key[i] <= key[i+1].
+ * Keys are signed 32-bit or 64-bit integers, written one by one without gaps in big-endian byte order
+ * (same as DataOutputStream.writeInt and ByteBuffer default order).
+ */
+class ExternalSort {
+
+    /** Defines minimal size in bytes of buffer for reading or writing one run. */
+    static final int MIN_BUFFER_SIZE = 1 << 16;
+    /** Defines maximal size in bytes of buffer for reading or writing one run. */
+    static final int MAX_BUFFER_SIZE = 1 << 24;
+    /** Defines minimal memory budget in bytes: buffers of MIN_BUFFER_SIZE for merging two runs into result. */
+    static final long MIN_MEMORY_BUDGET = 3L * MIN_BUFFER_SIZE;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Each call uses own temporary files, but input and output files must not be modified concurrently.
+
+    private ExternalSort() {
+        throw new RuntimeException("ExternalSort is noninstantiable");
+    }
+
+    /** Sorts file of 32-bit keys using external merge sort.
+     * Input is cut into runs, that fit memoryBudget. Each run is mapped into memory, sorted with quick sort and
+     * written to temporary file. Then runs are merged with k-way merge, using large sequential reads and writes.
+     * If there are too many runs to give each of them a buffer of MIN_BUFFER_SIZE, runs are merged in several passes.
+     * Complexity: O(n log(n)) time; O(n) disk space; each key is read and written O(log_k(n / memoryBudget)) times
+     *
+     * @param input file of keys, size must be multiple of 4
+     * @param output file for result, will be created or overwritten, must not be same file as input
+     * @param memoryBudget maximal size in bytes of arrays and buffers used at same time, >= MIN_MEMORY_BUDGET
+     * @param tempDirectory existing directory for temporary files, which are deleted before return
+     *
+     * @throws IllegalArgumentException if memoryBudget is too small or size of input is not multiple of 4
+     * @throws IOException if any of files can not be read or written
+     */
+    public static void sortInts(@NotNull Path input, @NotNull Path output, long memoryBudget,
+                                @NotNull Path tempDirectory) throws IOException {
+        sort(input, output, memoryBudget, tempDirectory, Integer.BYTES);
+    }
+
+    /** Sorts file of 64-bit keys using external merge sort.
+     * Runs are sorted with radix sort. See sortInts(Path, Path, long, Path) for more details.
+     *
+     * @param input file of keys, size must be multiple of 8
+     * @param output file for result, will be created or overwritten, must not be same file as input
+     * @param memoryBudget maximal size in bytes of arrays and buffers used at same time, >= MIN_MEMORY_BUDGET
+     * @param tempDirectory existing directory for temporary files, which are deleted before return
+     *
+     * @throws IllegalArgumentException if memoryBudget is too small or size of input is not multiple of 8
+     * @throws IOException if any of files can not be read or written
+     */
+    public static void sortLongs(@NotNull Path input, @NotNull Path output, long memoryBudget,
+                                 @NotNull Path tempDirectory) throws IOException {
+        sort(input, output, memoryBudget, tempDirectory, Long.BYTES);
+    }
+
+    /** External merge sort implementation for keys of width bytes, see sortInts(Path, Path, long, Path). */
+    private static void sort(@NotNull Path input, @NotNull Path output, long memoryBudget,
+                             @NotNull Path tempDirectory, int width) throws IOException {
+        if (memoryBudget < MIN_MEMORY_BUDGET) {
+            throw new IllegalArgumentException(
+                    "Error @ ExternalSort.sort() :: memory budget is too small == " + memoryBudget);
+        }
+
+        List<Path> temporary = new ArrayList<>();
+        SortMetrics.begin("ExternalSort", (int) Math.min(Files.size(input) / width, Integer.MAX_VALUE));
+        try {
+
+            // cut input into sorted runs, which fit budget together with buffer of writer
+            List<Path> runs = new ArrayList<>();
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size % width != 0) {
+                    throw new IllegalArgumentException(
+                            "Error @ ExternalSort.sort() :: input size is not multiple of " + width + " == " + size);
+                }
+                long runLength = runLength(memoryBudget, width);
+                if (size <= runLength * width) {
+                    writeRun(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), (int) (size / width), width,
+                            output, bufferSize(memoryBudget, 2));
+                    return;
+                }
+                for (long offset = 0; offset < size; offset += runLength * width) {
+                    int length = (int) Math.min(runLength, (size - offset) / width);
+                    Path run = Files.createTempFile(tempDirectory, "run", ".bin");
+                    temporary.add(run);
+                    runs.add(run);
+                    writeRun(channel.map(FileChannel.MapMode.READ_ONLY, offset, (long) length * width), length,
+                            width, run, bufferSize(memoryBudget, 2));
+                }
+            }
+
+            // merge groups of runs, until all runs can be merged in one pass
+            final int fanIn = fanIn(memoryBudget);
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    Path run = Files.createTempFile(tempDirectory, "run", ".bin");
+                    temporary.add(run);
+                    merged.add(run);
+                    merge(runs.subList(i, Math.min(i + fanIn, runs.size())), run, width, memoryBudget);
+                }
+                for (Path run : runs) {
+                    Files.delete(run);
+                }
+                runs = merged;
+            }
+            merge(runs, output, width, memoryBudget);
+
+        } finally {
+            SortMetrics.end();
+            for (Path run : temporary) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /** Reads length keys from mapped part of input, sorts them in memory and writes to target file.
+     *
+     * @param mapped part of input, containing exactly length keys
+     * @param length number of keys
+     * @param width size of one key in bytes, 4 or 8
+     * @param target file for sorted run, will be created or overwritten
+     * @param bufferSize size of buffer for writing in bytes
+     *
+     * @throws IOException if target can not be written
+     */
+    private static void writeRun(@NotNull MappedByteBuffer mapped, int length, int width, @NotNull Path target,
+                                 int bufferSize) throws IOException {
+        try (RunWriter writer = new RunWriter(target, width, bufferSize)) {
+            if (width == Integer.BYTES) {
+                int[] keys = new int[length];
+                mapped.asIntBuffer().get(keys);
+                QuickSort.sort(keys);
+                for (int key : keys) {
+                    writer.write(key);
+                }
+            } else {
+                long[] keys = new long[length];
+                mapped.asLongBuffer().get(keys);
+                RadixSort.sort(keys);
+                for (long key : keys) {
+                    writer.write(key);
+                }
+            }
+        }
+    }
+
+    /** Merges sorted runs into one sorted target file using tournament tree of losers, ordered by current keys.
+     * Memory budget is divided equally between buffers of all runs and target.
+     *
+     * @param runs files of sorted keys
+     * @param target file for result, will be created or overwritten
+     * @param width size of one key in bytes, 4 or 8
+     * @param memoryBudget maximal total size of buffers in bytes
+     *
+     * @throws IOException if any of files can not be read or written
+     */
+    private static void merge(@NotNull List<Path> runs, @NotNull Path target, int width, long memoryBudget)
+            throws IOException {
+        final int bufferSize = bufferSize(memoryBudget, runs.size() + 1);
+        RunReader[] readers = new RunReader[runs.size()];
+        try (RunWriter writer = new RunWriter(target, width, bufferSize)) {
+
+            LoserTree tree = new LoserTree(readers.length);
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RunReader(runs.get(i), width, bufferSize);
+                if (readers[i].hasNext()) {
+                    tree.set(i, readers[i].next());
+                } else {
+                    tree.exhaust(i);
+                }
+            }
+            tree.build();
+
+            while (!tree.isEmpty()) {
+                RunReader reader = readers[tree.winner()];
+                writer.write(tree.winnerKey());
+                if (reader.hasNext()) {
+                    tree.replaceWinner(reader.next());
+                } else {
+                    tree.exhaustWinner();
+                }
+            }
+
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    /** Returns number of keys of one run, such as array of run and buffer of writer (bufferSize(memoryBudget, 2))
+     * fit memoryBudget. Runs of ints are sorted in place by quick sort, radix sort of longs needs buffer of same size
+     * as run, so runs of longs take half of remaining budget.
+     *
+     * @param memoryBudget maximal size in bytes of arrays and buffers used at same time, >= MIN_MEMORY_BUDGET
+     * @param width size of one key in bytes, 4 or 8
+     *
+     * @return maximal number of keys of one run
+     */
+    static long runLength(long memoryBudget, int width) {
+        long bytes = memoryBudget - bufferSize(memoryBudget, 2);
+        if (width == Long.BYTES) {
+            bytes /= 2;
+        }
+        return Math.min(bytes / width, Integer.MAX_VALUE - width);
+    }
+
+    /** Returns maximal number of runs merged in one pass, such as buffers of all runs and result, each of at least
+     * MIN_BUFFER_SIZE, fit memoryBudget: (fanIn + 1) * bufferSize(memoryBudget, fanIn + 1) <= memoryBudget.
+     *
+     * @param memoryBudget maximal size in bytes of buffers used at same time, >= MIN_MEMORY_BUDGET
+     *
+     * @return number of runs >= 2
+     */
+    static int fanIn(long memoryBudget) {
+        return (int) Math.min(Integer.MAX_VALUE - 1, memoryBudget / MIN_BUFFER_SIZE - 1);
+    }
+
+    /** Returns size of one buffer in bytes, when memoryBudget is divided between count buffers. */
+    static int bufferSize(long memoryBudget, int count) {
+        long size = Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, memoryBudget / count));
+        return (int) size & -Long.BYTES;
+    }
+
+    /** Sequential reader of keys from file through direct buffer. */
+    static class RunReader implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int width;
+
+        /** Opens file for reading.
+         *
+         * @param path file of keys
+         * @param width size of one key in bytes, 4 or 8
+         * @param bufferSize size of buffer in bytes, multiple of width
+         *
+         * @throws IOException if file can not be opened
+         */
+        RunReader(@NotNull Path path, int width, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.width = width;
+            buffer.flip();
+        }
+
+        /** Returns true if file has more keys. Reads next block of file, if buffer is empty. */
+        boolean hasNext() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    continue;
+                }
+                buffer.flip();
+            }
+            return buffer.hasRemaining();
+        }
+
+        /** Returns next key, must be called only if hasNext() returned true. */
+        long next() {
+            return width == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+    }
+
+    /** Sequential writer of keys to file through direct buffer. */
+    static class RunWriter implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int width;
+
+        /** Creates or truncates file and opens it for writing.
+         *
+         * @param path file for keys
+         * @param width size of one key in bytes, 4 or 8
+         * @param bufferSize size of buffer in bytes, multiple of width
+         *
+         * @throws IOException if file can not be opened
+         */
+        RunWriter(@NotNull Path path, int width, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.width = width;
+        }
+
+        /** Writes key, int keys are truncated to 32 bits. Writes buffer to file, if it is full. */
+        void write(long key) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            if (width == Integer.BYTES) {
+                buffer.putInt((int) key);
+            } else {
+                buffer.putLong(key);
+            }
+        }
+
+        /** Writes all buffered keys to file. */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,311 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/** This class implementing sorting algorithms for arrays of floats, modifying input array such as for each i,
+ * input[i] <= input[i+1].
+ * Order is same as order of Float.compare: -0.0 is placed before 0.0 and NaN values are placed at the end.
+ * Algorithms are same as InsertionSort, MergeSort, QuickSort and HeapSort for ints, specialized for floats, so
+ * elements are never boxed. Leaf sorts use cutoffs SortProfile.QUICK_LONG and SortProfile.MERGE_LONG, which are
+ * calibrated on longs and shared by sorters of all primitive types except int.
+ * Generated by GeneratePrimitiveSorts from PrimitiveSort.template together with sorters of other primitive types:
+ * change template and regenerate them instead of editing this file.
+ */
+class FloatSort {
+
+    // Sizes of array when quick sort and merge sort should switch to insertion sort are SortProfile.QUICK_LONG and
+    // SortProfile.MERGE_LONG, they are read at each call, because they may be calibrated at startup using LongSort.
+    /** Defines size of array when pivot is picked as median of nine elements (ninther) instead of random element. */
+    private static final int NINTHER_THRESHOLD = 1 << 10;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+
+    private FloatSort() {
+        throw new RuntimeException("FloatSort is noninstantiable");
+    }
+
+    /** Sorts input array, using the fastest algorithm of this class for floats: quick sort.
+     *
+     * @param input Array of floats
+     */
+    public static void sort(@NotNull float[] input) {
+        quickSort(input);
+    }
+
+    /** Sorts input array, using insertion sort.
+     * Complexity: O(n^2); Worst case: backwards sorted array
+     *
+     * @param input Array of floats
+     */
+    public static void insertionSort(@NotNull float[] input) {
+        if (input != null) {
+            SortMetrics.begin("FloatSort.insertion", input.length);
+            try {
+                int size = moveNaNsToEnd(input);
+                insertionSort(input, 0, size);
+                orderZeros(input, size);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array, using merge sort with one additional array.
+     * Complexity: O(n log(n))
+     *
+     * @param input Array of floats
+     */
+    public static void mergeSort(@NotNull float[] input) {
+        if (input != null) {
+            SortMetrics.begin("FloatSort.merge", input.length);
+            try {
+                SortMetrics.allocated((long) Float.BYTES * input.length);
+                mergeSort(input, SortProfile.MERGE_LONG);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Merge sort with specified cutoff, SortCalibration measures candidate cutoffs of longs with it.
+     *
+     * @param input Array of floats
+     * @param cutoff Leaf sort, its leaf must be INSERTION
+     */
+    static void mergeSort(@NotNull float[] input, @NotNull SortProfile.Cutoff cutoff) {
+        int size = moveNaNsToEnd(input);
+        mergeSort(input.clone(), input, 0, size, cutoff.size);
+        orderZeros(input, size);
+    }
+
+    /** Sorts input array, using quick sort with depth of recursion limited by 2 log(n) and heap sort fallback.
+     * Complexity: O(n log(n)); Worst case: O(n log(n))
+     *
+     * @param input Array of floats
+     */
+    public static void quickSort(@NotNull float[] input) {
+        if (input != null) {
+            SortMetrics.begin("FloatSort.quick", input.length);
+            try {
+                int size = moveNaNsToEnd(input);
+                quickSort(input, 0, size);
+                orderZeros(input, size);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Insertion sort implementation that sorts part of input from index left to index right.
+     *
+     * @param input Array of floats to be sorted, must not contain NaN
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void insertionSort(@NotNull float[] input, int left, int right) {
+        for (int j = left + 1; j < right; j++) {
+            float key = input[j];
+            int i = j - 1;
+            while (i >= left && input[i] > key) {
+                input[i + 1] = input[i];
+                i--;
+            }
+            input[i + 1] = key;
+        }
+    }
+
+    /** Heap sort implementation that sorts part of input from index left to index right.
+     *
+     * @param input Array of floats to be sorted, must not contain NaN
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void heapSort(@NotNull float[] input, int left, int right) {
+        int size = right - left;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(input, left, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(input, left, left + last);
+            siftDown(input, left, 0, last);
+        }
+    }
+
+    /** Quick sort implementation that sorts part of input from index left to index right.
+     *
+     * @param input Array of floats to be sorted, must not contain NaN
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void quickSort(@NotNull float[] input, int left, int right) {
+        quickSort(input, left, right, SortProfile.QUICK_LONG);
+    }
+
+    /** Quick sort implementation with specified cutoff, SortCalibration measures candidate cutoffs of longs with it.
+     *
+     * @param input Array of floats to be sorted, must not contain NaN
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     * @param cutoff Leaf sort, its leaf must be INSERTION
+     */
+    static void quickSort(@NotNull float[] input, int left, int right, @NotNull SortProfile.Cutoff cutoff) {
+        int size = right - left;
+        quickSort(input, left, right, size == 0 ? 0 : 2 * (31 - Integer.numberOfLeadingZeros(size)), cutoff.size);
+    }
+
+    /** Quick sort of input[left..right-1], which switches to heap sort after depthLimit nested partitions and to
+     * insertion sort on parts up to cutoff elements.
+     */
+    private static void quickSort(@NotNull float[] input, int left, int right, int depthLimit, int cutoff) {
+        while (right - left > cutoff) {
+            if (depthLimit == 0) {
+                heapSort(input, left, right);
+                return;
+            }
+            depthLimit--;
+            int part = partition(input, left, right);
+            if (part - left < right - part) {
+                quickSort(input, left, part, depthLimit, cutoff);
+                left = part;
+            } else {
+                quickSort(input, part, right, depthLimit, cutoff);
+                right = part;
+            }
+        }
+        insertionSort(input, left, right);
+    }
+
+    /** Merge sort of source[left..right-1], which writes result into destination[left..right-1].
+     * Before call source[left..right-1] and destination[left..right-1] must contain same elements.
+     * Source and destination are switching roles on each level of recursion. Parts up to cutoff elements are sorted
+     * with insertion sort.
+     */
+    private static void mergeSort(@NotNull float[] source, @NotNull float[] destination, int left, int right,
+                                  int cutoff) {
+        if (right - left <= cutoff) {
+            insertionSort(destination, left, right);
+            return;
+        }
+        int middle = (left + right) >>> 1;
+        mergeSort(destination, source, left, middle, cutoff);
+        mergeSort(destination, source, middle, right, cutoff);
+        for (int i = left, j = middle, k = left; k < right; k++) {
+            if (j >= right || (i < middle && source[i] <= source[j])) {
+                destination[k] = source[i++];
+            } else {
+                destination[k] = source[j++];
+            }
+        }
+    }
+
+    /** Picks pivot as random element or ninther and performs Hoare's partition of input[left..right-1].
+     * See QuickSort for details.
+     *
+     * @return index of element result such as all input[left..result-1] <= pivot && input[result..right-1] >= pivot
+     */
+    @SuppressWarnings("StatementWithEmptyBody") // empty for loops are made intentionally here
+    private static int partition(@NotNull float[] input, int left, int right) {
+        int size = right - left;
+        if (size > NINTHER_THRESHOLD) {
+            int step = size / 9;
+            int i = left + ThreadLocalRandom.current().nextInt(step);
+            swap(input, right - 1, median(input,
+                    median(input, i, i + step, i + 2 * step),
+                    median(input, i + 3 * step, i + 4 * step, i + 5 * step),
+                    median(input, i + 6 * step, i + 7 * step, i + 8 * step)));
+        } else {
+            swap(input, right - 1, left + ThreadLocalRandom.current().nextInt(size));
+        }
+        float pivot = input[right - 1];
+        int i = left - 1;
+        int j = right;
+        while (i < j) {
+            for (i++; i < j && input[i] < pivot; i++) { }
+            for (j--; i < j && input[j] > pivot; j--) { }
+            if (i < j) {
+                swap(input, i, j);
+            }
+        }
+        return i;
+    }
+
+    /** Returns index of median of input[i], input[j], input[k]. */
+    private static int median(@NotNull float[] input, int i, int j, int k) {
+        if (input[i] < input[j]) {
+            return input[j] < input[k] ? j : (input[i] < input[k] ? k : i);
+        } else {
+            return input[j] > input[k] ? j : (input[i] > input[k] ? k : i);
+        }
+    }
+
+    /** Moves element input[offset + i] down the max-heap stored in input[offset..offset+size-1]. */
+    private static void siftDown(@NotNull float[] input, int offset, int i, int size) {
+        float key = input[offset + i];
+        for (int child = 2 * i + 1; child < size; i = child, child = 2 * i + 1) {
+            if (child + 1 < size && input[offset + child] < input[offset + child + 1]) {
+                child++;
+            }
+            if (key >= input[offset + child]) {
+                break;
+            }
+            input[offset + i] = input[offset + child];
+        }
+        input[offset + i] = key;
+    }
+
+    /** Swaps input[i] and input[j]. */
+    private static void swap(@NotNull float[] input, int i, int j) {
+        float tmp = input[i];
+        input[i] = input[j];
+        input[j] = tmp;
+    }
+
+    /** Moves all NaN values of input to the end, so other elements can be compared with < and >.
+     *
+     * @param input Array of floats
+     *
+     * @return number of elements, that are not NaN; they are placed in input[0..result-1]
+     */
+    private static int moveNaNsToEnd(@NotNull float[] input) {
+        int size = input.length;
+        for (int i = size - 1; i >= 0; i--) {
+            if (Float.isNaN(input[i])) {
+                swap(input, i, --size);
+            }
+        }
+        return size;
+    }
+
+    /** Places -0.0 before 0.0 in sorted input[0..size-1], where they are mixed because -0.0 == 0.0.
+     *
+     * @param input Array of floats, sorted by < comparison
+     * @param size Number of sorted elements
+     */
+    private static void orderZeros(@NotNull float[] input, int size) {
+        int left = 0;
+        int right = size;
+        while (left < right) { // binary search of first element >= 0.0 (or -0.0)
+            int middle = (left + right) >>> 1;
+            if (input[middle] < 0) {
+                left = middle + 1;
+            } else {
+                right = middle;
+            }
+        }
+        int negativeZeros = 0;
+        int end = left;
+        for ( ; end < size && input[end] == 0; end++) {
+            if (Float.floatToRawIntBits(input[end]) < 0) {
+                negativeZeros++;
+            }
+        }
+        for (int i = left; i < end; i++) {
+            input[i] = i < left + negativeZeros ? -0.0f : 0.0f;
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Comparator;
+
+/** This class implementing heap sort, modifying input array such as for each i, input[i] <= input[i+1].
+ */
+class HeapSort {
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+
+    private HeapSort() {
+        throw new RuntimeException("HeapSort is noninstantiable");
+    }
+
+    /** Sorts input array, using heap sort
+     * This algorithm builds max-heap in input, then repeatedly moves maximum to the end and restores the heap.
+     * In-place and not recursive, but slower than quick sort on average because of poor memory locality.
+     * Complexity: O(n log(n)); All cases similar.
+     *
+     * @param input Array of ints
+     */
+    public static void sort(@NotNull int[] input) {
+        if (input.length > 1) {
+            SortMetrics.begin("HeapSort", input.length);
+            try {
+                sort(input, 0, input.length);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Heap sort implementation that sorts part of input from index left to index right.
+     * See sort(int[] input) for more details.
+     *
+     * @param input Array of ints to be sorted
+     * @param left Left index (from, included), must be >= 0 && < (right - 1)
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void sort(@NotNull int[] input, int left, int right) {
+        if (right <= input.length && left >= 0 && left < right - 1) {
+            int size = right - left;
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(input, left, i, size);
+            }
+            for (int last = size - 1; last > 0; last--) {
+                int tmp = input[left];
+                input[left] = input[left + last];
+                input[left + last] = tmp;
+                siftDown(input, left, 0, last);
+            }
+            SortMetrics.swaps(size - 1);
+        }
+    }
+
+    /** Moves element input[offset + i] down the heap until both children are <= element.
+     * Heap is stored in input[offset..offset+size-1], children of element i are elements 2i+1 and 2i+2.
+     *
+     * @param input Array of ints, containing heap
+     * @param offset Index of heap root in input
+     * @param i Index of element in heap, must be >= 0 && < size
+     * @param size Number of elements in heap
+     */
+    private static void siftDown(@NotNull int[] input, int offset, int i, int size) {
+        int key = input[offset + i];
+        int levels = 0;
+        for (int child = 2 * i + 1; child < size; i = child, child = 2 * i + 1, levels++) {
+            if (child + 1 < size && input[offset + child] < input[offset + child + 1]) {
+                child++;
+            }
+            if (key >= input[offset + child]) {
+                break;
+            }
+            input[offset + i] = input[offset + child];
+        }
+        input[offset + i] = key;
+        SortMetrics.comparisons(2 * levels + 2);
+        SortMetrics.moves(levels + 1);
+    }
+
+    /** Heap sort implementation that sorts part of input array of objects from index left to index right.
+     *
+     * @param input Array of objects to be sorted
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     * @param comparator Comparator, defining order of objects
+     * @param <T> Type of objects
+     */
+    static <T> void sort(@NotNull T[] input, int left, int right, @NotNull Comparator<? super T> comparator) {
+        int size = right - left;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(input, left, i, size, comparator);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            T tmp = input[left];
+            input[left] = input[left + last];
+            input[left + last] = tmp;
+            siftDown(input, left, 0, last, comparator);
+        }
+    }
+
+    /** Moves element input[offset + i] down the heap of objects, see siftDown(int[], int, int, int). */
+    private static <T> void siftDown(@NotNull T[] input, int offset, int i, int size,
+                                     @NotNull Comparator<? super T> comparator) {
+        T key = input[offset + i];
+        for (int child = 2 * i + 1; child < size; i = child, child = 2 * i + 1) {
+            if (child + 1 < size && comparator.compare(input[offset + child], input[offset + child + 1]) < 0) {
+                child++;
+            }
+            if (comparator.compare(key, input[offset + child]) >= 0) {
+                break;
+            }
+            input[offset + i] = input[offset + child];
+        }
+        input[offset + i] = key;
+    }
+
+}
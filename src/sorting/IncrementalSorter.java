@@ -0,0 +1,313 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/** This class implementing incremental sorting of ints, arriving in chunks.
+ * Each chunk is sorted when it is added and kept as sorted run. Runs are merged into one ordered sequence on demand.
+ * When runs kept in memory exceed half of memory budget, they are merged and spilled to temporary file, other half
+ * of budget is used by buffers for reading spilled runs.
+ *
+ * <p>Usage: add chunks, then read iterator() or stream() (any number of times), then close sorter to delete
+ * temporary files. Chunks can not be added after sorted output was requested. Only the last requested iterator or
+ * stream can be read: requesting new one closes readers of previous one, so buffers of one output at most are open.
+ */
+class IncrementalSorter implements Closeable {
+
+    /** Maximal size in bytes of sorted runs kept in memory, before they are spilled to disk. */
+    private final long memoryLimit;
+    /** Maximal total size in bytes of buffers for reading and writing spilled runs. */
+    private final long buffersBudget;
+    /** Maximal number of spilled runs, more runs are merged into one. */
+    private final int fanIn;
+    /** Directory for temporary files. */
+    private final Path tempDirectory;
+    /** Sorted runs in memory. */
+    private final List<int[]> runs = new ArrayList<>();
+    /** Total size of runs in memory in bytes. */
+    private long runsSize = 0;
+    /** Sorted runs spilled to temporary files. */
+    private final List<Path> spilled = new ArrayList<>();
+    /** Readers of spilled runs, opened by last iterator (or by spill) and not closed yet. */
+    private final List<ExternalSort.RunReader> readers = new ArrayList<>();
+    /** Last requested iterator, null if sorted output was not requested. */
+    private MergeIterator output = null;
+    /** Total number of added ints. */
+    private long size = 0;
+    /** True, if sorted output was requested. */
+    private boolean reading = false;
+
+    // Thread safety argument:
+    //      This class is not thread safe: instance must be confined to one thread or guarded by caller.
+    //      Chunks are copied when added, so caller may reuse them.
+
+    /** Creates empty sorter.
+     *
+     * @param memoryBudget maximal size in bytes of runs and buffers used at same time, >= 4 * MIN_BUFFER_SIZE of
+     *                     ExternalSort. Temporary arrays of sorting algorithms are not counted.
+     * @param tempDirectory existing directory for temporary files, which are deleted by close()
+     *
+     * @throws IllegalArgumentException if memoryBudget is too small
+     */
+    IncrementalSorter(long memoryBudget, @NotNull Path tempDirectory) {
+        if (memoryBudget < 4L * ExternalSort.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException(
+                    "Error @ new IncrementalSorter() :: memory budget is too small == " + memoryBudget);
+        }
+        this.memoryLimit = memoryBudget / 2;
+        this.buffersBudget = memoryBudget - memoryLimit;
+        this.fanIn = (int) Math.max(2, Math.min(Integer.MAX_VALUE, buffersBudget / ExternalSort.MIN_BUFFER_SIZE - 1));
+        this.tempDirectory = tempDirectory;
+    }
+
+    /** Adds chunk of ints: copy of chunk is sorted immediately with Sorts.sort() and kept as sorted run.
+     * If runs in memory exceed half of memory budget, they are merged and spilled to temporary file.
+     * Complexity: O(m log(m)) for chunk of m ints, plus O(M log(k)) for spill of M ints in k runs
+     *
+     * @param chunk array of ints, not modified
+     *
+     * @throws IllegalStateException if sorted output was already requested
+     * @throws IOException if temporary file can not be written
+     */
+    public void add(@NotNull int[] chunk) throws IOException {
+        if (reading) {
+            throw new IllegalStateException("Error @ IncrementalSorter.add() :: sorted output was already requested");
+        }
+        if (chunk == null || chunk.length == 0) {
+            return;
+        }
+        int[] run = chunk.clone();
+        Sorts.sort(run);
+        runs.add(run);
+        runsSize += (long) run.length * Integer.BYTES;
+        size += run.length;
+        if (runsSize > memoryLimit) {
+            spill();
+        }
+    }
+
+    /** Returns number of added ints. */
+    public long size() {
+        return size;
+    }
+
+    /** Returns iterator over all added ints in ascending order. Runs are merged lazily with tournament tree of runs.
+     * Previous iterator (or stream) is closed and throws IllegalStateException, if it is read after this call.
+     * IOException while reading spilled runs is rethrown as UncheckedIOException.
+     * Complexity: O(log(k)) for each int, where k is number of runs
+     *
+     * @return iterator of sorted ints
+     *
+     * @throws IOException if spilled runs can not be opened
+     */
+    public @NotNull PrimitiveIterator.OfInt iterator() throws IOException {
+        reading = true;
+        closeOutput();
+        int bufferSize = ExternalSort.bufferSize(buffersBudget, Math.max(1, spilled.size()));
+        ExternalSort.RunReader[] opened = new ExternalSort.RunReader[spilled.size()];
+        try {
+            for (int i = 0; i < opened.length; i++) {
+                opened[i] = new ExternalSort.RunReader(spilled.get(i), Integer.BYTES, bufferSize);
+                readers.add(opened[i]);
+            }
+        } catch (IOException e) {
+            closeReaders();
+            throw e;
+        }
+        output = new MergeIterator(runs.toArray(new int[0][]), opened);
+        return output;
+    }
+
+    /** Returns stream of all added ints in ascending order, see iterator(). Previous iterator (or stream) is closed.
+     *
+     * @return sequential ordered stream of sorted ints
+     *
+     * @throws IOException if spilled runs can not be opened
+     */
+    public @NotNull IntStream stream() throws IOException {
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL), false);
+    }
+
+    /** Closes readers of spilled runs and deletes temporary files. Sorter can not be used after close.
+     *
+     * @throws IOException if temporary file can not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        closeOutput();
+        runs.clear();
+        for (Path run : spilled) {
+            Files.deleteIfExists(run);
+        }
+        spilled.clear();
+    }
+
+    /** Merges runs in memory into one run in temporary file. If there are fanIn spilled runs, merges them into one. */
+    private void spill() throws IOException {
+        spilled.add(write(new MergeIterator(runs.toArray(new int[0][]), new ExternalSort.RunReader[0]), 1));
+        runs.clear();
+        runsSize = 0;
+
+        if (spilled.size() >= fanIn) {
+            int bufferSize = ExternalSort.bufferSize(buffersBudget, spilled.size() + 1);
+            ExternalSort.RunReader[] opened = new ExternalSort.RunReader[spilled.size()];
+            Path merged;
+            try {
+                for (int i = 0; i < opened.length; i++) {
+                    opened[i] = new ExternalSort.RunReader(spilled.get(i), Integer.BYTES, bufferSize);
+                    readers.add(opened[i]);
+                }
+                merged = write(new MergeIterator(new int[0][], opened), spilled.size() + 1);
+            } finally {
+                closeReaders();
+            }
+            for (Path run : spilled) {
+                Files.delete(run);
+            }
+            spilled.clear();
+            spilled.add(merged);
+        }
+    }
+
+    /** Writes ints of iterator to new temporary file.
+     *
+     * @param iterator iterator of sorted ints
+     * @param buffers number of buffers, sharing buffers budget with writer (including writer)
+     *
+     * @return temporary file
+     */
+    private @NotNull Path write(@NotNull PrimitiveIterator.OfInt iterator, int buffers) throws IOException {
+        Path run = Files.createTempFile(tempDirectory, "run", ".bin");
+        try (ExternalSort.RunWriter writer = new ExternalSort.RunWriter(run, Integer.BYTES,
+                ExternalSort.bufferSize(buffersBudget, buffers))) {
+            while (iterator.hasNext()) {
+                writer.write(iterator.nextInt());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            Files.deleteIfExists(run);
+            throw e;
+        }
+        return run;
+    }
+
+    /** Closes last requested iterator and its readers of spilled runs. */
+    private void closeOutput() throws IOException {
+        if (output != null) {
+            output.closed = true;
+            output = null;
+        }
+        closeReaders();
+    }
+
+    /** Closes all opened readers of spilled runs. */
+    private void closeReaders() throws IOException {
+        IOException exception = null;
+        for (ExternalSort.RunReader reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        readers.clear();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /** Iterator, merging runs in memory and spilled runs with tournament tree of losers, ordered by current ints.
+     * Runs 0..memory.length-1 are arrays, other runs are readers of spilled runs.
+     */
+    private static class MergeIterator implements PrimitiveIterator.OfInt {
+
+        private final int[][] memory;
+        private final int[] positions;
+        private final ExternalSort.RunReader[] readers;
+        private final LoserTree tree;
+        /** True, if readers were closed by sorter, because newer iterator was requested or sorter was closed. */
+        private boolean closed = false;
+
+        MergeIterator(@NotNull int[][] memory, @NotNull ExternalSort.RunReader[] readers) {
+            this.memory = memory;
+            this.positions = new int[memory.length];
+            this.readers = readers;
+            this.tree = new LoserTree(memory.length + readers.length);
+            for (int run = 0; run < memory.length + readers.length; run++) {
+                if (hasNext(run)) {
+                    tree.set(run, next(run));
+                } else {
+                    tree.exhaust(run);
+                }
+            }
+            tree.build();
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkOpen();
+            return !tree.isEmpty();
+        }
+
+        @Override
+        public int nextInt() {
+            checkOpen();
+            if (tree.isEmpty()) {
+                throw new NoSuchElementException("Error @ IncrementalSorter.iterator() :: no more ints");
+            }
+            int winner = tree.winner();
+            int result = (int) tree.winnerKey();
+            if (hasNext(winner)) {
+                tree.replaceWinner(next(winner));
+            } else {
+                tree.exhaustWinner();
+            }
+            return result;
+        }
+
+        /** Throws IllegalStateException if readers of this iterator were closed by sorter. */
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException(
+                        "Error @ IncrementalSorter.iterator() :: iterator was closed by newer iterator or close()");
+            }
+        }
+
+        /** Returns true if run has more ints, closes reader of exhausted spilled run. */
+        private boolean hasNext(int run) {
+            if (run < memory.length) {
+                return positions[run] < memory[run].length;
+            }
+            try {
+                ExternalSort.RunReader reader = readers[run - memory.length];
+                if (reader.hasNext()) {
+                    return true;
+                }
+                reader.close();
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /** Returns next int of run, must be called only if hasNext(run) returned true. */
+        private int next(int run) {
+            return run < memory.length ? memory[run][positions[run]++] : (int) readers[run - memory.length].next();
+        }
+
+    }
+
+}
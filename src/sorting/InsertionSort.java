@@ -2,6 +2,8 @@ package sorting;
 
 import com.sun.istack.internal.NotNull;
 
+import java.util.Comparator;
+
 /** This class implementing insertion sort, modifying input array such as for each i, input[i] <= input[i+1].
  */
 class InsertionSort {
@@ -23,7 +25,12 @@ class InsertionSort {
      */
     public static void sort(@NotNull int[] input) {
         if (input.length > 1) {
-            sort(input, 0, input.length);
+            SortMetrics.begin("InsertionSort", input.length);
+            try {
+                sort(input, 0, input.length);
+            } finally {
+                SortMetrics.end();
+            }
         }
     }
 
@@ -36,6 +43,7 @@ class InsertionSort {
      */
     static void sort(@NotNull int[] input, int left, int right) {
         if (right <= input.length && left >= 0 && left < right - 1) {
+            long shifts = 0;
             for (int j = left + 1; j < right; j++) {
                 int key = input[j];
                 int i = j - 1;
@@ -44,7 +52,31 @@ class InsertionSort {
                     i--;
                 }
                 input[i + 1] = key;
+                shifts += j - 1 - i;
+            }
+            SortMetrics.comparisons(shifts + right - left - 1);
+            SortMetrics.moves(shifts + right - left - 1);
+        }
+    }
+
+    /** Insertion sort implementation that sorts part of input array of objects from index left to index right.
+     * Sort is stable: equal elements keep their order.
+     *
+     * @param input Array of objects to be sorted
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     * @param comparator Comparator, defining order of objects
+     * @param <T> Type of objects
+     */
+    static <T> void sort(@NotNull T[] input, int left, int right, @NotNull Comparator<? super T> comparator) {
+        for (int j = left + 1; j < right; j++) {
+            T key = input[j];
+            int i = j - 1;
+            while (i >= left && comparator.compare(input[i], key) > 0) {
+                input[i + 1] = input[i];
+                i--;
             }
+            input[i + 1] = key;
         }
     }
 
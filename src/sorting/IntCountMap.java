@@ -0,0 +1,110 @@
+package sorting;
+
+import java.util.Arrays;
+
+/** This class implementing histogram of int keys: open-addressing hash map from key to its counter.
+ * Distinct keys get dense indices 0..size()-1 in order of first occurrence, keys and counters are stored in arrays
+ * by these indices, and hash table stores only index + 1 (0 == empty slot), so any int can be a key.
+ * Used by counting sort when range of keys is wide, but number of distinct keys is small.
+ */
+final class IntCountMap {
+
+    /** Defines initial number of slots of hash table, power of 2. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Multiplier of Fibonacci hashing (2^32 / golden ratio). */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /** Slots of hash table: index of key + 1, or 0 if slot is empty. Load factor is kept <= 1/2. */
+    private int[] slots = new int[INITIAL_CAPACITY];
+    /** Number of bits of hash, slots.length == 1 << hashBits. */
+    private int hashBits = Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+    /** Distinct keys by their indices. */
+    private int[] keys = new int[INITIAL_CAPACITY / 2];
+    /** Counters of keys by their indices. */
+    private int[] counts = new int[INITIAL_CAPACITY / 2];
+    /** Number of distinct keys. */
+    private int size;
+
+    // Thread safety argument:
+    //      This class is not thread safe: instances are mutable and must be confined to one thread.
+
+    /** Increments counter of key, adding key with counter 1 if it is absent.
+     * Complexity: O(1) expected
+     *
+     * @param key any int
+     *
+     * @return index of key, 0 <= index < size()
+     */
+    int add(int key) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                if (2 * (size + 1) > slots.length) {
+                    grow();
+                    return add(key);
+                }
+                keys[size] = key;
+                counts[size] = 1;
+                slots[slot] = ++size;
+                return size - 1;
+            }
+            if (keys[entry - 1] == key) {
+                counts[entry - 1]++;
+                return entry - 1;
+            }
+        }
+    }
+
+    /** Returns number of distinct keys. */
+    int size() {
+        return size;
+    }
+
+    /** Returns key with specified index, 0 <= index < size(). */
+    int key(int index) {
+        return keys[index];
+    }
+
+    /** Returns counter of key with specified index, 0 <= index < size(). */
+    int count(int index) {
+        return counts[index];
+    }
+
+    /** Removes all keys, keeping allocated arrays.
+     * Only used slots are cleared, so clearing is proportional to size(), not to capacity.
+     */
+    void clear() {
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]);
+            while (slots[slot] != i + 1) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = 0;
+        }
+        size = 0;
+    }
+
+    /** Returns home slot of key: high bits of key * HASH_MULTIPLIER. */
+    private int hash(int key) {
+        return (key * HASH_MULTIPLIER) >>> (Integer.SIZE - hashBits);
+    }
+
+    /** Doubles number of slots and reinserts indices of all keys. */
+    private void grow() {
+        hashBits++;
+        slots = new int[1 << hashBits];
+        keys = Arrays.copyOf(keys, slots.length / 2);
+        counts = Arrays.copyOf(counts, slots.length / 2);
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Sink of sort metrics, that commits JFR event sorting.Sort for each outermost sorting call.
+ * This class needs jdk.jfr (JDK 11+, or Java 8 update with JFR backport) for compiling and running. It is never
+ * referenced directly: SortMetrics.jfrSink() loads it by name.
+ */
+final class JfrSortSink implements SortMetrics.Sink {
+
+    /** Event of each thread, begun in started() and committed in accept(). */
+    private final ThreadLocal<SortEvent> events = new ThreadLocal<>();
+
+    // Thread safety argument:
+    //      This class is thread safe: each thread begins and commits own event.
+
+    /** Creates sink, called by SortMetrics through reflection. */
+    JfrSortSink() {
+    }
+
+    @Override
+    public void started(@NotNull String algorithm, int size) {
+        SortEvent event = new SortEvent();
+        event.begin();
+        events.set(event);
+    }
+
+    @Override
+    public void accept(@NotNull SortMetrics.Record record) {
+        SortEvent event = events.get();
+        events.remove();
+        if (event == null) {
+            event = new SortEvent(); // sink was set during the call, event has no duration
+        }
+        if (event.shouldCommit()) {
+            event.algorithm = record.algorithm;
+            event.strategy = record.strategy;
+            event.size = record.size;
+            event.comparisons = record.comparisons;
+            event.swaps = record.swaps;
+            event.moves = record.moves;
+            event.bytesAllocated = record.bytesAllocated;
+            event.maxDepth = record.maxDepth;
+            event.insertionCutoffs = record.fallbacks(SortMetrics.Fallback.INSERTION_CUTOFF);
+            event.heapSortFallbacks = record.fallbacks(SortMetrics.Fallback.HEAP_SORT);
+            event.commit();
+        }
+    }
+
+    /** JFR event of one sorting call, duration of event is duration of the call. */
+    @Name("sorting.Sort")
+    @Label("Sort")
+    @Category("Sorting")
+    @Description("Sorting call with operation counters")
+    @StackTrace(true)
+    static final class SortEvent extends Event {
+
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Strategy")
+        String strategy;
+
+        @Label("Size")
+        int size;
+
+        @Label("Comparisons")
+        long comparisons;
+
+        @Label("Swaps")
+        long swaps;
+
+        @Label("Moves")
+        long moves;
+
+        @Label("Allocated")
+        @DataAmount
+        long bytesAllocated;
+
+        @Label("Max Depth")
+        int maxDepth;
+
+        @Label("Insertion Cutoffs")
+        long insertionCutoffs;
+
+        @Label("Heap Sort Fallbacks")
+        long heapSortFallbacks;
+    }
+
+}
@@ -0,0 +1,154 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.nio.IntBuffer;
+
+/** This class implementing k-way merge of sorted sources into caller's output, such as for each i,
+ * output[i] <= output[i+1]. Merge uses tournament tree of losers, so each element costs about log2(k) comparisons.
+ * Merge is stable: equal elements are taken from sources in order of sources.
+ */
+class KWayMerge {
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Sources and output must not be modified concurrently.
+
+    private KWayMerge() {
+        throw new RuntimeException("KWayMerge is noninstantiable");
+    }
+
+    /** Merges sorted arrays of ints into output, starting at output[0].
+     * Complexity: O(n log(k)), where n is total size of sources and k is number of sources
+     *
+     * @param sources sorted arrays of ints, not modified
+     * @param output array for result, length must be >= total size of sources
+     *
+     * @return number of merged ints
+     *
+     * @throws IllegalArgumentException if output is too small
+     */
+    public static int merge(@NotNull int[][] sources, @NotNull int[] output) {
+        long total = 0;
+        for (int[] source : sources) {
+            total += source.length;
+        }
+        int size = checkSize(sources.length, total, output.length);
+        LoserTree tree = new LoserTree(sources.length);
+        int[] positions = new int[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].length > 0) {
+                tree.set(i, sources[i][0]);
+                positions[i] = 1;
+            } else {
+                tree.exhaust(i);
+            }
+        }
+        tree.build();
+
+        for (int n = 0; !tree.isEmpty(); n++) {
+            int winner = tree.winner();
+            output[n] = (int) tree.winnerKey();
+            int[] source = sources[winner];
+            if (positions[winner] < source.length) {
+                tree.replaceWinner(source[positions[winner]++]);
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+        return size;
+    }
+
+    /** Merges sorted arrays of longs into output, starting at output[0].
+     * See merge(int[][], int[]) for more details.
+     *
+     * @param sources sorted arrays of longs, not modified
+     * @param output array for result, length must be >= total size of sources
+     *
+     * @return number of merged longs
+     *
+     * @throws IllegalArgumentException if output is too small
+     */
+    public static int merge(@NotNull long[][] sources, @NotNull long[] output) {
+        long total = 0;
+        for (long[] source : sources) {
+            total += source.length;
+        }
+        int size = checkSize(sources.length, total, output.length);
+        LoserTree tree = new LoserTree(sources.length);
+        int[] positions = new int[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].length > 0) {
+                tree.set(i, sources[i][0]);
+                positions[i] = 1;
+            } else {
+                tree.exhaust(i);
+            }
+        }
+        tree.build();
+
+        for (int n = 0; !tree.isEmpty(); n++) {
+            int winner = tree.winner();
+            output[n] = tree.winnerKey();
+            long[] source = sources[winner];
+            if (positions[winner] < source.length) {
+                tree.replaceWinner(source[positions[winner]++]);
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+        return size;
+    }
+
+    /** Merges remaining ints of sorted buffers into output, starting at its position.
+     * Ints are read with relative gets, so positions of sources are moved to their limits, and written with
+     * relative puts. Buffers may be heap or direct, or views of mapped files (FileChannel.map().asIntBuffer()),
+     * so merge also works on runs of external sort.
+     * See merge(int[][], int[]) for more details.
+     *
+     * @param sources sorted buffers of ints
+     * @param output buffer for result, remaining must be >= total remaining of sources
+     *
+     * @return number of merged ints
+     *
+     * @throws IllegalArgumentException if output is too small
+     */
+    public static int merge(@NotNull IntBuffer[] sources, @NotNull IntBuffer output) {
+        long total = 0;
+        for (IntBuffer source : sources) {
+            total += source.remaining();
+        }
+        int size = checkSize(sources.length, total, output.remaining());
+        LoserTree tree = new LoserTree(sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].hasRemaining()) {
+                tree.set(i, sources[i].get());
+            } else {
+                tree.exhaust(i);
+            }
+        }
+        tree.build();
+
+        while (!tree.isEmpty()) {
+            IntBuffer source = sources[tree.winner()];
+            output.put((int) tree.winnerKey());
+            if (source.hasRemaining()) {
+                tree.replaceWinner(source.get());
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+        return size;
+    }
+
+    /** Returns total size of sources, if it fits output of specified capacity, throws exception otherwise. */
+    private static int checkSize(int sources, long total, int capacity) {
+        if (total > capacity) {
+            throw new IllegalArgumentException("Error @ KWayMerge.merge() :: output is too small for "
+                    + sources + " sources of total size " + total + " == " + capacity);
+        }
+        return (int) total;
+    }
+
+}
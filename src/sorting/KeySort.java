@@ -0,0 +1,80 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/** This class implementing sorting of objects by primitive keys, modifying input such as for each i,
+ * key(input[i]) <= key(input[i+1]).
+ * Each key is extracted only once into primitive array, keys are sorted together with indices of objects by radix
+ * sort and then objects are moved to their places. So sorting neither calls comparator nor dereferences objects.
+ */
+class KeySort {
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+
+    private KeySort() {
+        throw new RuntimeException("KeySort is noninstantiable");
+    }
+
+    /** Sorts input array of objects by int keys.
+     * Each key and index of object are packed in one long (key in high bits), so sorting these longs sorts objects
+     * by keys and equal keys by indices. Sort is stable.
+     * Complexity: O(n); Memory: n longs + n references
+     *
+     * @param input Array of objects
+     * @param key Function, that returns key of object, called once for each object
+     * @param <T> Type of objects
+     */
+    public static <T> void sortByIntKey(@NotNull T[] input, @NotNull ToIntFunction<? super T> key) {
+        if (input != null && input.length > 1) {
+            SortMetrics.begin("KeySort", input.length);
+            try {
+                long[] pairs = new long[input.length];
+                for (int i = 0; i < input.length; i++) {
+                    pairs[i] = (long) key.applyAsInt(input[i]) << Integer.SIZE | i;
+                }
+                RadixSort.sort(pairs);
+                T[] copy = input.clone();
+                for (int i = 0; i < input.length; i++) {
+                    input[i] = copy[(int) pairs[i]];
+                }
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array of objects by long keys.
+     * Keys are sorted together with array of indices of objects. Sort is stable.
+     * Complexity: O(n); Memory: 2n longs + 2n ints + n references
+     *
+     * @param input Array of objects
+     * @param key Function, that returns key of object, called once for each object
+     * @param <T> Type of objects
+     */
+    public static <T> void sortByLongKey(@NotNull T[] input, @NotNull ToLongFunction<? super T> key) {
+        if (input != null && input.length > 1) {
+            SortMetrics.begin("KeySort", input.length);
+            try {
+                long[] keys = new long[input.length];
+                int[] indices = new int[input.length];
+                for (int i = 0; i < input.length; i++) {
+                    keys[i] = key.applyAsLong(input[i]);
+                    indices[i] = i;
+                }
+                RadixSort.sort(keys, indices);
+                T[] copy = input.clone();
+                for (int i = 0; i < input.length; i++) {
+                    input[i] = copy[indices[i]];
+                }
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+}
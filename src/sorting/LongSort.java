@@ -0,0 +1,260 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/** This class implementing sorting algorithms for arrays of longs, modifying input array such as for each i,
+ * input[i] <= input[i+1].
+ * Algorithms are same as InsertionSort, MergeSort, QuickSort and HeapSort for ints, specialized for longs, so
+ * elements are never boxed. Leaf sorts use cutoffs SortProfile.QUICK_LONG and SortProfile.MERGE_LONG, which are
+ * calibrated on longs and shared by sorters of all primitive types except int.
+ * Generated by GeneratePrimitiveSorts from PrimitiveSort.template together with sorters of other primitive types:
+ * change template and regenerate them instead of editing this file.
+ */
+class LongSort {
+
+    // Sizes of array when quick sort and merge sort should switch to insertion sort are SortProfile.QUICK_LONG and
+    // SortProfile.MERGE_LONG, they are read at each call, because they may be calibrated at startup using LongSort.
+    /** Defines size of array when pivot is picked as median of nine elements (ninther) instead of random element. */
+    private static final int NINTHER_THRESHOLD = 1 << 10;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+
+    private LongSort() {
+        throw new RuntimeException("LongSort is noninstantiable");
+    }
+
+    /** Sorts input array, using the fastest algorithm of this class for longs: quick sort.
+     *
+     * @param input Array of longs
+     */
+    public static void sort(@NotNull long[] input) {
+        quickSort(input);
+    }
+
+    /** Sorts input array, using insertion sort.
+     * Complexity: O(n^2); Worst case: backwards sorted array
+     *
+     * @param input Array of longs
+     */
+    public static void insertionSort(@NotNull long[] input) {
+        if (input != null) {
+            SortMetrics.begin("LongSort.insertion", input.length);
+            try {
+                insertionSort(input, 0, input.length);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array, using merge sort with one additional array.
+     * Complexity: O(n log(n))
+     *
+     * @param input Array of longs
+     */
+    public static void mergeSort(@NotNull long[] input) {
+        if (input != null) {
+            SortMetrics.begin("LongSort.merge", input.length);
+            try {
+                SortMetrics.allocated((long) Long.BYTES * input.length);
+                mergeSort(input, SortProfile.MERGE_LONG);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Merge sort with specified cutoff, SortCalibration measures candidate cutoffs of longs with it.
+     *
+     * @param input Array of longs
+     * @param cutoff Leaf sort, its leaf must be INSERTION
+     */
+    static void mergeSort(@NotNull long[] input, @NotNull SortProfile.Cutoff cutoff) {
+        mergeSort(input.clone(), input, 0, input.length, cutoff.size);
+    }
+
+    /** Sorts input array, using quick sort with depth of recursion limited by 2 log(n) and heap sort fallback.
+     * Complexity: O(n log(n)); Worst case: O(n log(n))
+     *
+     * @param input Array of longs
+     */
+    public static void quickSort(@NotNull long[] input) {
+        if (input != null) {
+            SortMetrics.begin("LongSort.quick", input.length);
+            try {
+                quickSort(input, 0, input.length);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Insertion sort implementation that sorts part of input from index left to index right.
+     *
+     * @param input Array of longs to be sorted
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void insertionSort(@NotNull long[] input, int left, int right) {
+        for (int j = left + 1; j < right; j++) {
+            long key = input[j];
+            int i = j - 1;
+            while (i >= left && input[i] > key) {
+                input[i + 1] = input[i];
+                i--;
+            }
+            input[i + 1] = key;
+        }
+    }
+
+    /** Heap sort implementation that sorts part of input from index left to index right.
+     *
+     * @param input Array of longs to be sorted
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void heapSort(@NotNull long[] input, int left, int right) {
+        int size = right - left;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(input, left, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(input, left, left + last);
+            siftDown(input, left, 0, last);
+        }
+    }
+
+    /** Quick sort implementation that sorts part of input from index left to index right.
+     *
+     * @param input Array of longs to be sorted
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void quickSort(@NotNull long[] input, int left, int right) {
+        quickSort(input, left, right, SortProfile.QUICK_LONG);
+    }
+
+    /** Quick sort implementation with specified cutoff, SortCalibration measures candidate cutoffs of longs with it.
+     *
+     * @param input Array of longs to be sorted
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     * @param cutoff Leaf sort, its leaf must be INSERTION
+     */
+    static void quickSort(@NotNull long[] input, int left, int right, @NotNull SortProfile.Cutoff cutoff) {
+        int size = right - left;
+        quickSort(input, left, right, size == 0 ? 0 : 2 * (31 - Integer.numberOfLeadingZeros(size)), cutoff.size);
+    }
+
+    /** Quick sort of input[left..right-1], which switches to heap sort after depthLimit nested partitions and to
+     * insertion sort on parts up to cutoff elements.
+     */
+    private static void quickSort(@NotNull long[] input, int left, int right, int depthLimit, int cutoff) {
+        while (right - left > cutoff) {
+            if (depthLimit == 0) {
+                heapSort(input, left, right);
+                return;
+            }
+            depthLimit--;
+            int part = partition(input, left, right);
+            if (part - left < right - part) {
+                quickSort(input, left, part, depthLimit, cutoff);
+                left = part;
+            } else {
+                quickSort(input, part, right, depthLimit, cutoff);
+                right = part;
+            }
+        }
+        insertionSort(input, left, right);
+    }
+
+    /** Merge sort of source[left..right-1], which writes result into destination[left..right-1].
+     * Before call source[left..right-1] and destination[left..right-1] must contain same elements.
+     * Source and destination are switching roles on each level of recursion. Parts up to cutoff elements are sorted
+     * with insertion sort.
+     */
+    private static void mergeSort(@NotNull long[] source, @NotNull long[] destination, int left, int right,
+                                  int cutoff) {
+        if (right - left <= cutoff) {
+            insertionSort(destination, left, right);
+            return;
+        }
+        int middle = (left + right) >>> 1;
+        mergeSort(destination, source, left, middle, cutoff);
+        mergeSort(destination, source, middle, right, cutoff);
+        for (int i = left, j = middle, k = left; k < right; k++) {
+            if (j >= right || (i < middle && source[i] <= source[j])) {
+                destination[k] = source[i++];
+            } else {
+                destination[k] = source[j++];
+            }
+        }
+    }
+
+    /** Picks pivot as random element or ninther and performs Hoare's partition of input[left..right-1].
+     * See QuickSort for details.
+     *
+     * @return index of element result such as all input[left..result-1] <= pivot && input[result..right-1] >= pivot
+     */
+    @SuppressWarnings("StatementWithEmptyBody") // empty for loops are made intentionally here
+    private static int partition(@NotNull long[] input, int left, int right) {
+        int size = right - left;
+        if (size > NINTHER_THRESHOLD) {
+            int step = size / 9;
+            int i = left + ThreadLocalRandom.current().nextInt(step);
+            swap(input, right - 1, median(input,
+                    median(input, i, i + step, i + 2 * step),
+                    median(input, i + 3 * step, i + 4 * step, i + 5 * step),
+                    median(input, i + 6 * step, i + 7 * step, i + 8 * step)));
+        } else {
+            swap(input, right - 1, left + ThreadLocalRandom.current().nextInt(size));
+        }
+        long pivot = input[right - 1];
+        int i = left - 1;
+        int j = right;
+        while (i < j) {
+            for (i++; i < j && input[i] < pivot; i++) { }
+            for (j--; i < j && input[j] > pivot; j--) { }
+            if (i < j) {
+                swap(input, i, j);
+            }
+        }
+        return i;
+    }
+
+    /** Returns index of median of input[i], input[j], input[k]. */
+    private static int median(@NotNull long[] input, int i, int j, int k) {
+        if (input[i] < input[j]) {
+            return input[j] < input[k] ? j : (input[i] < input[k] ? k : i);
+        } else {
+            return input[j] > input[k] ? j : (input[i] > input[k] ? k : i);
+        }
+    }
+
+    /** Moves element input[offset + i] down the max-heap stored in input[offset..offset+size-1]. */
+    private static void siftDown(@NotNull long[] input, int offset, int i, int size) {
+        long key = input[offset + i];
+        for (int child = 2 * i + 1; child < size; i = child, child = 2 * i + 1) {
+            if (child + 1 < size && input[offset + child] < input[offset + child + 1]) {
+                child++;
+            }
+            if (key >= input[offset + child]) {
+                break;
+            }
+            input[offset + i] = input[offset + child];
+        }
+        input[offset + i] = key;
+    }
+
+    /** Swaps input[i] and input[j]. */
+    private static void swap(@NotNull long[] input, int i, int j) {
+        long tmp = input[i];
+        input[i] = input[j];
+        input[j] = tmp;
+    }
+
+}
@@ -0,0 +1,123 @@
+package sorting;
+
+/** This class implementing tournament tree of losers for k-way merge of sorted sources with long keys.
+ * Each source has current key, tree finds source with minimal current key (winner) in O(1) and after winner's key
+ * is replaced or winner's source is exhausted, replays only path from winner's leaf to root: ceil(log2(k))
+ * comparisons, one per level, without comparing siblings as binary heap does.
+ * Equal keys are ordered by index of source, so merge is stable.
+ *
+ * <p>Usage: set(source, key) or exhaust(source) for each source, build(), then while !isEmpty(): read winner() and
+ * winnerKey(), then replaceWinner(next key) or exhaustWinner().
+ */
+class LoserTree {
+
+    /** Current keys of sources. */
+    private final long[] keys;
+    /** True for sources without keys, they lose to any source with key. */
+    private final boolean[] exhausted;
+    /** Losers of matches in internal nodes 1..k-1, leaf of source i is node k + i, winner of tournament at 0. */
+    private final int[] tree;
+    /** Number of sources, that are not exhausted. */
+    private int remaining;
+
+    // Thread safety argument:
+    //      This class is not thread safe: instance must be confined to one thread.
+
+    /** Creates tree for number of sources, all sources must be set or exhausted before build().
+     *
+     * @param sources number of sources, >= 0
+     */
+    LoserTree(int sources) {
+        this.keys = new long[sources];
+        this.exhausted = new boolean[sources];
+        this.tree = new int[Math.max(1, sources)];
+        this.remaining = sources;
+    }
+
+    /** Sets current key of source, before build(). */
+    void set(int source, long key) {
+        keys[source] = key;
+    }
+
+    /** Marks source as exhausted, before build(). */
+    void exhaust(int source) {
+        exhausted[source] = true;
+        remaining--;
+    }
+
+    /** Plays all matches bottom-up, storing losers in internal nodes. Complexity: O(k) */
+    void build() {
+        int k = keys.length;
+        if (k == 0) {
+            return;
+        }
+        int[] winners = new int[2 * k];
+        for (int i = 0; i < k; i++) {
+            winners[k + i] = i;
+        }
+        for (int node = k - 1; node > 0; node--) {
+            int left = winners[2 * node];
+            int right = winners[2 * node + 1];
+            if (less(right, left)) {
+                winners[node] = right;
+                tree[node] = left;
+            } else {
+                winners[node] = left;
+                tree[node] = right;
+            }
+        }
+        tree[0] = k == 1 ? 0 : winners[1];
+    }
+
+    /** Returns true if all sources are exhausted. */
+    boolean isEmpty() {
+        return remaining == 0;
+    }
+
+    /** Returns source with minimal current key, tree must be not empty. */
+    int winner() {
+        return tree[0];
+    }
+
+    /** Returns minimal current key, tree must be not empty. */
+    long winnerKey() {
+        return keys[tree[0]];
+    }
+
+    /** Replaces key of winner by next key of its source and replays its path. Complexity: O(log(k)) */
+    void replaceWinner(long key) {
+        int winner = tree[0];
+        keys[winner] = key;
+        replay(winner);
+    }
+
+    /** Marks source of winner as exhausted and replays its path. Complexity: O(log(k)) */
+    void exhaustWinner() {
+        int winner = tree[0];
+        exhausted[winner] = true;
+        remaining--;
+        replay(winner);
+    }
+
+    /** Plays matches from leaf of source up to root, winner goes up and losers stay in nodes. */
+    private void replay(int source) {
+        int winner = source;
+        for (int node = (source + keys.length) >>> 1; node > 0; node >>>= 1) {
+            if (less(tree[node], winner)) {
+                int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    /** Returns true if source a goes before source b: a has smaller key or equal key and smaller index. */
+    private boolean less(int a, int b) {
+        if (exhausted[a] || exhausted[b]) {
+            return !exhausted[a];
+        }
+        return keys[a] < keys[b] || keys[a] == keys[b] && a < b;
+    }
+
+}
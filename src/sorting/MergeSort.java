@@ -2,16 +2,27 @@ package sorting;
 
 import com.sun.istack.internal.NotNull;
 
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /** This class implementing merge sort, modifying input array such as for each i, input[i] <= input[i+1].
  */
 class MergeSort {
 
-    /** Defines size of array when merge sort should switch to insertion sort. */
-    private static final int MERGE_TO_INSERTION_THRESHOLD = 16;
+    /** Defines size of array of objects when merge sort should switch to insertion sort. Leaf sort of ints is
+     * SortProfile.MERGE_INT, it is read at each call, because it may be calibrated at startup using this class.
+     */
+    private static final int MERGE_TO_INSERTION_THRESHOLD_OBJECTS = 16;
+    /** Defines size of array part when parallel merge sort should stop forking and sort it in one thread. */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    /** Defines total size of two merged parts when parallel merge should stop forking and merge them in one thread. */
+    private static final int PARALLEL_MERGE_THRESHOLD = 1 << 13;
 
     // Thread safety argument:
     //      This class is thread safe, because it have no instances (everything static).
     //      Noninstantiability is enforced with private constructor.
+    //      Fork-join tasks of parallel sort are working on disjoint parts of input and buffer.
 
     private MergeSort() {
         throw new RuntimeException("MergeSort is noninstantiable");
@@ -24,26 +35,83 @@ class MergeSort {
      * @param input Array of ints
      */
     public static void sort(@NotNull int[] input) {
-        if (input != null) {
+        sort(input, SortProfile.MERGE_INT);
+    }
 
-            for (int k = 1, segment = (int) Math.pow(2, k);
-                 segment < input.length;
-                 k++, segment = (int) Math.pow(2, k)) {
+    /** Bottom-up merge sort with specified leaf sort, used by SortCalibration for measuring candidate leaf sorts.
+     * Blocks of largest power of two <= cutoff size are sorted with leaf sort, then merged pairwise.
+     *
+     * @param input Array of ints
+     * @param cutoff Leaf sort
+     */
+    static void sort(@NotNull int[] input, @NotNull SortProfile.Cutoff cutoff) {
+        if (input != null) {
 
-                for (int left = segment, right = Math.min(input.length, left + segment);
-                     left < input.length;
-                     left += 2 * segment, right = Math.min(input.length, left + segment)) {
+            SortMetrics.begin("MergeSort", input.length);
+            try {
+                int[] buffer = new int[input.length];
+                SortMetrics.allocated((long) Integer.BYTES * input.length);
+                int leaf = Integer.highestOneBit(cutoff.size);
+                for (int left = 0; left < input.length; left += leaf) {
+                    cutoff.sort(input, left, Math.min(input.length, left + leaf));
+                }
+                for (int segment = leaf; segment < input.length; segment <<= 1) {
 
-                    if (2 * segment <= MERGE_TO_INSERTION_THRESHOLD) {
-                        InsertionSort.sort(input, left - segment, right);
-                    } else {
-                        merge(input, left - segment, left, right);
+                    for (int left = segment, right = Math.min(input.length, left + segment);
+                         left < input.length;
+                         left += 2 * segment, right = Math.min(input.length, left + segment)) {
+                        merge(input, buffer, left - segment, left, right);
                     }
 
                 }
+            } finally {
+                SortMetrics.end();
+            }
+
+        }
+    }
 
+    /** Sorts input array, using parallel merge sort in common fork-join pool.
+     * Array is divided into halves recursively, halves are sorted in separate tasks and merged, merge of large parts
+     * is also divided into independent tasks. Only one additional array is allocated at start: on each level of
+     * recursion input and that array are switching roles of source and destination, so no copying back is needed.
+     * Complexity: O(n log(n)) work; O(log(n)^3) span
+     *
+     * @param input Array of ints
+     */
+    public static void parallelSort(@NotNull int[] input) {
+        if (input != null) {
+            SortMetrics.begin("MergeSort.parallel", input.length);
+            try {
+                if (input.length <= PARALLEL_SORT_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() == 1) {
+                    sort(input);
+                } else {
+                    ForkJoinPool.commonPool().invoke(new SortTask(input.clone(), input, 0, input.length));
+                }
+            } finally {
+                SortMetrics.end();
             }
+        }
+    }
 
+    /** Sorts input array of objects, using merge sort with comparator.
+     * Sort is stable: equal elements keep their order. Parts, which are already in order after sorting halves,
+     * are not merged, so sorted input takes O(n) comparisons.
+     * See parallelSort(int[] input) for details of using one additional array.
+     * Complexity: O(n log(n))
+     *
+     * @param input Array of objects
+     * @param comparator Comparator, defining order of objects
+     * @param <T> Type of objects
+     */
+    public static <T> void sort(@NotNull T[] input, @NotNull Comparator<? super T> comparator) {
+        if (input != null) {
+            SortMetrics.begin("MergeSort", input.length);
+            try {
+                sort(input.clone(), input, 0, input.length, comparator);
+            } finally {
+                SortMetrics.end();
+            }
         }
     }
 
@@ -51,37 +119,176 @@ class MergeSort {
      * Merge two parts of input in one sorted: left to middle and middle to right.
      *
      * @param input Array of ints to be sorted
+     * @param buffer Array of ints at least (right - left) long, used as temporary storage for merged elements
      * @param left Left index (from, included), must be >= 0 && < (right - 1)
      * @param middle Right index for left array (to, excluded) and left index for right array (from, included),
      *               must be >= left && <= (right - 1)
      * @param right Right index (to, excluded), must be <= input.length
      */
-    private static void merge(@NotNull int[] input, final int left, final int middle, final int right) {
-        int[] result = new int[right - left];
-        int i = left;
-        int j = middle;
-        int k = 0;
-        while (k < right && i < middle && j < right) {
-            if (input[i] <= input[j]) {
-                result[k] = input[i];
-                i++;
+    private static void merge(@NotNull int[] input, @NotNull int[] buffer,
+                              final int left, final int middle, final int right) {
+        merge(input, buffer, left, middle, middle, right, 0);
+        System.arraycopy(buffer, 0, input, left, right - left);
+        SortMetrics.moves(2L * (right - left));
+    }
+
+    /** Utility method for merge sort.
+     * Merge two sorted parts of source: leftFrom to leftTo and rightFrom to rightTo into destination starting from
+     * index to. Merge is stable: equal elements of left part are placed before elements of right part.
+     *
+     * @param source Array of ints, containing both sorted parts
+     * @param destination Array of ints, where result is written, must not be same array as source
+     * @param leftFrom Left index of left part (from, included)
+     * @param leftTo Right index of left part (to, excluded), must be >= leftFrom
+     * @param rightFrom Left index of right part (from, included)
+     * @param rightTo Right index of right part (to, excluded), must be >= rightFrom
+     * @param to Index of destination to write first merged element
+     */
+    private static void merge(@NotNull int[] source, @NotNull int[] destination, int leftFrom, final int leftTo,
+                              int rightFrom, final int rightTo, int to) {
+        while (leftFrom < leftTo && rightFrom < rightTo) {
+            if (source[leftFrom] <= source[rightFrom]) {
+                destination[to++] = source[leftFrom++];
+            } else {
+                destination[to++] = source[rightFrom++];
+            }
+        }
+        System.arraycopy(source, leftFrom, destination, to, leftTo - leftFrom);
+        System.arraycopy(source, rightFrom, destination, to + leftTo - leftFrom, rightTo - rightFrom);
+    }
+
+    /** Recursive merge sort of source[left..right-1], which writes result into destination[left..right-1].
+     * Before call source[left..right-1] and destination[left..right-1] must contain same elements, after call
+     * source[left..right-1] contains garbage. Source and destination are switching roles on each level of recursion.
+     *
+     * @param source Array of ints, used as temporary storage
+     * @param destination Array of ints, where result is written, must not be same array as source
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= source.length && <= destination.length
+     */
+    private static void sort(@NotNull int[] source, @NotNull int[] destination, int left, int right) {
+        if (right - left <= SortProfile.MERGE_INT.size) {
+            SortProfile.MERGE_INT.sort(destination, left, right);
+        } else {
+            int middle = (left + right) >>> 1;
+            sort(destination, source, left, middle);
+            sort(destination, source, middle, right);
+            merge(source, destination, left, middle, middle, right, left);
+        }
+    }
+
+    /** Recursive merge sort of objects, see sort(int[], int[], int, int) for contract. */
+    private static <T> void sort(@NotNull T[] source, @NotNull T[] destination, int left, int right,
+                                 @NotNull Comparator<? super T> comparator) {
+        if (right - left <= MERGE_TO_INSERTION_THRESHOLD_OBJECTS) {
+            InsertionSort.sort(destination, left, right, comparator);
+            return;
+        }
+        int middle = (left + right) >>> 1;
+        sort(destination, source, left, middle, comparator);
+        sort(destination, source, middle, right, comparator);
+        if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, left, destination, left, right - left);
+            return;
+        }
+        for (int i = left, j = middle, k = left; k < right; k++) {
+            if (j >= right || (i < middle && comparator.compare(source[i], source[j]) <= 0)) {
+                destination[k] = source[i++];
             } else {
-                result[k] = input[j];
-                j++;
+                destination[k] = source[j++];
             }
-            k++;
         }
-        while (i < middle) {
-            result[k] = input[i];
-            i++;
-            k++;
+    }
+
+    /** Returns index of first element in input[left..right-1], that is >= key (or > key if strict), or right. */
+    private static int search(@NotNull int[] input, int left, int right, int key, boolean strict) {
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            if (input[middle] < key || (strict && input[middle] == key)) {
+                left = middle + 1;
+            } else {
+                right = middle;
+            }
         }
-        while (j < right) {
-            result[k] = input[j];
-            j++;
-            k++;
+        return left;
+    }
+
+    /** Fork-join task of parallel merge sort, see {@link #sort(int[], int[], int, int)} for contract. */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class SortTask extends RecursiveAction {
+
+        private final int[] source;
+        private final int[] destination;
+        private final int left;
+        private final int right;
+
+        SortTask(@NotNull int[] source, @NotNull int[] destination, int left, int right) {
+            this.source = source;
+            this.destination = destination;
+            this.left = left;
+            this.right = right;
         }
-        System.arraycopy(result, 0, input, left, right - left);
+
+        @Override
+        protected void compute() {
+            if (right - left <= PARALLEL_SORT_THRESHOLD) {
+                sort(source, destination, left, right);
+            } else {
+                int middle = (left + right) >>> 1;
+                invokeAll(new SortTask(destination, source, left, middle),
+                        new SortTask(destination, source, middle, right));
+                new MergeTask(source, destination, left, middle, middle, right, left).compute();
+            }
+        }
+
+    }
+
+    /** Fork-join task of parallel merge, see {@link #merge(int[], int[], int, int, int, int, int)} for contract.
+     * Larger part is split in the middle, smaller part is split by binary search of that middle element,
+     * so both pairs of subparts can be merged independently.
+     */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class MergeTask extends RecursiveAction {
+
+        private final int[] source;
+        private final int[] destination;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final int to;
+
+        MergeTask(@NotNull int[] source, @NotNull int[] destination,
+                  int leftFrom, int leftTo, int rightFrom, int rightTo, int to) {
+            this.source = source;
+            this.destination = destination;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (leftTo - leftFrom + rightTo - rightFrom <= PARALLEL_MERGE_THRESHOLD) {
+                merge(source, destination, leftFrom, leftTo, rightFrom, rightTo, to);
+                return;
+            }
+            int leftSplit;
+            int rightSplit;
+            if (leftTo - leftFrom >= rightTo - rightFrom) {
+                leftSplit = (leftFrom + leftTo) >>> 1;
+                rightSplit = search(source, rightFrom, rightTo, source[leftSplit], false);
+            } else {
+                rightSplit = (rightFrom + rightTo) >>> 1;
+                leftSplit = search(source, leftFrom, leftTo, source[rightSplit], true);
+            }
+            invokeAll(new MergeTask(source, destination, leftFrom, leftSplit, rightFrom, rightSplit, to),
+                    new MergeTask(source, destination, leftSplit, leftTo, rightSplit, rightTo,
+                            to + leftSplit - leftFrom + rightSplit - rightFrom));
+        }
+
     }
 
 }
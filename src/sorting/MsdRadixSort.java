@@ -0,0 +1,293 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** This class implementing MSD radix sort, modifying input such as for each i, input[i] <= input[i+1].
+ */
+class MsdRadixSort {
+
+    /** Defines size of bucket when MSD radix sort should switch to insertion sort. */
+    private static final int MSD_TO_INSERTION_THRESHOLD = 16;
+    /** Defines minimal size of bucket, that is sorted in separate fork-join task by parallel sort. */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Context is created for each call (each task of parallel sort) and is not shared between threads.
+    //      Tasks of parallel sort share buffer, but each task works on disjoint part of input and buffer.
+
+    private MsdRadixSort() {
+        throw new RuntimeException("MsdRadixSort is noninstantiable");
+    }
+
+    /** Sorts input array of strings using MSD radix sort.
+     * Strings are distributed into buckets by first character, then each bucket with more than one string is sorted
+     * by next character recursively. Small buckets are sorted with insertion sort. Strings are read in place with
+     * charAt and only references are moved, so result contains same String instances as input.
+     * Order is same as String.compareTo order. Sort is stable.
+     * Complexity: O(D + nR) in worst case, where D = total length of distinguishing prefixes, R = charTo - charFrom;
+     * Memory: n references + R ints for each level of recursion
+     *
+     * @param input array of strings, each character of each string must be in [charFrom..charTo]
+     * @param charFrom first allowed character code in input
+     * @param charTo last allowed character code in input, must be >= charFrom
+     */
+    public static void sort(@NotNull String[] input, int charFrom, int charTo) {
+        if (input != null && input.length > 1) {
+            SortMetrics.begin("MsdRadixSort", input.length);
+            try {
+                sort(input, 0, input.length, 0, new Context(input.length, charFrom, charTo));
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array of strings using parallel MSD radix sort in common fork-join pool.
+     * See parallelSort(String[] input, int charFrom, int charTo, ForkJoinPool pool) for more details.
+     *
+     * @param input array of strings, each character of each string must be in [charFrom..charTo]
+     * @param charFrom first allowed character code in input
+     * @param charTo last allowed character code in input, must be >= charFrom
+     */
+    public static void parallelSort(@NotNull String[] input, int charFrom, int charTo) {
+        parallelSort(input, charFrom, charTo, ForkJoinPool.commonPool());
+    }
+
+    /** Sorts input array of strings using parallel MSD radix sort in specified fork-join pool.
+     * After strings are distributed by a character, buckets are independent. Buckets larger than
+     * PARALLEL_SORT_THRESHOLD are forked as separate tasks, smaller buckets are sorted inline by the task that
+     * distributed them, with sequential sort. Forked buckets are stolen by idle workers, so uneven buckets (like
+     * strings with common prefix "http://") are balanced between workers. Common prefix of all strings of bucket is
+     * skipped without moving strings, so long shared prefixes cost one counting pass per character.
+     * All tasks share one buffer of n references, each task has own counters. Sort is stable.
+     * Complexity: O(D + nR) work, see sort(String[] input, int charFrom, int charTo);
+     * Memory: n references + R ints for each level of recursion of each task
+     *
+     * @param input array of strings, each character of each string must be in [charFrom..charTo]
+     * @param charFrom first allowed character code in input
+     * @param charTo last allowed character code in input, must be >= charFrom
+     * @param pool Fork-join pool for tasks
+     */
+    public static void parallelSort(@NotNull String[] input, int charFrom, int charTo, @NotNull ForkJoinPool pool) {
+        if (input != null && input.length > 1) {
+            SortMetrics.begin("MsdRadixSort.parallel", input.length);
+            try {
+                if (input.length <= PARALLEL_SORT_THRESHOLD || pool.getParallelism() == 1) {
+                    sort(input, charFrom, charTo);
+                } else {
+                    pool.invoke(new BucketTask(input, new String[input.length], 0, input.length, 0, charFrom, charTo));
+                }
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** MSD radix sort implementation that sorts part of input from index left to index right.
+     * All strings in part must have same first depth characters.
+     *
+     * @param input Array of strings to be sorted
+     * @param left Left index (from, included), must be >= 0
+     * @param right Right index (to, excluded), must be <= input.length
+     * @param depth Index of character to distribute strings by
+     * @param context Buffers of this call
+     */
+    static void sort(@NotNull String[] input, int left, int right, int depth, @NotNull Context context) {
+        while (right - left > MSD_TO_INSERTION_THRESHOLD) {
+
+            int[] counters = context.counters(depth);
+            if (!distribute(input, left, right, depth, context, counters)) {
+                if (depth >= input[left].length()) {
+                    return; // all strings are ended and equal
+                }
+                depth++;
+                continue;
+            }
+
+            // now counters[r] is the end of bucket r; bucket 0 contains ended strings and is already sorted
+            for (int r = 1; r < context.range; r++) {
+                if (counters[r] - counters[r - 1] > 1) {
+                    sort(input, left + counters[r - 1], left + counters[r], depth + 1, context);
+                }
+            }
+            Arrays.fill(counters, 0);
+            return;
+
+        }
+        insertionSort(input, left, right, depth);
+    }
+
+    /** Distributes strings of input[left..right-1] into buckets by character at index depth.
+     * If all strings have same character at depth, they are not moved and counters stay zeroed.
+     * Otherwise counters[r] becomes end of bucket r (relative to left), caller must zero counters after use.
+     *
+     * @param input Array of strings
+     * @param left Left index (from, included)
+     * @param right Right index (to, excluded)
+     * @param depth Index of character to distribute strings by
+     * @param context Buffers, buffer[left..right-1] is used
+     * @param counters Zeroed counters of depth
+     *
+     * @return true if strings were distributed, false if all strings have same character at depth
+     */
+    private static boolean distribute(@NotNull String[] input, int left, int right, int depth,
+                                      @NotNull Context context, @NotNull int[] counters) {
+        for (int i = left; i < right; i++) {
+            counters[charAt(input[i], depth, context.charFrom) + 1]++;
+        }
+        int first = charAt(input[left], depth, context.charFrom);
+        if (counters[first + 1] == right - left) {
+            counters[first + 1] = 0;
+            return false;
+        }
+
+        for (int r = 0; r < context.range; r++) {
+            counters[r + 1] += counters[r];
+        }
+        for (int i = left; i < right; i++) {
+            context.buffer[left + counters[charAt(input[i], depth, context.charFrom)]++] = input[i];
+        }
+        System.arraycopy(context.buffer, left, input, left, right - left);
+        return true;
+    }
+
+    /** Returns character of s at index depth as integer in [1..R+1], or 0 if string is shorter. */
+    private static int charAt(@NotNull String s, int depth, int charFrom) {
+        return depth < s.length() ? s.charAt(depth) - charFrom + 1 : 0;
+    }
+
+    /** Insertion sort of input[left..right-1], where all strings have same first depth characters. */
+    private static void insertionSort(@NotNull String[] input, int left, int right, int depth) {
+        for (int j = left + 1; j < right; j++) {
+            String key = input[j];
+            int i = j - 1;
+            while (i >= left && less(key, input[i], depth)) {
+                input[i + 1] = input[i];
+                i--;
+            }
+            input[i + 1] = key;
+        }
+    }
+
+    /** Returns true if a < b, comparing only characters starting from index depth. */
+    private static boolean less(@NotNull String a, @NotNull String b, int depth) {
+        for (int i = depth, length = Math.min(a.length(), b.length()); i < length; i++) {
+            char charA = a.charAt(i);
+            char charB = b.charAt(i);
+            if (charA != charB) {
+                return charA < charB;
+            }
+        }
+        return a.length() < b.length();
+    }
+
+    /** Buffers of one MSD radix sort call: buffer for distributing strings and counters for each depth.
+     * Counters of each depth are reused by all buckets on that depth and must be zeroed after use.
+     */
+    static class Context {
+
+        /** Buffer for distributing strings, part input[left..right-1] uses buffer[left..right-1]. */
+        private final String[] buffer;
+        private final int charFrom;
+        /** Number of buckets: R + 1 characters and ended strings. */
+        private final int range;
+        private int[][] counters = new int[0][];
+
+        Context(int size, int charFrom, int charTo) {
+            this(new String[size], charFrom, charTo);
+        }
+
+        /** Creates context with own counters and shared buffer, used by tasks of parallel sort. */
+        Context(@NotNull String[] buffer, int charFrom, int charTo) {
+            this.buffer = buffer;
+            this.charFrom = charFrom;
+            this.range = charTo - charFrom + 2;
+        }
+
+        /** Returns zeroed counters for depth, size range + 1. */
+        private @NotNull int[] counters(int depth) {
+            if (depth >= counters.length) {
+                counters = Arrays.copyOf(counters, Math.max(depth + 1, 2 * counters.length));
+            }
+            if (counters[depth] == null) {
+                counters[depth] = new int[range + 1];
+            }
+            return counters[depth];
+        }
+
+    }
+
+    /** Fork-join task of parallel MSD radix sort, sorts input[left..right-1], where all strings have same first
+     * depth characters. Large buckets are forked, small buckets are sorted inline with own context.
+     */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class BucketTask extends RecursiveAction {
+
+        private final String[] input;
+        private final String[] buffer;
+        private final int left;
+        private final int right;
+        private final int depth;
+        private final int charFrom;
+        private final int charTo;
+
+        BucketTask(@NotNull String[] input, @NotNull String[] buffer, int left, int right, int depth,
+                   int charFrom, int charTo) {
+            this.input = input;
+            this.buffer = buffer;
+            this.left = left;
+            this.right = right;
+            this.depth = depth;
+            this.charFrom = charFrom;
+            this.charTo = charTo;
+        }
+
+        @Override
+        protected void compute() {
+            Context context = new Context(buffer, charFrom, charTo);
+            if (right - left <= PARALLEL_SORT_THRESHOLD) {
+                sort(input, left, right, depth, context);
+                return;
+            }
+
+            int level = depth;
+            int[] counters = context.counters(level);
+            while (!distribute(input, left, right, level, context, counters)) {
+                if (level >= input[left].length()) {
+                    return; // all strings are ended and equal
+                }
+                counters = context.counters(++level);
+            }
+
+            // large buckets are forked first, so idle workers can steal them while small ones are sorted here
+            List<BucketTask> tasks = new ArrayList<>();
+            for (int r = 1; r < context.range; r++) {
+                if (counters[r] - counters[r - 1] > PARALLEL_SORT_THRESHOLD) {
+                    BucketTask task = new BucketTask(input, buffer, left + counters[r - 1], left + counters[r],
+                            level + 1, charFrom, charTo);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            for (int r = 1; r < context.range; r++) {
+                int size = counters[r] - counters[r - 1];
+                if (size > 1 && size <= PARALLEL_SORT_THRESHOLD) {
+                    sort(input, left + counters[r - 1], left + counters[r], level + 1, context);
+                }
+            }
+            for (int i = tasks.size() - 1; i >= 0; i--) {
+                tasks.get(i).join(); // last forked task is joined first, it is likely not stolen yet
+            }
+        }
+
+    }
+
+}
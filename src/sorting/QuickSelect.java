@@ -0,0 +1,177 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+/** This class implementing selection of k-th smallest element (quickselect), partial sort and top-k, so medians,
+ * percentiles and smallest elements are found without sorting whole input.
+ */
+class QuickSelect {
+
+    /** Defines size of part, when selection switches to insertion sort. */
+    private static final int SELECT_TO_INSERTION_THRESHOLD = 16;
+    /** Defines size of group, which median is taken by median of medians. */
+    private static final int GROUP_SIZE = 5;
+    /** Defines maximal k / n ratio (as shift), when top-k is found with heap instead of copy of input. */
+    private static final int TOP_K_HEAP_SHIFT = 6;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+
+    private QuickSelect() {
+        throw new RuntimeException("QuickSelect is noninstantiable");
+    }
+
+    /** Returns k-th smallest element of input array (k = 0 is minimum), using quickselect.
+     * Input is partitioned with quick sort's Hoare partition, but only part containing k-th position is processed.
+     * When number of partitions exceeds 3 log(n), which happens only for very unlucky pivots, pivot is picked as
+     * median of medians of groups of 5 elements, that guarantees linear time (introselect).
+     * After selection input[k] is result, elements input[0..k-1] are <= result and elements input[k+1..] >= result.
+     * Complexity: O(n); Worst case: O(n)
+     *
+     * @param input Array of ints
+     * @param k Index of element in sorted order, must be >= 0 && < input.length
+     *
+     * @return k-th smallest element of input
+     */
+    public static int select(@NotNull int[] input, int k) {
+        if (input == null || k < 0 || k >= input.length) {
+            throw new IllegalArgumentException("Error @ QuickSelect.select() :: k is out of bounds of input == " + k);
+        }
+        select(input, 0, input.length, k, 3 * (31 - Integer.numberOfLeadingZeros(input.length)));
+        return input[k];
+    }
+
+    /** Sorts k smallest elements of input array to input[0..k-1], order of other elements is undefined.
+     * Input is divided by select(input, k) and then input[0..k-1] is sorted with quick sort.
+     * Complexity: O(n + k log(k))
+     *
+     * @param input Array of ints
+     * @param k Number of sorted elements, must be >= 0 && <= input.length
+     */
+    public static void partialSort(@NotNull int[] input, int k) {
+        if (input == null || k < 0 || k > input.length) {
+            throw new IllegalArgumentException(
+                    "Error @ QuickSelect.partialSort() :: k is out of bounds of input == " + k);
+        }
+        if (k > 0 && k < input.length) {
+            select(input, k - 1);
+        }
+        QuickSort.sort(input, 0, k);
+    }
+
+    /** Returns new sorted array of k smallest elements of input array, input is not modified.
+     * When k is much smaller than n, elements are passed through max-heap of k smallest elements seen so far,
+     * so input is not copied. Otherwise partial sort is performed on copy of input.
+     * Complexity: O(n log(k)) for small k, O(n + k log(k)) otherwise
+     *
+     * @param input Array of ints
+     * @param k Number of elements, must be >= 0 && <= input.length
+     *
+     * @return sorted array of k smallest elements of input
+     */
+    public static @NotNull int[] topK(@NotNull int[] input, int k) {
+        if (input == null || k < 0 || k > input.length) {
+            throw new IllegalArgumentException("Error @ QuickSelect.topK() :: k is out of bounds of input == " + k);
+        }
+        if (k > input.length >>> TOP_K_HEAP_SHIFT) {
+            int[] copy = input.clone();
+            partialSort(copy, k);
+            int[] result = new int[k];
+            System.arraycopy(copy, 0, result, 0, k);
+            return result;
+        }
+
+        int[] heap = new int[k];
+        if (k > 0) {
+            System.arraycopy(input, 0, heap, 0, k);
+            for (int i = k / 2 - 1; i >= 0; i--) {
+                siftDown(heap, i);
+            }
+            for (int i = k; i < input.length; i++) {
+                if (input[i] < heap[0]) {
+                    heap[0] = input[i];
+                    siftDown(heap, 0);
+                }
+            }
+        }
+        HeapSort.sort(heap);
+        return heap;
+    }
+
+    /** Quickselect implementation on part of input from index left to index right.
+     * See select(int[] input, int k) for more details.
+     *
+     * @param input Array of ints
+     * @param left Left index (from, included), must be >= 0 && <= k
+     * @param right Right index (to, excluded), must be > k && <= input.length
+     * @param k Index of selected element
+     * @param depthLimit Number of partitions left before switching to median of medians pivot, must be >= 0
+     */
+    private static void select(@NotNull int[] input, int left, int right, int k, int depthLimit) {
+        while (right - left > SELECT_TO_INSERTION_THRESHOLD) {
+            long bounds;
+            if (depthLimit > 0) {
+                depthLimit--;
+                bounds = QuickSort.partition(input, left, right, QuickSort.Partition.HOARE);
+            } else {
+                moveMedianOfMedians(input, left, right);
+                int part = QuickSort.partitionHoare(input, left, right);
+                bounds = (long) part << Integer.SIZE | part;
+            }
+            int leftTo = (int) (bounds >>> Integer.SIZE);
+            int rightFrom = (int) bounds;
+            if (k < leftTo) {
+                right = leftTo;
+            } else if (k >= rightFrom) {
+                left = rightFrom;
+            } else {
+                return; // k-th element is equal to pivot and already in place
+            }
+        }
+        InsertionSort.sort(input, left, right);
+    }
+
+    /** Moves median of medians of groups of GROUP_SIZE elements of input[left..right-1] to input[right-1].
+     * Medians of groups are collected at start of part and their median is found with recursive selection,
+     * that never uses random pivots. Pivot found this way is greater than about 30% and less than about 30% of
+     * elements, so each partition removes constant share of part.
+     *
+     * @param input Array of ints
+     * @param left Left index (from, included), must be >= 0 && < (right - 1)
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    private static void moveMedianOfMedians(@NotNull int[] input, int left, int right) {
+        int medians = left;
+        for (int i = left; i < right; i += GROUP_SIZE) {
+            int end = Math.min(i + GROUP_SIZE, right);
+            InsertionSort.sort(input, i, end);
+            swap(input, medians++, i + (end - i) / 2);
+        }
+        int middle = left + (medians - left) / 2;
+        select(input, left, medians, middle, 0);
+        swap(input, middle, right - 1);
+    }
+
+    /** Restores max-heap property of heap, moving heap[i] down. */
+    private static void siftDown(@NotNull int[] heap, int i) {
+        int key = heap[i];
+        for (int child = 2 * i + 1; child < heap.length; i = child, child = 2 * i + 1) {
+            if (child + 1 < heap.length && heap[child] < heap[child + 1]) {
+                child++;
+            }
+            if (key >= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+        }
+        heap[i] = key;
+    }
+
+    /** Swaps input[i] and input[j]. */
+    private static void swap(@NotNull int[] input, int i, int j) {
+        int tmp = input[i];
+        input[i] = input[j];
+        input[j] = tmp;
+    }
+}
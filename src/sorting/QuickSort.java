@@ -2,18 +2,47 @@ package sorting;
 
 import com.sun.istack.internal.NotNull;
 
-import java.util.Random;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
 
 /** This class implementing quick sort, modifying input array such as for each i, input[i] <= input[i+1].
  */
 class QuickSort {
 
-    /** Defines size of array when quick sort should switch to insertion sort. */
-    private static final int QUICK_TO_INSERTION_THRESHOLD = 100;
+    /** Leaf sort of VECTOR partition: kernel sort of parts up to LEAF_SIZE. Leaf sort of other partitions is
+     * SortProfile.QUICK_INT, it is read at each call, because it may be calibrated at startup using this class.
+     */
+    private static final SortProfile.Cutoff VECTOR_LEAF = new SortProfile.Cutoff(SortKernel.LEAF_SIZE,
+            SortProfile.Leaf.KERNEL);
+    /** Defines size of array of objects when quick sort should switch to insertion sort, comparisons are expensive. */
+    private static final int QUICK_TO_INSERTION_THRESHOLD_OBJECTS = 16;
+    /** Defines size of array when pivot is picked as median of nine elements (ninther) instead of random element. */
+    private static final int NINTHER_THRESHOLD = 1 << 10;
+    /** Defines size of array part when parallel quick sort should stop forking and sort it in one thread. */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    /** Partition algorithms, used by quick sort. */
+    enum Partition {
+        /** Hoare's partition, splits elements equal to pivot evenly between two parts. */
+        HOARE,
+        /** Lomuto partition, scans array only from left to right. */
+        LOMUTO,
+        /** Dijkstra's three-way partition, excludes elements equal to pivot from further sorting.
+         * Best for inputs with many duplicates, where it sorts in near-linear time.
+         */
+        THREE_WAY,
+        /** Block partition (BlockQuicksort), swaps elements without branches on comparisons with pivot. */
+        BLOCK,
+        /** Partition and leaf sort of SortKernels: vectorized, if Vector API is available. */
+        VECTOR
+    }
 
     // Thread safety argument:
     //      This class is thread safe, because it have no instances (everything static).
     //      Noninstantiability is enforced with private constructor.
+    //      Fork-join tasks of parallel sort are working on disjoint parts of input.
 
     private QuickSort() {
         throw new RuntimeException("QuickSort is noninstantiable");
@@ -21,39 +50,269 @@ class QuickSort {
 
     /** Sorts input array, using quick sort
      * This algorithm using divide & conquer paradigm. And it is recursive.
-     * Complexity: O(n log(n))
+     * Depth of recursion is limited by 2 log(n) (introsort): when some part exceeds the limit, that part is sorted
+     * with heap sort, so pathological inputs can not make the sort quadratic.
+     * Partition algorithm is picked by share of duplicates in a small sample of input: three-way partition for inputs
+     * with many duplicates and Hoare's partition otherwise.
+     * Complexity: O(n log(n)); Worst case: O(n log(n))
      *
      * @param input Array of ints
      */
     public static void sort(@NotNull int[] input) {
         if (input != null) {
-            sort(input, 0, input.length);
+            SortMetrics.begin("QuickSort", input.length);
+            try {
+                Partition partition = pickPartition(input);
+                sort(input, 0, input.length, depthLimit(input.length), partition, leaf(partition));
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array, using quick sort with specified partition algorithm.
+     * See sort(int[] input) for more details.
+     *
+     * @param input Array of ints
+     * @param partition Partition algorithm
+     */
+    public static void sort(@NotNull int[] input, @NotNull Partition partition) {
+        if (input != null) {
+            SortMetrics.begin("QuickSort", input.length);
+            try {
+                sort(input, 0, input.length, depthLimit(input.length), partition, leaf(partition));
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array, using parallel quick sort in common fork-join pool.
+     * Both parts produced by each partitioning are sorted in separate tasks, until parts are small enough to be
+     * sorted in one thread.
+     * Complexity: O(n log(n))
+     *
+     * @param input Array of ints
+     */
+    public static void parallelSort(@NotNull int[] input) {
+        if (input != null) {
+            SortMetrics.begin("QuickSort.parallel", input.length);
+            try {
+                Partition partition = pickPartition(input);
+                if (input.length <= PARALLEL_SORT_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() == 1) {
+                    sort(input, 0, input.length, depthLimit(input.length), partition, leaf(partition));
+                } else {
+                    ForkJoinPool.commonPool().invoke(
+                            new SortTask(input, 0, input.length, depthLimit(input.length), partition));
+                }
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array of objects, using quick sort with comparator.
+     * Pivot is random element, depth of recursion is limited same as in sort(int[] input). Sort is not stable.
+     * Complexity: O(n log(n)); Worst case: O(n log(n))
+     *
+     * @param input Array of objects
+     * @param comparator Comparator, defining order of objects
+     * @param <T> Type of objects
+     */
+    public static <T> void sort(@NotNull T[] input, @NotNull Comparator<? super T> comparator) {
+        if (input != null) {
+            SortMetrics.begin("QuickSort", input.length);
+            try {
+                sort(input, 0, input.length, depthLimit(input.length), comparator);
+            } finally {
+                SortMetrics.end();
+            }
         }
     }
 
+    /** Quick sort implementation that sorts part of input from index left to index right with Hoare's partition.
+     * See sort(int[] input) for more details.
+     *
+     * @param input Array of ints to be sorted
+     * @param left Left index (from, included), must be >= 0 && <= right
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void sort(@NotNull int[] input, int left, int right) {
+        sort(input, left, right, depthLimit(right - left), Partition.HOARE, SortProfile.QUICK_INT);
+    }
+
+    /** Quick sort implementation that sorts part of input with Hoare's partition and specified leaf sort, used by
+     * SortCalibration for measuring candidate leaf sorts.
+     *
+     * @param input Array of ints to be sorted
+     * @param left Left index (from, included), must be >= 0 && <= right
+     * @param right Right index (to, excluded), must be <= input.length
+     * @param cutoff Leaf sort
+     */
+    static void sort(@NotNull int[] input, int left, int right, @NotNull SortProfile.Cutoff cutoff) {
+        sort(input, left, right, depthLimit(right - left), Partition.HOARE, cutoff);
+    }
+
     /** Quick sort implementation that sorts part of input from index left to index right.
      * See sort(int[] input) for more details.
      *
      * @param input Array of ints to be sorted
      * @param left Left index (from, included), must be >= 0 && < (right - 1)
      * @param right Right index (to, excluded), must be <= input.length
+     * @param depthLimit Number of partitions left before switching to heap sort, must be >= 0
+     * @param partition Partition algorithm
+     * @param cutoff Leaf sort, parts up to its size are sorted with it
      */
-    private static void sort(@NotNull int[] input, int left, int right) {
+    private static void sort(@NotNull int[] input, int left, int right, int depthLimit,
+                             @NotNull Partition partition, @NotNull SortProfile.Cutoff cutoff) {
 
-        while (right - left > QUICK_TO_INSERTION_THRESHOLD) {
-            Random rand = new Random();
-            swap(input, right - 1, left + rand.nextInt(right - left));
-            int part = partitionHoare(input, left, right);
+        SortMetrics.enter();
+        while (right - left > cutoff.size) {
+            if (depthLimit == 0) {
+                SortMetrics.fallback(SortMetrics.Fallback.HEAP_SORT);
+                HeapSort.sort(input, left, right); // too deep, partitions are unbalanced
+                SortMetrics.exit();
+                return;
+            }
+            depthLimit--;
+            SortMetrics.comparisons(right - left - 1); // each element is compared with pivot
+            long bounds = partition(input, left, right, partition);
+            int leftTo = (int) (bounds >>> Integer.SIZE);
+            int rightFrom = (int) bounds;
+            if (leftTo - left < right - rightFrom) {
+                sort(input, left, leftTo, depthLimit, partition, cutoff);
+                left = rightFrom;
+            } else {
+                sort(input, rightFrom, right, depthLimit, partition, cutoff);
+                right = leftTo;
+            }
+        }
+        SortMetrics.fallback(SortMetrics.Fallback.INSERTION_CUTOFF);
+        cutoff.sort(input, left, right); // insertion sort or vectorized sorting network, if available
+        SortMetrics.exit();
+
+    }
+
+    /** Returns leaf sort of partition algorithm. */
+    private static @NotNull SortProfile.Cutoff leaf(@NotNull Partition partition) {
+        return partition == Partition.VECTOR ? VECTOR_LEAF : SortProfile.QUICK_INT;
+    }
+
+    /** Quick sort implementation for objects, see sort(int[], int, int, int, Partition) for contract. */
+    private static <T> void sort(@NotNull T[] input, int left, int right, int depthLimit,
+                                 @NotNull Comparator<? super T> comparator) {
+        while (right - left > QUICK_TO_INSERTION_THRESHOLD_OBJECTS) {
+            if (depthLimit == 0) {
+                SortMetrics.fallback(SortMetrics.Fallback.HEAP_SORT);
+                HeapSort.sort(input, left, right, comparator);
+                return;
+            }
+            depthLimit--;
+            int part = partitionHoare(input, left, right, comparator);
             if (part - left < right - part) {
-                sort(input, left, part);
+                sort(input, left, part, depthLimit, comparator);
                 left = part;
             } else {
-                sort(input, part, right);
+                sort(input, part, right, depthLimit, comparator);
                 right = part;
             }
         }
-        InsertionSort.sort(input, left, right); // uses insertion sort on arrays from threshold length
+        SortMetrics.fallback(SortMetrics.Fallback.INSERTION_CUTOFF);
+        InsertionSort.sort(input, left, right, comparator);
+    }
+
+    /** Returns maximal depth of quick sort recursion for array of given size, that is 2 * floor(log2(size)).
+     *
+     * @param size size of array, >= 0
+     *
+     * @return limit for number of nested partitions
+     */
+    private static int depthLimit(int size) {
+        return size == 0 ? 0 : 2 * (31 - Integer.numberOfLeadingZeros(size));
+    }
+
+    /** Picks partition algorithm for input by share of duplicates in a sample of DuplicatesSample.SIZE elements.
+     * Inputs shorter than sample or sorted without partition (not longer than cutoff of quick sort) get HOARE.
+     *
+     * @param input Array of ints
+     *
+     * @return THREE_WAY if there are many equal elements in sample, HOARE otherwise
+     */
+    private static @NotNull Partition pickPartition(@NotNull int[] input) {
+        if (input.length < DuplicatesSample.SIZE || input.length <= SortProfile.QUICK_INT.size) {
+            return Partition.HOARE;
+        }
+        return DuplicatesSample.isFrequent(input) ? Partition.THREE_WAY : Partition.HOARE;
+    }
+
+    /** Picks pivot and performs partition of input[left..right-1] with specified partition algorithm.
+     * Result is two parts input[left..leftTo-1] and input[rightFrom..right-1], where each element of left part is <=
+     * than each element of right part, and elements between parts (if any) are equal to pivot and already in place.
+     * Both parts are not empty or shorter than input[left..right-1], so sorting always makes progress.
+     *
+     * @param input Array of ints for partitioning
+     * @param left Left index (from, included), must be >= 0 && < (right - 1)
+     * @param right Right index (to, excluded), must be <= input.length
+     * @param partition Partition algorithm
+     *
+     * @return leftTo and rightFrom, packed in one long as (leftTo << 32 | rightFrom) to avoid allocation
+     */
+    static long partition(@NotNull int[] input, int left, int right, @NotNull Partition partition) {
+        pickPivot(input, left, right);
+        switch (partition) {
+            case THREE_WAY:
+                return partitionThreeWay(input, left, right);
+            case VECTOR:
+                return SortKernels.KERNEL.partition(input, left, right);
+            case BLOCK:
+                int part = BlockPartition.partition(input, left, right);
+                return (long) part << Integer.SIZE | part + 1;
+            case LOMUTO:
+                part = partitionLomuto(input, left, right);
+                if (part == right) {
+                    part--; // all elements are <= pivot and pivot stays at right - 1
+                }
+                return (long) part << Integer.SIZE | part;
+            case HOARE:
+            default:
+                part = partitionHoare(input, left, right);
+                return (long) part << Integer.SIZE | part;
+        }
+    }
+
+    /** Picks pivot for partition of input[left..right-1] and moves it to input[right-1].
+     * Small parts use random element as pivot. Larger parts use ninther: median of three medians of three elements,
+     * taken from nine equally spaced positions with random offset. Ninther gives better balanced partitions and
+     * random offset keeps pivot unpredictable, so no fixed input can force bad partitions.
+     * Randomness is taken from ThreadLocalRandom, so nothing is allocated and threads are not contending.
+     *
+     * @param input Array of ints for partitioning
+     * @param left Left index (from, included), must be >= 0 && < (right - 1)
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    private static void pickPivot(@NotNull int[] input, int left, int right) {
+        int size = right - left;
+        int pivot;
+        if (size > NINTHER_THRESHOLD) {
+            int step = size / 9;
+            int i = left + ThreadLocalRandom.current().nextInt(step);
+            pivot = median(input,
+                    median(input, i, i + step, i + 2 * step),
+                    median(input, i + 3 * step, i + 4 * step, i + 5 * step),
+                    median(input, i + 6 * step, i + 7 * step, i + 8 * step));
+        } else {
+            pivot = left + ThreadLocalRandom.current().nextInt(size);
+        }
+        swap(input, right - 1, pivot);
+    }
 
+    /** Returns index of median of input[i], input[j], input[k]. */
+    private static int median(@NotNull int[] input, int i, int j, int k) {
+        if (input[i] < input[j]) {
+            return input[j] < input[k] ? j : (input[i] < input[k] ? k : i);
+        } else {
+            return input[j] > input[k] ? j : (input[i] > input[k] ? k : i);
+        }
     }
 
     /** Performs partition of input[left..right-1] such as all elements input[left..result] <= pivot and all elements
@@ -67,17 +326,43 @@ class QuickSort {
      * @return index of element result such as all input[left..result] <= pivot && input[result..right-1] >= pivot
      */
     @SuppressWarnings("StatementWithEmptyBody") // empty for loops are made intentionally here
-    private static int partitionHoare(@NotNull int[] input, int left, int right) {
+    static int partitionHoare(@NotNull int[] input, int left, int right) {
         int pivot = input[right - 1];
         int i = left - 1;
         int j = right;
+        int swaps = 0;
         while (i < j) {
             for (i++; i < j && input[i] < pivot; i++) { }
             for (j--; i < j && input[j] > pivot; j--) { }
             if (i < j) {
                 swap(input, i, j);
+                swaps++;
             }
         }
+        SortMetrics.swaps(swaps);
+        return i;
+    }
+
+    /** Picks random pivot and performs Hoare's partition of input array of objects.
+     * See partitionHoare(int[], int, int) for contract.
+     */
+    @SuppressWarnings("StatementWithEmptyBody") // empty for loops are made intentionally here
+    private static <T> int partitionHoare(@NotNull T[] input, int left, int right,
+                                          @NotNull Comparator<? super T> comparator) {
+        swap(input, right - 1, left + ThreadLocalRandom.current().nextInt(right - left));
+        T pivot = input[right - 1];
+        int i = left - 1;
+        int j = right;
+        int swaps = 1; // pivot
+        while (i < j) {
+            for (i++; i < j && comparator.compare(input[i], pivot) < 0; i++) { }
+            for (j--; i < j && comparator.compare(input[j], pivot) > 0; j--) { }
+            if (i < j) {
+                swap(input, i, j);
+                swaps++;
+            }
+        }
+        SortMetrics.swaps(swaps);
         return i;
     }
 
@@ -91,7 +376,6 @@ class QuickSort {
      *
      * @return index of element result such as all input[left..result] <= pivot && input[result..right-1] >= pivot
      */
-    @SuppressWarnings("unused")
     private static int partitionLomuto(@NotNull int[] input, int left, int right) {
         int pivot = input[right - 1];
         int i = left;
@@ -112,9 +396,38 @@ class QuickSort {
                 }
             }
         }
+        SortMetrics.swaps(j - left); // each element placed in the left part is swapped once
         return j;
     }
 
+    /** Performs partition of input[left..right-1] in three parts: elements < pivot, elements == pivot and elements
+     * > pivot, where pivot picked as input[right-1] at start.
+     * This method uses Dijkstra's three-way partition algorithm (Dutch national flag).
+     *
+     * @param input Array of ints for partitioning
+     * @param left Left index (from, included), must be >= 0 && < (right - 1)
+     * @param right Right index (to, excluded), must be <= input.length
+     *
+     * @return lt and gt packed in one long as (lt << 32 | gt), such as all input[left..lt-1] < pivot,
+     *      all input[lt..gt-1] == pivot and all input[gt..right-1] > pivot
+     */
+    private static long partitionThreeWay(@NotNull int[] input, int left, int right) {
+        int pivot = input[right - 1];
+        int lt = left;
+        int gt = right;
+        for (int i = left; i < gt; ) {
+            if (input[i] < pivot) {
+                swap(input, lt++, i++);
+            } else if (input[i] > pivot) {
+                swap(input, i, --gt);
+            } else {
+                i++;
+            }
+        }
+        SortMetrics.swaps(lt - left + right - gt); // each element < pivot or > pivot is swapped once
+        return (long) lt << Integer.SIZE | gt;
+    }
+
     /** Swaps input[i] and input[j].
      *
      * @param input Source array
@@ -130,4 +443,42 @@ class QuickSort {
         input[j] = tmp;
     }
 
+    /** Swaps input[i] and input[j] in array of objects. */
+    private static <T> void swap(@NotNull T[] input, int i, int j) {
+        T tmp = input[i];
+        input[i] = input[j];
+        input[j] = tmp;
+    }
+
+    /** Fork-join task of parallel quick sort, sorts input[left..right-1] with limited depth of recursion. */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class SortTask extends RecursiveAction {
+
+        private final int[] input;
+        private final int left;
+        private final int right;
+        private final int depthLimit;
+        private final Partition partition;
+
+        SortTask(@NotNull int[] input, int left, int right, int depthLimit, @NotNull Partition partition) {
+            this.input = input;
+            this.left = left;
+            this.right = right;
+            this.depthLimit = depthLimit;
+            this.partition = partition;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left <= PARALLEL_SORT_THRESHOLD || depthLimit == 0) {
+                sort(input, left, right, depthLimit, partition, leaf(partition));
+            } else {
+                long bounds = partition(input, left, right, partition);
+                invokeAll(new SortTask(input, left, (int) (bounds >>> Integer.SIZE), depthLimit - 1, partition),
+                        new SortTask(input, (int) bounds, right, depthLimit - 1, partition));
+            }
+        }
+
+    }
+
 }
@@ -6,6 +6,13 @@ import com.sun.istack.internal.NotNull;
  */
 class RadixSort {
 
+    /** Defines number of bits in one digit of radix sort of primitive keys. */
+    private static final int DIGIT_BITS = 8;
+    /** Number of possible values of one digit. */
+    private static final int DIGIT_RANGE = 1 << DIGIT_BITS;
+    /** Mask of lowest digit. */
+    private static final int DIGIT_MASK = DIGIT_RANGE - 1;
+
     // Thread safety argument:
     //      This class is thread safe, because it have no instances (everything static).
     //      Noninstantiability is enforced with private constructor.
@@ -14,6 +21,186 @@ class RadixSort {
         throw new RuntimeException("RadixSort is noninstantiable");
     }
 
+    /** Sorts input array of ints using LSD radix sort, one byte is one digit.
+     * Sign bit is flipped when extracting digits, so negative numbers are placed before positive.
+     * Histograms of all digits are counted in one pass over input, digits that are same for all elements are skipped.
+     * Input and one additional array are switching roles of source and destination on each pass.
+     * Complexity: O(n) (at most 4 passes); Memory: n + 4 * 256 ints
+     *
+     * @param input Array of ints
+     */
+    public static void sort(@NotNull int[] input) {
+        if (input != null && input.length > 1) {
+            SortMetrics.begin("RadixSort", input.length);
+            try {
+                final int digits = Integer.SIZE / DIGIT_BITS;
+                int[] counters = new int[digits * DIGIT_RANGE];
+                for (int key : input) {
+                    for (int d = 0; d < digits; d++) {
+                        counters[d * DIGIT_RANGE + digit(key, d * DIGIT_BITS)]++;
+                    }
+                }
+
+                int[] source = input;
+                int[] destination = new int[input.length];
+                SortMetrics.allocated((long) Integer.BYTES * input.length);
+                for (int d = 0; d < digits; d++) {
+                    int shift = d * DIGIT_BITS;
+                    if (toPositions(counters, d * DIGIT_RANGE, input.length, digit(input[0], shift))) {
+                        for (int key : source) {
+                            destination[counters[d * DIGIT_RANGE + digit(key, shift)]++] = key;
+                        }
+                        SortMetrics.moves(input.length);
+                        int[] tmp = source;
+                        source = destination;
+                        destination = tmp;
+                    }
+                }
+                if (source != input) {
+                    System.arraycopy(source, 0, input, 0, input.length);
+                }
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array of longs using LSD radix sort, one byte is one digit.
+     * See sort(int[] input) for more details.
+     * Complexity: O(n) (at most 8 passes); Memory: n + 8 * 256 longs
+     *
+     * @param input Array of longs
+     */
+    public static void sort(@NotNull long[] input) {
+        if (input != null && input.length > 1) {
+            SortMetrics.begin("RadixSort", input.length);
+            try {
+                SortMetrics.allocated((long) Long.BYTES * input.length);
+                sort(input, input.length, new long[input.length]);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input[0..size-1] of longs using LSD radix sort with buffer supplied by caller, see sort(long[] input).
+     * Callers sorting many arrays reuse same buffer instead of allocating it on each call.
+     * Complexity: O(n) (at most 8 passes); Memory: 8 * 256 ints
+     *
+     * @param input Array of longs, elements from index size are not changed
+     * @param size Number of sorted elements, size <= input.length
+     * @param buffer Array of at least size longs, content before and after sort is not defined
+     */
+    static void sort(@NotNull long[] input, int size, @NotNull long[] buffer) {
+        if (size > 1) {
+
+            final int digits = Long.SIZE / DIGIT_BITS;
+            int[] counters = new int[digits * DIGIT_RANGE];
+            for (int i = 0; i < size; i++) {
+                for (int d = 0; d < digits; d++) {
+                    counters[d * DIGIT_RANGE + digit(input[i], d * DIGIT_BITS)]++;
+                }
+            }
+
+            long[] source = input;
+            long[] destination = buffer;
+            for (int d = 0; d < digits; d++) {
+                int shift = d * DIGIT_BITS;
+                if (toPositions(counters, d * DIGIT_RANGE, size, digit(input[0], shift))) {
+                    for (int i = 0; i < size; i++) {
+                        destination[counters[d * DIGIT_RANGE + digit(source[i], shift)]++] = source[i];
+                    }
+                    SortMetrics.moves(size);
+                    long[] tmp = source;
+                    source = destination;
+                    destination = tmp;
+                }
+            }
+            if (source != input) {
+                System.arraycopy(source, 0, input, 0, size);
+            }
+
+        }
+    }
+
+    /** Sorts array of long keys together with array of int values using LSD radix sort.
+     * Each values[i] is moved together with keys[i]. Sort is stable, so equal keys keep order of their values.
+     * See sort(int[] input) for more details.
+     * Complexity: O(n) (at most 8 passes); Memory: n longs + n ints + 8 * 256 ints
+     *
+     * @param keys Array of longs to sort by
+     * @param values Array of ints, values.length == keys.length
+     */
+    static void sort(@NotNull long[] keys, @NotNull int[] values) {
+        if (keys.length > 1) {
+
+            final int digits = Long.SIZE / DIGIT_BITS;
+            int[] counters = new int[digits * DIGIT_RANGE];
+            for (long key : keys) {
+                for (int d = 0; d < digits; d++) {
+                    counters[d * DIGIT_RANGE + digit(key, d * DIGIT_BITS)]++;
+                }
+            }
+
+            long[] sourceKeys = keys;
+            int[] sourceValues = values;
+            long[] destinationKeys = new long[keys.length];
+            int[] destinationValues = new int[keys.length];
+            for (int d = 0; d < digits; d++) {
+                int shift = d * DIGIT_BITS;
+                if (toPositions(counters, d * DIGIT_RANGE, keys.length, digit(keys[0], shift))) {
+                    for (int i = 0; i < keys.length; i++) {
+                        int pos = counters[d * DIGIT_RANGE + digit(sourceKeys[i], shift)]++;
+                        destinationKeys[pos] = sourceKeys[i];
+                        destinationValues[pos] = sourceValues[i];
+                    }
+                    long[] tmpKeys = sourceKeys;
+                    sourceKeys = destinationKeys;
+                    destinationKeys = tmpKeys;
+                    int[] tmpValues = sourceValues;
+                    sourceValues = destinationValues;
+                    destinationValues = tmpValues;
+                }
+            }
+            if (sourceKeys != keys) {
+                System.arraycopy(sourceKeys, 0, keys, 0, keys.length);
+                System.arraycopy(sourceValues, 0, values, 0, values.length);
+            }
+
+        }
+    }
+
+    /** Returns digit of key (DIGIT_BITS bits starting from shift) with flipped sign bit. */
+    private static int digit(int key, int shift) {
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK;
+    }
+
+    /** Returns digit of key (DIGIT_BITS bits starting from shift) with flipped sign bit. */
+    private static int digit(long key, int shift) {
+        return (int) ((key ^ Long.MIN_VALUE) >>> shift) & DIGIT_MASK;
+    }
+
+    /** Converts histogram of one digit to starting positions of each digit value in result.
+     *
+     * @param counters Array of histograms, histogram of digit is counters[offset..offset+DIGIT_RANGE-1]
+     * @param offset Index of histogram in counters
+     * @param size Number of sorted elements
+     * @param anyDigit Value of digit of any sorted element
+     *
+     * @return false if all elements have same digit and pass can be skipped, true otherwise
+     */
+    private static boolean toPositions(@NotNull int[] counters, int offset, int size, int anyDigit) {
+        if (counters[offset + anyDigit] == size) {
+            return false;
+        }
+        for (int i = offset, pos = 0; i < offset + DIGIT_RANGE; i++) {
+            int tmp = counters[i];
+            counters[i] = pos;
+            pos += tmp;
+        }
+        return true;
+    }
+
     /** Sorts input array of strings using counting sort.
      * Suitable for fast sorting integer keys in small range.
      * Complexity: O(nd + MD), where n = input.length, d = stringsSize, M = charTo - charFrom
@@ -25,32 +212,35 @@ class RadixSort {
      */
     public static void sort(@NotNull String[] input, int charFrom, int charTo, int stringsSize) {
         if (input != null) {
-
-            // Convert strings to 2d int arrays
-            int range = charTo - charFrom;
-            int[][] inputAsChars = new int[input.length][stringsSize];
-            for (int i = 0; i < input.length; i++) {
-                for (int j = 0, length = input[i].length(); j < stringsSize && j < length; j++) {
-                    // each element in 2d int array is char[i,j] - charFrom + 1 && empty == 0
-                    inputAsChars[i][j] = input[i].charAt(j) - charFrom + 1;
+            SortMetrics.begin("RadixSort", input.length);
+            try {
+                // Convert strings to 2d int arrays
+                int range = charTo - charFrom;
+                int[][] inputAsChars = new int[input.length][stringsSize];
+                for (int i = 0; i < input.length; i++) {
+                    for (int j = 0, length = input[i].length(); j < stringsSize && j < length; j++) {
+                        // each element in 2d int array is char[i,j] - charFrom + 1 && empty == 0
+                        inputAsChars[i][j] = input[i].charAt(j) - charFrom + 1;
+                    }
                 }
-            }
 
-            // sort input array of ints
-            for (int i = stringsSize - 1; i >= 0; i--) {
-                CountingSort.sort(inputAsChars, 0, range + 1, i);
-            }
+                // sort input array of ints
+                for (int i = stringsSize - 1; i >= 0; i--) {
+                    CountingSort.sort(inputAsChars, 0, range + 1, i); // keys are 0 (empty) .. range + 1
+                }
 
-            // recover the result
-            for (int i = 0; i < input.length; i++) {
-                StringBuilder builder = new StringBuilder();
-                for (int j = 0; j < stringsSize && inputAsChars[i][j] != 0; j++) {
-                    // recover each char as res[i,j] + charFrom - 1 && if res[i,j] == 0, skip to next string
-                    builder.append((char) (inputAsChars[i][j] + charFrom - 1));
+                // recover the result
+                for (int i = 0; i < input.length; i++) {
+                    StringBuilder builder = new StringBuilder();
+                    for (int j = 0; j < stringsSize && inputAsChars[i][j] != 0; j++) {
+                        // recover each char as res[i,j] + charFrom - 1 && if res[i,j] == 0, skip to next string
+                        builder.append((char) (inputAsChars[i][j] + charFrom - 1));
+                    }
+                    input[i] = builder.toString();
                 }
-                input[i] = builder.toString();
+            } finally {
+                SortMetrics.end();
             }
-
         }
     }
 
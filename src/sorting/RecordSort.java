@@ -0,0 +1,207 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+/** This class implementing in-place sort of fixed-width binary records stored in a ByteBuffer, modifying buffer such
+ * as for each i, key[i] <= key[i+1]. Keys are compared as unsigned bytes, first byte is most significant
+ * (same order as Arrays.compareUnsigned of key bytes). Big-endian unsigned integers are sorted numerically,
+ * big-endian signed integers need their sign bit flipped before sorting.
+ */
+class RecordSort {
+
+    /** Defines number of records in bucket when radix sort should switch to insertion sort. */
+    private static final int RADIX_TO_INSERTION_THRESHOLD = 32;
+    /** Number of buckets of one key byte. */
+    private static final int RADIX = 256;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Context is created for each call and is not shared between threads.
+    //      Buffer must not be accessed by other threads during sort (ByteBuffer is not thread safe).
+
+    private RecordSort() {
+        throw new RuntimeException("RecordSort is noninstantiable");
+    }
+
+    /** Sorts records between position and limit of buffer in place, using American flag sort.
+     * American flag sort is MSD radix sort, which permutes records in place: records are counted by key byte,
+     * then each record is swapped directly into next free place of its bucket, so every swap places at least one
+     * record. Then each bucket is sorted by next key byte recursively. Small buckets are sorted with insertion sort,
+     * byte of key shared by all records of bucket is skipped without moving records.
+     * Records are read and swapped with absolute get and put methods, so heap, direct and mapped buffers are sorted
+     * without copying them to heap, position and limit of buffer stay unchanged. Sort is not stable.
+     * Complexity: O(n * keyWidth) in worst case; Memory: 257 ints for each byte of key + 256 ints
+     *
+     * @param buffer Writable buffer of records, size between position and limit must be multiple of recordWidth
+     * @param recordWidth Size of one record in bytes, > 0
+     * @param keyOffset Offset of key in record in bytes, >= 0
+     * @param keyWidth Size of key in bytes, >= 0, keyOffset + keyWidth must be <= recordWidth
+     *
+     * @throws IllegalArgumentException if widths or offset are invalid or buffer does not contain whole records
+     * @throws ReadOnlyBufferException if buffer is read-only
+     */
+    public static void sort(@NotNull ByteBuffer buffer, int recordWidth, int keyOffset, int keyWidth) {
+        if (recordWidth <= 0 || keyOffset < 0 || keyWidth < 0 || keyOffset > recordWidth - keyWidth) {
+            throw new IllegalArgumentException("Error @ RecordSort.sort() :: invalid record layout, (recordWidth, "
+                    + "keyOffset, keyWidth) == (" + recordWidth + ", " + keyOffset + ", " + keyWidth + ")");
+        }
+        if (buffer.remaining() % recordWidth != 0) {
+            throw new IllegalArgumentException("Error @ RecordSort.sort() :: remaining bytes of buffer are not "
+                    + "multiple of " + recordWidth + " == " + buffer.remaining());
+        }
+        if (buffer.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int size = buffer.remaining() / recordWidth;
+        if (size > 1 && keyWidth > 0) {
+            SortMetrics.begin("RecordSort", size);
+            try {
+                sort(new Context(buffer, recordWidth, keyOffset, keyWidth), 0, size, 0);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** American flag sort of records from index left to index right, all of them have same first depth key bytes.
+     *
+     * @param context Buffer, layout of records and counters
+     * @param left Left index of record (from, included)
+     * @param right Right index of record (to, excluded)
+     * @param depth Index of key byte to distribute records by, < keyWidth
+     */
+    private static void sort(@NotNull Context context, int left, int right, int depth) {
+        while (right - left > RADIX_TO_INSERTION_THRESHOLD) {
+
+            int[] counters = context.counters(depth);
+            for (int i = left; i < right; i++) {
+                counters[context.keyByte(i, depth) + 1]++;
+            }
+            if (counters[context.keyByte(left, depth) + 1] == right - left) {
+                Arrays.fill(counters, 0); // all records have same byte at depth
+                if (++depth == context.keyWidth) {
+                    return;
+                }
+                continue;
+            }
+
+            // counters[b] becomes start of bucket b, next[b] is first record of bucket b not yet in place
+            counters[0] = left;
+            for (int b = 0; b < RADIX; b++) {
+                counters[b + 1] += counters[b];
+            }
+            int[] next = context.next;
+            System.arraycopy(counters, 0, next, 0, RADIX);
+            long swaps = 0;
+            for (int b = 0; b < RADIX; b++) {
+                int end = counters[b + 1];
+                while (next[b] < end) {
+                    int target = context.keyByte(next[b], depth);
+                    if (target == b) {
+                        next[b]++;
+                    } else {
+                        context.swap(next[b], next[target]++);
+                        swaps++;
+                    }
+                }
+            }
+            SortMetrics.swaps(swaps);
+
+            if (depth + 1 < context.keyWidth) {
+                for (int b = 0; b < RADIX; b++) {
+                    if (counters[b + 1] - counters[b] > 1) {
+                        sort(context, counters[b], counters[b + 1], depth + 1);
+                    }
+                }
+            }
+            Arrays.fill(counters, 0);
+            return;
+
+        }
+        insertionSort(context, left, right, depth);
+    }
+
+    /** Insertion sort of records from index left to index right, all of them have same first depth key bytes. */
+    private static void insertionSort(@NotNull Context context, int left, int right, int depth) {
+        for (int j = left + 1; j < right; j++) {
+            for (int i = j; i > left && context.compareKeys(i - 1, i, depth) > 0; i--) {
+                context.swap(i - 1, i);
+            }
+        }
+    }
+
+    /** Buffer and layout of records of one sort call and counters for each byte of key. */
+    private static class Context {
+
+        private final ByteBuffer buffer;
+        /** Offset of first record in buffer. */
+        private final int base;
+        private final int recordWidth;
+        private final int keyOffset;
+        private final int keyWidth;
+        /** Counters of each depth, reused by all buckets on that depth and zeroed after use. */
+        private final int[][] counters;
+        /** Next free place of each bucket, used by one distribution at a time. */
+        private final int[] next = new int[RADIX];
+
+        Context(@NotNull ByteBuffer buffer, int recordWidth, int keyOffset, int keyWidth) {
+            this.buffer = buffer;
+            this.base = buffer.position();
+            this.recordWidth = recordWidth;
+            this.keyOffset = keyOffset;
+            this.keyWidth = keyWidth;
+            this.counters = new int[keyWidth][];
+        }
+
+        /** Returns zeroed counters for depth, size RADIX + 1. */
+        private @NotNull int[] counters(int depth) {
+            if (counters[depth] == null) {
+                counters[depth] = new int[RADIX + 1];
+            }
+            return counters[depth];
+        }
+
+        /** Returns byte of key of record at index depth as unsigned integer. */
+        private int keyByte(int record, int depth) {
+            return buffer.get(base + record * recordWidth + keyOffset + depth) & 0xFF;
+        }
+
+        /** Compares keys of records a and b as unsigned bytes, starting from byte at index depth. */
+        private int compareKeys(int a, int b, int depth) {
+            int offsetA = base + a * recordWidth + keyOffset;
+            int offsetB = base + b * recordWidth + keyOffset;
+            for (int i = depth; i < keyWidth; i++) {
+                int byteA = buffer.get(offsetA + i) & 0xFF;
+                int byteB = buffer.get(offsetB + i) & 0xFF;
+                if (byteA != byteB) {
+                    return byteA - byteB;
+                }
+            }
+            return 0;
+        }
+
+        /** Swaps records a and b, moving 8 bytes at a time. */
+        private void swap(int a, int b) {
+            int offsetA = base + a * recordWidth;
+            int offsetB = base + b * recordWidth;
+            int i = 0;
+            for (; i + Long.BYTES <= recordWidth; i += Long.BYTES) {
+                long tmp = buffer.getLong(offsetA + i);
+                buffer.putLong(offsetA + i, buffer.getLong(offsetB + i));
+                buffer.putLong(offsetB + i, tmp);
+            }
+            for (; i < recordWidth; i++) {
+                byte tmp = buffer.get(offsetA + i);
+                buffer.put(offsetA + i, buffer.get(offsetB + i));
+                buffer.put(offsetB + i, tmp);
+            }
+        }
+
+    }
+
+}
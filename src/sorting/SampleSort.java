@@ -0,0 +1,404 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** This class implementing parallel sample sort, modifying input array such as for each i, input[i] <= input[i+1].
+ */
+class SampleSort {
+
+    /** Defines minimal size of array, that is sorted with parallel sample sort instead of sequential quick sort. */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+    /** Defines number of levels of splitter tree, there are 2^BUCKETS_LOG - 1 splitters. */
+    private static final int BUCKETS_LOG = 7;
+    /** Number of buckets between splitters. */
+    private static final int RANGE_BUCKETS = 1 << BUCKETS_LOG;
+    /** Total number of buckets: bucket between splitters and bucket of keys equal to splitter for each splitter. */
+    private static final int BUCKETS = 2 * RANGE_BUCKETS;
+    /** Defines number of sampled elements for each splitter. */
+    private static final int OVERSAMPLING = 16;
+    /** Defines number of chunks classified by each worker, more chunks balance slower workers. */
+    private static final int CHUNKS_PER_WORKER = 4;
+    /** Defines minimal number of elements in one chunk. */
+    private static final int MIN_CHUNK_SIZE = 1 << 12;
+    /** Index of splitter in sorted splitters for each node of splitter tree, tree is stored in Eytzinger layout. */
+    private static final int[] TREE_ORDER = new int[RANGE_BUCKETS];
+
+    static {
+        fillTreeOrder(1, 0, RANGE_BUCKETS - 1);
+    }
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Keys are created for each call and shared only by tasks of that call. Splitters are written before tasks
+    //      are started, tasks write to own counters or to disjoint parts of input, buffer and oracle.
+    //      Phases are separated by invokeAll, which joins all tasks of previous phase.
+
+    private SampleSort() {
+        throw new RuntimeException("SampleSort is noninstantiable");
+    }
+
+    /** Sorts input array, using parallel sample sort in common fork-join pool.
+     * See parallelSort(int[] input, ForkJoinPool pool) for more details.
+     *
+     * @param input Array of ints
+     */
+    public static void parallelSort(@NotNull int[] input) {
+        parallelSort(input, ForkJoinPool.commonPool());
+    }
+
+    /** Sorts input array, using parallel sample sort in specified fork-join pool.
+     * Splitters are picked from sorted random sample, OVERSAMPLING elements per splitter. Input is split into
+     * chunks, which are classified concurrently: bucket of each element is found by branchless descent of splitter
+     * tree and stored in oracle, each chunk counts its buckets. From counts of all chunks each chunk gets its own
+     * positions in each bucket, so chunks are scattered concurrently into one buffer without synchronization.
+     * Finally buckets are copied back to input and sorted by quick sort in separate tasks. Each element is moved
+     * twice before bucket sort: to buffer and back. Keys equal to a splitter get own bucket, which is not sorted,
+     * so frequent keys do not produce large bucket. Arrays up to PARALLEL_SORT_THRESHOLD elements and pools with
+     * one worker use sequential quick sort. Sort is not stable.
+     * Complexity: O(n log(n)) work, O(n log(n) / p) time with p workers;
+     * Memory: n ints for buffer + n bytes for oracle + 2^(BUCKETS_LOG + 1) ints for each chunk
+     *
+     * @param input Array of ints
+     * @param pool Fork-join pool for tasks
+     */
+    public static void parallelSort(@NotNull int[] input, @NotNull ForkJoinPool pool) {
+        if (input != null) {
+            SortMetrics.begin("SampleSort", input.length);
+            try {
+                if (input.length <= PARALLEL_SORT_THRESHOLD || pool.getParallelism() == 1) {
+                    QuickSort.sort(input);
+                } else {
+                    SortMetrics.allocated(5L * input.length);
+                    pool.invoke(new SortTask(new IntKeys(input), pool.getParallelism()));
+                }
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Sorts input array of longs, using parallel sample sort in common fork-join pool.
+     * See parallelSort(int[] input, ForkJoinPool pool) for more details.
+     *
+     * @param input Array of longs
+     */
+    public static void parallelSort(@NotNull long[] input) {
+        parallelSort(input, ForkJoinPool.commonPool());
+    }
+
+    /** Sorts input array of longs, using parallel sample sort in specified fork-join pool.
+     * See parallelSort(int[] input, ForkJoinPool pool) for more details.
+     * Complexity: O(n log(n)) work, O(n log(n) / p) time with p workers;
+     * Memory: n longs for buffer + n bytes for oracle + 2^(BUCKETS_LOG + 1) ints for each chunk
+     *
+     * @param input Array of longs
+     * @param pool Fork-join pool for tasks
+     */
+    public static void parallelSort(@NotNull long[] input, @NotNull ForkJoinPool pool) {
+        if (input != null) {
+            SortMetrics.begin("SampleSort", input.length);
+            try {
+                if (input.length <= PARALLEL_SORT_THRESHOLD || pool.getParallelism() == 1) {
+                    LongSort.sort(input);
+                } else {
+                    SortMetrics.allocated(9L * input.length);
+                    pool.invoke(new SortTask(new LongKeys(input), pool.getParallelism()));
+                }
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** Fills TREE_ORDER for subtree with root node, which contains sorted splitters from index from to index to.
+     * Left subtree of node contains smaller splitters, right subtree contains larger splitters.
+     */
+    private static void fillTreeOrder(int node, int from, int to) {
+        if (from < to) {
+            int middle = (from + to) >>> 1;
+            TREE_ORDER[node] = middle;
+            fillTreeOrder(2 * node, from, middle);
+            fillTreeOrder(2 * node + 1, middle + 1, to);
+        }
+    }
+
+    /** Keys of one call of parallel sample sort: input, buffer of same size and oracle of buckets.
+     * Bucket 2b contains keys k with splitter[b-1] < k < splitter[b], bucket 2b+1 contains keys equal to
+     * splitter[b], so buckets in order of indices are in order of keys.
+     */
+    private abstract static class Keys {
+
+        /** Bucket of each element of input, written by classify and read by scatter. */
+        final byte[] oracle;
+
+        Keys(int size) {
+            this.oracle = new byte[size];
+        }
+
+        /** Returns number of keys. */
+        final int size() {
+            return oracle.length;
+        }
+
+        /** Picks splitters from sorted random sample of input and builds splitter tree. */
+        abstract void chooseSplitters();
+
+        /** Writes bucket of each key of input[from..to-1] to oracle and counts keys of each bucket in counters. */
+        abstract void classify(int from, int to, @NotNull int[] counters);
+
+        /** Moves each key of input[from..to-1] to buffer, at next position of its bucket in positions. */
+        abstract void scatter(int from, int to, @NotNull int[] positions);
+
+        /** Moves bucket buffer[from..to-1] back to input and sorts it, if sort is true. */
+        abstract void finish(int from, int to, boolean sort);
+
+    }
+
+    /** Keys of int array. */
+    private static final class IntKeys extends Keys {
+
+        private final int[] input;
+        private final int[] buffer;
+        /** Splitter tree in Eytzinger layout: root at index 1, children of node j at 2j and 2j+1. */
+        private final int[] tree = new int[RANGE_BUCKETS];
+        /** Sorted splitters, last is repeated, so keys of last bucket are never equal to it. */
+        private final int[] splitters = new int[RANGE_BUCKETS];
+
+        IntKeys(@NotNull int[] input) {
+            super(input.length);
+            this.input = input;
+            this.buffer = new int[input.length];
+        }
+
+        @Override
+        void chooseSplitters() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int[] sample = new int[RANGE_BUCKETS * OVERSAMPLING];
+            for (int i = 0; i < sample.length; i++) {
+                sample[i] = input[random.nextInt(input.length)];
+            }
+            QuickSort.sort(sample, 0, sample.length);
+            for (int b = 0; b < RANGE_BUCKETS - 1; b++) {
+                splitters[b] = sample[(b + 1) * OVERSAMPLING];
+            }
+            splitters[RANGE_BUCKETS - 1] = splitters[RANGE_BUCKETS - 2];
+            for (int j = 1; j < RANGE_BUCKETS; j++) {
+                tree[j] = splitters[TREE_ORDER[j]];
+            }
+        }
+
+        @Override
+        void classify(int from, int to, @NotNull int[] counters) {
+            for (int i = from; i < to; i++) {
+                int key = input[i];
+                int j = 1;
+                for (int level = 0; level < BUCKETS_LOG; level++) {
+                    j = 2 * j + (key > tree[j] ? 1 : 0); // compiled to conditional move, no mispredicted branches
+                }
+                j -= RANGE_BUCKETS;
+                int bucket = 2 * j + (key == splitters[j] ? 1 : 0);
+                oracle[i] = (byte) bucket;
+                counters[bucket]++;
+            }
+        }
+
+        @Override
+        void scatter(int from, int to, @NotNull int[] positions) {
+            for (int i = from; i < to; i++) {
+                buffer[positions[oracle[i] & 0xFF]++] = input[i];
+            }
+        }
+
+        @Override
+        void finish(int from, int to, boolean sort) {
+            System.arraycopy(buffer, from, input, from, to - from);
+            if (sort) {
+                QuickSort.sort(input, from, to);
+            }
+        }
+
+    }
+
+    /** Keys of long array. */
+    private static final class LongKeys extends Keys {
+
+        private final long[] input;
+        private final long[] buffer;
+        /** Splitter tree in Eytzinger layout: root at index 1, children of node j at 2j and 2j+1. */
+        private final long[] tree = new long[RANGE_BUCKETS];
+        /** Sorted splitters, last is repeated, so keys of last bucket are never equal to it. */
+        private final long[] splitters = new long[RANGE_BUCKETS];
+
+        LongKeys(@NotNull long[] input) {
+            super(input.length);
+            this.input = input;
+            this.buffer = new long[input.length];
+        }
+
+        @Override
+        void chooseSplitters() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long[] sample = new long[RANGE_BUCKETS * OVERSAMPLING];
+            for (int i = 0; i < sample.length; i++) {
+                sample[i] = input[random.nextInt(input.length)];
+            }
+            LongSort.quickSort(sample, 0, sample.length);
+            for (int b = 0; b < RANGE_BUCKETS - 1; b++) {
+                splitters[b] = sample[(b + 1) * OVERSAMPLING];
+            }
+            splitters[RANGE_BUCKETS - 1] = splitters[RANGE_BUCKETS - 2];
+            for (int j = 1; j < RANGE_BUCKETS; j++) {
+                tree[j] = splitters[TREE_ORDER[j]];
+            }
+        }
+
+        @Override
+        void classify(int from, int to, @NotNull int[] counters) {
+            for (int i = from; i < to; i++) {
+                long key = input[i];
+                int j = 1;
+                for (int level = 0; level < BUCKETS_LOG; level++) {
+                    j = 2 * j + (key > tree[j] ? 1 : 0);
+                }
+                j -= RANGE_BUCKETS;
+                int bucket = 2 * j + (key == splitters[j] ? 1 : 0);
+                oracle[i] = (byte) bucket;
+                counters[bucket]++;
+            }
+        }
+
+        @Override
+        void scatter(int from, int to, @NotNull int[] positions) {
+            for (int i = from; i < to; i++) {
+                buffer[positions[oracle[i] & 0xFF]++] = input[i];
+            }
+        }
+
+        @Override
+        void finish(int from, int to, boolean sort) {
+            System.arraycopy(buffer, from, input, from, to - from);
+            if (sort) {
+                LongSort.quickSort(input, from, to);
+            }
+        }
+
+    }
+
+    /** Fork-join task of parallel sample sort, runs phases of sort and waits for tasks of each phase. */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class SortTask extends RecursiveAction {
+
+        private final Keys keys;
+        private final int parallelism;
+
+        SortTask(@NotNull Keys keys, int parallelism) {
+            this.keys = keys;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            int size = keys.size();
+            keys.chooseSplitters();
+
+            int chunks = Math.max(1, Math.min(parallelism * CHUNKS_PER_WORKER, size / MIN_CHUNK_SIZE));
+            int[][] counters = new int[chunks][BUCKETS];
+            List<ChunkTask> chunkTasks = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                chunkTasks.add(new ChunkTask(keys, counters[chunk],
+                        (int) ((long) size * chunk / chunks), (int) ((long) size * (chunk + 1) / chunks)));
+            }
+            invokeAll(chunkTasks);
+
+            // bucket b of each chunk is placed after bucket b of earlier chunks and before bucket b + 1
+            int[] bucketStarts = new int[BUCKETS + 1];
+            for (int b = 0, pos = 0; b < BUCKETS; b++) {
+                bucketStarts[b] = pos;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int tmp = counters[chunk][b];
+                    counters[chunk][b] = pos;
+                    pos += tmp;
+                }
+            }
+            bucketStarts[BUCKETS] = size;
+
+            for (ChunkTask task : chunkTasks) {
+                task.reinitialize();
+                task.scatter = true;
+            }
+            invokeAll(chunkTasks);
+
+            List<BucketTask> bucketTasks = new ArrayList<>(BUCKETS);
+            for (int b = 0; b < BUCKETS; b++) {
+                if (bucketStarts[b] < bucketStarts[b + 1]) {
+                    // odd buckets contain keys equal to splitter, they are already sorted
+                    bucketTasks.add(new BucketTask(keys, bucketStarts[b], bucketStarts[b + 1], (b & 1) == 0));
+                }
+            }
+            invokeAll(bucketTasks);
+        }
+
+    }
+
+    /** Fork-join task of parallel sample sort, processing chunk input[from..to-1].
+     * Classifies keys of chunk into counters at first run and scatters keys of chunk to buffer at second run.
+     */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class ChunkTask extends RecursiveAction {
+
+        private final Keys keys;
+        private final int[] counters;
+        private final int from;
+        private final int to;
+        /** False == classify keys, true == scatter keys to positions in counters. */
+        private boolean scatter;
+
+        ChunkTask(@NotNull Keys keys, @NotNull int[] counters, int from, int to) {
+            this.keys = keys;
+            this.counters = counters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (scatter) {
+                keys.scatter(from, to, counters);
+            } else {
+                keys.classify(from, to, counters);
+            }
+        }
+
+    }
+
+    /** Fork-join task of parallel sample sort, which moves bucket buffer[from..to-1] back to input and sorts it. */
+    @SuppressWarnings("serial") // fork-join tasks are never serialized
+    private static class BucketTask extends RecursiveAction {
+
+        private final Keys keys;
+        private final int from;
+        private final int to;
+        private final boolean sort;
+
+        BucketTask(@NotNull Keys keys, int from, int to, boolean sort) {
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+            this.sort = sort;
+        }
+
+        @Override
+        protected void compute() {
+            keys.finish(from, to, sort);
+        }
+
+    }
+
+}
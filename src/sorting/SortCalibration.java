@@ -0,0 +1,208 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/** This class calibrating leaf sorts of sorters (see SortProfile) on current hardware and JVM.
+ * Each candidate (sorter, cutoff size, leaf algorithm) sorts same random array, candidates are run round-robin until
+ * time budget is spent, so JIT compilation and noise affect all of them evenly. Fastest run of each candidate is its
+ * result, fastest candidate of each sorter is written to profile, if it is notably faster than default cutoff.
+ * Run from command line: java sorting.SortCalibration profile-file [budget-millis]
+ */
+final class SortCalibration {
+
+    /** Defines size of arrays sorted by candidates, large enough to have many leaves, small enough for many runs. */
+    private static final int SAMPLE_SIZE = 1 << 12;
+    /** Candidate cutoff sizes of quick sorts. */
+    private static final int[] QUICK_SIZES = { 8, 16, 24, 32, 48, 64, 100, SortProfile.MAX_INSERTION_SIZE };
+    /** Candidate cutoff sizes of merge sorts. Bottom-up merge sort sorts leaves of power of two sizes only. */
+    private static final int[] MERGE_SIZES = { 4, 8, 16, 32, 64 };
+    /** Defines how much faster in percent than default cutoff a candidate must be to replace it, so noise of
+     * measurements does not replace default with equally fast cutoff.
+     */
+    private static final int MIN_GAIN_PERCENT = 2;
+    /** Defines default time budget of calibration from command line in milliseconds. */
+    private static final int COMMAND_LINE_MILLIS = 2000;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Each calibration uses own arrays and candidates.
+
+    private SortCalibration() {
+        throw new RuntimeException("SortCalibration is noninstantiable");
+    }
+
+    /** Calibrates leaf sorts and writes profile file.
+     * Arguments: path of profile file and optional time budget in milliseconds (default COMMAND_LINE_MILLIS).
+     *
+     * @param args Command line arguments
+     *
+     * @throws IOException if profile file can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: java sorting.SortCalibration profile-file [budget-millis]");
+            return;
+        }
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : COMMAND_LINE_MILLIS;
+        Properties profile = calibrate(budget * 1_000_000L);
+        SortProfile.save(profile, Paths.get(args[0]));
+        for (SortProfile.Sorter sorter : SortProfile.Sorter.values()) {
+            System.out.println(sorter.key + ": " + sorter.cutoff(profile) + " (default " + sorter.defaultCutoff + ")");
+        }
+    }
+
+    /** Measures candidate leaf sorts of all sorters within time budget and returns best of them.
+     * Sorters with no measured candidates (too small budget) keep default cutoffs. Uses sorters with explicit
+     * cutoffs only, so it can run during initialization of SortProfile.
+     *
+     * @param budgetNanos Time budget in nanoseconds, calibration returns shortly after it is spent
+     *
+     * @return profile with cutoff of each sorter
+     */
+    static @NotNull Properties calibrate(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        List<Candidate> candidates = candidates(!(SortKernels.KERNEL instanceof SortKernels.Scalar));
+        Random random = new Random(SAMPLE_SIZE);
+        int[] ints = random.ints(SAMPLE_SIZE).toArray();
+        long[] longs = random.longs(SAMPLE_SIZE).toArray();
+        int[] intWork = new int[SAMPLE_SIZE];
+        long[] longWork = new long[SAMPLE_SIZE];
+
+        while (System.nanoTime() < deadline) {
+            for (Candidate candidate : candidates) {
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+                System.arraycopy(ints, 0, intWork, 0, SAMPLE_SIZE);
+                System.arraycopy(longs, 0, longWork, 0, SAMPLE_SIZE);
+                long start = System.nanoTime();
+                candidate.sort(intWork, longWork);
+                long nanos = System.nanoTime() - start;
+                if (candidate.best == Long.MAX_VALUE) {
+                    candidate.check(intWork, longWork); // each candidate is checked once
+                }
+                candidate.best = Math.min(candidate.best, nanos);
+            }
+        }
+
+        Properties profile = new Properties();
+        for (SortProfile.Sorter sorter : SortProfile.Sorter.values()) {
+            sorter.write(profile, best(sorter, candidates));
+        }
+        return profile;
+    }
+
+    /** Returns candidates of all sorters, KERNEL leaf sorts only if kernels are vectorized. */
+    private static @NotNull List<Candidate> candidates(boolean vectorized) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (SortProfile.Sorter sorter : SortProfile.Sorter.values()) {
+            boolean quick = sorter == SortProfile.Sorter.QUICK_INT || sorter == SortProfile.Sorter.QUICK_LONG;
+            for (int size : quick ? QUICK_SIZES : MERGE_SIZES) {
+                for (SortProfile.Leaf leaf : SortProfile.Leaf.values()) {
+                    if (sorter.isValid(size, leaf) && (leaf == SortProfile.Leaf.INSERTION || vectorized)) {
+                        candidates.add(new Candidate(sorter, new SortProfile.Cutoff(size, leaf)));
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /** Returns fastest measured cutoff of sorter, or its default cutoff if it is not measured or not notably slower.
+     *
+     * @param sorter Sorter
+     * @param candidates All candidates, default cutoff of each sorter is one of them
+     *
+     * @return cutoff for profile
+     */
+    private static @NotNull SortProfile.Cutoff best(@NotNull SortProfile.Sorter sorter,
+                                                    @NotNull List<Candidate> candidates) {
+        Candidate fastest = null;
+        long defaultBest = Long.MAX_VALUE;
+        for (Candidate candidate : candidates) {
+            if (candidate.sorter == sorter) {
+                if (fastest == null || candidate.best < fastest.best) {
+                    fastest = candidate;
+                }
+                if (candidate.cutoff.equals(sorter.defaultCutoff)) {
+                    defaultBest = candidate.best;
+                }
+            }
+        }
+        if (fastest == null || defaultBest == Long.MAX_VALUE
+                || fastest.best * (100 + MIN_GAIN_PERCENT) > defaultBest * 100) {
+            return sorter.defaultCutoff;
+        }
+        return fastest.cutoff;
+    }
+
+    /** Leaf sort of a sorter, measured by calibration. */
+    private static final class Candidate {
+
+        private final SortProfile.Sorter sorter;
+        private final SortProfile.Cutoff cutoff;
+        /** Fastest run in nanoseconds, Long.MAX_VALUE == not measured. */
+        private long best = Long.MAX_VALUE;
+
+        Candidate(@NotNull SortProfile.Sorter sorter, @NotNull SortProfile.Cutoff cutoff) {
+            this.sorter = sorter;
+            this.cutoff = cutoff;
+        }
+
+        /** Sorts array of element type of sorter with sorter and cutoff of this candidate. */
+        void sort(@NotNull int[] ints, @NotNull long[] longs) {
+            switch (sorter) {
+                case QUICK_INT:
+                    QuickSort.sort(ints, 0, ints.length, cutoff);
+                    break;
+                case MERGE_INT:
+                    MergeSort.sort(ints, cutoff);
+                    break;
+                case QUICK_LONG:
+                    LongSort.quickSort(longs, 0, longs.length, cutoff);
+                    break;
+                default:
+                    LongSort.mergeSort(longs, cutoff);
+                    break;
+            }
+        }
+
+        /** Checks that array of element type of sorter is sorted. */
+        void check(@NotNull int[] ints, @NotNull long[] longs) {
+            boolean isInts = sorter == SortProfile.Sorter.QUICK_INT || sorter == SortProfile.Sorter.MERGE_INT;
+            boolean sorted = isInts ? isSorted(ints) : isSorted(longs);
+            if (!sorted) {
+                throw new IllegalStateException("Error @ SortCalibration.calibrate() :: array is not sorted by "
+                        + sorter.key + " with cutoff " + cutoff);
+            }
+        }
+
+        private static boolean isSorted(@NotNull int[] input) {
+            for (int i = 1; i < input.length; i++) {
+                if (input[i - 1] > input[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isSorted(@NotNull long[] input) {
+            for (int i = 1; i < input.length; i++) {
+                if (input[i - 1] > input[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+/** Kernels of quick sort: sort of small leaf parts and partition. Implementations are chosen at startup by
+ * SortKernels: vectorized, if Vector API is available, and scalar otherwise.
+ */
+interface SortKernel {
+
+    /** Defines maximal size of part, that can be sorted with sort(int[], int, int). */
+    int LEAF_SIZE = 64;
+
+    /** Sorts part of input from index left to index right, right - left must be <= LEAF_SIZE.
+     *
+     * @param input Array of ints
+     * @param left Left index (from, included), must be >= 0 && <= right
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    void sort(@NotNull int[] input, int left, int right);
+
+    /** Performs partition of input[left..right-1] around pivot input[right-1], see QuickSort.partition for contract.
+     *
+     * @param input Array of ints for partitioning
+     * @param left Left index (from, included), must be >= 0 && < (right - 1)
+     * @param right Right index (to, excluded), must be <= input.length
+     *
+     * @return leftTo and rightFrom, packed in one long as (leftTo << 32 | rightFrom)
+     */
+    long partition(@NotNull int[] input, int left, int right);
+
+}
@@ -0,0 +1,61 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+/** This class chooses kernels of quick sort at startup. Vectorized kernels (VectorSortKernel in optional source root
+ * src-vector) are loaded by name, because they need JDK 16+ with module jdk.incubator.vector (--add-modules
+ * jdk.incubator.vector), while the rest of package is compiled for Java 8. If class or module is missing, or hardware
+ * has no 256-bit vectors, or -Dsorting.vector=false is set, scalar kernels are used.
+ */
+final class SortKernels {
+
+    /** Name of class of vectorized kernels. */
+    private static final String VECTOR_KERNEL = "sorting.VectorSortKernel";
+
+    /** Kernels, chosen at startup. */
+    static final SortKernel KERNEL = load();
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Kernels are stateless or use thread local scratch arrays.
+
+    private SortKernels() {
+        throw new RuntimeException("SortKernels is noninstantiable");
+    }
+
+    /** Returns vectorized kernels, if they can be loaded, scalar kernels otherwise. */
+    private static @NotNull SortKernel load() {
+        if (Boolean.parseBoolean(System.getProperty("sorting.vector", "true"))) {
+            try {
+                return (SortKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                // no Vector API in this runtime, falls back to scalar kernels
+            }
+        }
+        return new Scalar();
+    }
+
+    /** Scalar kernels: insertion sort and Hoare's partition. Scalar sorting network was measured slower than insertion
+     * sort on leaves of this size, it pays off only when compare-exchanges are done on whole vectors.
+     */
+    static final class Scalar implements SortKernel {
+
+        @Override
+        public void sort(@NotNull int[] input, int left, int right) {
+            InsertionSort.sort(input, left, right);
+        }
+
+        @Override
+        public long partition(@NotNull int[] input, int left, int right) {
+            int part = QuickSort.partitionHoare(input, left, right);
+            return (long) part << Integer.SIZE | part;
+        }
+
+        @Override
+        public String toString() {
+            return "scalar";
+        }
+
+    }
+}
@@ -0,0 +1,313 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** This class collecting operation counters and timing of sorting calls, opt-in with -Dsorting.metrics=true.
+ * Sorters call static hooks (begin, end, comparisons, moves, ...). Each hook starts with check of ENABLED, which is
+ * static final, so when metrics are disabled JIT folds the check and removes hooks with their arguments: instrumented
+ * code is compiled same as without hooks.
+ * When enabled, counters are collected in thread local recorder. Nested calls (for example Sorts.sort calling
+ * QuickSort.sort, which falls back to HeapSort) are accumulated into one record of the outermost call, which is
+ * passed to sink at its end. Work of fork-join tasks, running in other threads, is not counted.
+ */
+public final class SortMetrics {
+
+    /** True == metrics are collected, set by system property sorting.metrics at startup. */
+    public static final boolean ENABLED = Boolean.getBoolean("sorting.metrics");
+
+    /** Name of class of sink, emitting JFR events. */
+    private static final String JFR_SINK = "sorting.JfrSortSink";
+
+    /** Recorder of each thread. */
+    private static final ThreadLocal<Recorder> RECORDER = ThreadLocal.withInitial(Recorder::new);
+
+    /** Sink receiving records, null == records are dropped. */
+    private static volatile Sink sink;
+
+    /** Special paths taken by sorters. */
+    public enum Fallback {
+        /** Small part is sorted with insertion sort (or sorting network), instead of further partitioning. */
+        INSERTION_CUTOFF,
+        /** Quick sort recursion is too deep, part is sorted with heap sort. */
+        HEAP_SORT
+    }
+
+    /** Receiver of records of sorting calls. Called in thread, that made sorting call, must be thread safe. */
+    public interface Sink {
+
+        /** Called at start of outermost sorting call, before any work is done.
+         *
+         * @param algorithm Name of sorting algorithm
+         * @param size Number of elements to sort
+         */
+        default void started(@NotNull String algorithm, int size) {
+        }
+
+        /** Called at end of outermost sorting call.
+         *
+         * @param record Counters and time of the call
+         */
+        void accept(@NotNull Record record);
+    }
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Each thread collects counters into own recorder, sink is volatile and must be thread safe itself.
+
+    private SortMetrics() {
+        throw new RuntimeException("SortMetrics is noninstantiable");
+    }
+
+    /** Sets sink, receiving records of sorting calls. Has no effect on collecting, if metrics are disabled.
+     *
+     * @param newSink Sink, or null for dropping records
+     */
+    public static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+
+    /** Returns sink, that commits JFR event sorting.Sort for each record. Event spans the sorting call, so it can be
+     * correlated with GC and CPU events in flight recording.
+     * JFR sink is loaded by name, because jdk.jfr is not available on all Java 8 runtimes.
+     *
+     * @return JFR sink
+     *
+     * @throws UnsupportedOperationException if JFR is not available in this runtime
+     */
+    public static @NotNull Sink jfrSink() {
+        try {
+            return (Sink) Class.forName(JFR_SINK).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new UnsupportedOperationException("Error @ SortMetrics.jfrSink() :: JFR is not available == " + e, e);
+        }
+    }
+
+    /** Returns comparator, that counts comparisons of sorting calls into metrics and delegates to comparator.
+     * Object sorts can not count comparisons themselves without slowing down, so their callers may wrap comparator.
+     *
+     * @param comparator Comparator, defining order of objects
+     * @param <T> Type of objects
+     *
+     * @return counting comparator, or comparator itself if metrics are disabled
+     */
+    public static @NotNull <T> Comparator<T> counting(@NotNull Comparator<T> comparator) {
+        if (!ENABLED) {
+            return comparator;
+        }
+        return (a, b) -> {
+            comparisons(1);
+            return comparator.compare(a, b);
+        };
+    }
+
+    /** Starts sorting call. Must be paired with end() in finally block of try, that follows begin().
+     * Call is entered only after sink returns from started(), so if sink throws, nothing is left to end.
+     *
+     * @param algorithm Name of sorting algorithm
+     * @param size Number of elements to sort
+     */
+    static void begin(@NotNull String algorithm, int size) {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level == 0) {
+                recorder.reset(algorithm, size);
+                Sink current = sink;
+                if (current != null) {
+                    current.started(algorithm, size);
+                }
+                recorder.start = System.nanoTime();
+            }
+            recorder.level++;
+        }
+    }
+
+    /** Ends sorting call, passes record to sink if this is end of outermost call. */
+    static void end() {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (--recorder.level == 0) {
+                long nanos = System.nanoTime() - recorder.start;
+                Sink current = sink;
+                if (current != null) {
+                    current.accept(new Record(recorder, nanos));
+                }
+            }
+        }
+    }
+
+    /** Records strategy picked for current call, first picked strategy is kept. */
+    static void strategy(@NotNull String strategy) {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0 && recorder.strategy == null) {
+                recorder.strategy = strategy;
+            }
+        }
+    }
+
+    /** Adds count to comparisons of elements in current call. */
+    static void comparisons(long count) {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0) {
+                recorder.comparisons += count;
+            }
+        }
+    }
+
+    /** Adds count to swaps of two elements in current call. */
+    static void swaps(long count) {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0) {
+                recorder.swaps += count;
+            }
+        }
+    }
+
+    /** Adds count to moves (writes) of single elements in current call. */
+    static void moves(long count) {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0) {
+                recorder.moves += count;
+            }
+        }
+    }
+
+    /** Adds bytes of buffers allocated by current call. */
+    static void allocated(long bytes) {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0) {
+                recorder.bytesAllocated += bytes;
+            }
+        }
+    }
+
+    /** Enters one level of recursion, must be paired with exit(). */
+    static void enter() {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0) {
+                recorder.maxDepth = Math.max(recorder.maxDepth, ++recorder.depth);
+            }
+        }
+    }
+
+    /** Exits one level of recursion. */
+    static void exit() {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0) {
+                recorder.depth--;
+            }
+        }
+    }
+
+    /** Records that fallback path was taken in current call. */
+    static void fallback(@NotNull Fallback fallback) {
+        if (ENABLED) {
+            Recorder recorder = RECORDER.get();
+            if (recorder.level > 0) {
+                recorder.fallbacks[fallback.ordinal()]++;
+            }
+        }
+    }
+
+    /** Counters and time of one outermost sorting call, immutable. */
+    public static final class Record {
+
+        /** Name of sorting algorithm, called by user. */
+        public final String algorithm;
+        /** Strategy picked by algorithm (for example by Sorts.sort), or null. */
+        public final String strategy;
+        /** Number of elements to sort. */
+        public final int size;
+        /** Number of comparisons of elements (for partitions: number of elements compared with pivot). */
+        public final long comparisons;
+        /** Number of swaps of two elements. */
+        public final long swaps;
+        /** Number of moves (writes) of single elements, including moves to and from buffers. */
+        public final long moves;
+        /** Bytes of buffers, allocated by sorting call. */
+        public final long bytesAllocated;
+        /** Maximal depth of recursion. */
+        public final int maxDepth;
+        /** Wall time of sorting call in nanoseconds. */
+        public final long nanos;
+        /** Number of times each fallback was taken, indexed by ordinal. */
+        private final long[] fallbacks;
+
+        private Record(@NotNull Recorder recorder, long nanos) {
+            this.algorithm = recorder.algorithm;
+            this.strategy = recorder.strategy;
+            this.size = recorder.size;
+            this.comparisons = recorder.comparisons;
+            this.swaps = recorder.swaps;
+            this.moves = recorder.moves;
+            this.bytesAllocated = recorder.bytesAllocated;
+            this.maxDepth = recorder.maxDepth;
+            this.nanos = nanos;
+            this.fallbacks = recorder.fallbacks.clone();
+        }
+
+        /** Returns number of times fallback was taken. */
+        public long fallbacks(@NotNull Fallback fallback) {
+            return fallbacks[fallback.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(algorithm);
+            if (strategy != null) {
+                builder.append('(').append(strategy).append(')');
+            }
+            builder.append(" size=").append(size).append(" comparisons=").append(comparisons)
+                    .append(" swaps=").append(swaps).append(" moves=").append(moves)
+                    .append(" bytesAllocated=").append(bytesAllocated).append(" maxDepth=").append(maxDepth)
+                    .append(" nanos=").append(nanos);
+            for (Fallback fallback : Fallback.values()) {
+                builder.append(' ').append(fallback).append('=').append(fallbacks(fallback));
+            }
+            return builder.toString();
+        }
+    }
+
+    /** Mutable counters of current call of one thread. */
+    private static final class Recorder {
+
+        /** Nesting of sorting calls, 0 == no call in progress. */
+        private int level;
+        private String algorithm;
+        private String strategy;
+        private int size;
+        private long comparisons;
+        private long swaps;
+        private long moves;
+        private long bytesAllocated;
+        private int depth;
+        private int maxDepth;
+        private long start;
+        private final long[] fallbacks = new long[Fallback.values().length];
+
+        /** Clears counters for new outermost call. */
+        private void reset(@NotNull String algorithm, int size) {
+            this.algorithm = algorithm;
+            this.strategy = null;
+            this.size = size;
+            comparisons = 0;
+            swaps = 0;
+            moves = 0;
+            bytesAllocated = 0;
+            depth = 0;
+            maxDepth = 0;
+            Arrays.fill(fallbacks, 0);
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/** This class holding leaf sorts of sorters: size of parts, that are sorted with leaf sort instead of partitioning or
+ * merging, and the leaf algorithm. Defaults are fixed, measured values are loaded at startup from profile file,
+ * set by -Dsorting.profile=path, which is written by SortCalibration.
+ * With -Dsorting.calibrate=true and missing profile file, calibration runs once at startup within time budget
+ * -Dsorting.calibrate.millis (default CALIBRATION_MILLIS) and its result is saved to profile file for later JVMs.
+ * Sorters get cutoff as parameter and read Cutoff.size, an instance field, at each leaf check, so JIT does not fold
+ * it into a constant, it costs a field load per partition or merge pass. Sorters never keep own copies of cutoffs,
+ * so calibration running inside initialization of this class can use sorters with explicit cutoffs.
+ */
+final class SortProfile {
+
+    /** Name of system property with path of profile file. */
+    static final String PROFILE_PROPERTY = "sorting.profile";
+    /** Name of system property, that enables calibration at startup, when profile file is missing. */
+    static final String CALIBRATE_PROPERTY = "sorting.calibrate";
+    /** Name of system property with time budget of calibration at startup in milliseconds. */
+    static final String BUDGET_PROPERTY = "sorting.calibrate.millis";
+    /** Defines default time budget of calibration at startup in milliseconds. */
+    static final int CALIBRATION_MILLIS = 250;
+    /** Defines maximal cutoff size of insertion leaf sort, largest size measured by calibration. */
+    static final int MAX_INSERTION_SIZE = 128;
+
+    /** Leaf sort of quick sort of ints. */
+    static final Cutoff QUICK_INT;
+    /** Leaf sort of merge sort of ints. */
+    static final Cutoff MERGE_INT;
+    /** Leaf sort of quick sort of longs. */
+    static final Cutoff QUICK_LONG;
+    /** Leaf sort of merge sort of longs. */
+    static final Cutoff MERGE_LONG;
+
+    static {
+        Properties profile = loadOrCalibrate();
+        QUICK_INT = Sorter.QUICK_INT.cutoff(profile);
+        MERGE_INT = Sorter.MERGE_INT.cutoff(profile);
+        QUICK_LONG = Sorter.QUICK_LONG.cutoff(profile);
+        MERGE_LONG = Sorter.MERGE_LONG.cutoff(profile);
+    }
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static) and cutoffs are immutable.
+    //      Noninstantiability is enforced with private constructor.
+    //      Profile is loaded (or calibrated) in class initialization, which JVM runs once, other threads wait for it.
+
+    private SortProfile() {
+        throw new RuntimeException("SortProfile is noninstantiable");
+    }
+
+    /** Leaf sort algorithms. */
+    enum Leaf {
+        /** Insertion sort. */
+        INSERTION,
+        /** Leaf sort of SortKernels: vectorized sorting network, if Vector API is available, for ints only. */
+        KERNEL
+    }
+
+    /** Sorters with calibrated leaf sort, key of each sorter is prefix of its entries in profile file. */
+    enum Sorter {
+        /** QuickSort of ints. */
+        QUICK_INT("quick.int", 100, true),
+        /** MergeSort of ints, bottom-up sort uses largest power of two <= cutoff. */
+        MERGE_INT("merge.int", 16, true),
+        /** LongSort.quickSort, also used by quick sorts of other primitive types except int. */
+        QUICK_LONG("quick.long", 100, false),
+        /** LongSort.mergeSort, also used by merge sorts of other primitive types except int. */
+        MERGE_LONG("merge.long", 16, false);
+
+        /** Prefix of entries in profile file. */
+        final String key;
+        /** Cutoff, used when profile has no valid entry. */
+        final Cutoff defaultCutoff;
+        /** True == sorter can use KERNEL leaf sort. */
+        final boolean kernels;
+
+        Sorter(@NotNull String key, int defaultSize, boolean kernels) {
+            this.key = key;
+            this.defaultCutoff = new Cutoff(defaultSize, Leaf.INSERTION);
+            this.kernels = kernels;
+        }
+
+        /** Returns cutoff of this sorter from profile, or default cutoff if profile is null or its entry is invalid. */
+        @NotNull Cutoff cutoff(Properties profile) {
+            if (profile == null) {
+                return defaultCutoff;
+            }
+            try {
+                int size = Integer.parseInt(profile.getProperty(key + ".cutoff", "").trim());
+                Leaf leaf = Leaf.valueOf(profile.getProperty(key + ".leaf", Leaf.INSERTION.name()).trim());
+                return isValid(size, leaf) ? new Cutoff(size, leaf) : defaultCutoff;
+            } catch (IllegalArgumentException e) {
+                return defaultCutoff; // missing or malformed entry, NumberFormatException is IllegalArgumentException
+            }
+        }
+
+        /** Returns true if this sorter can use leaf sort of size with leaf algorithm. */
+        boolean isValid(int size, @NotNull Leaf leaf) {
+            return size >= 1 && size <= (leaf == Leaf.KERNEL ? SortKernel.LEAF_SIZE : MAX_INSERTION_SIZE)
+                    && (leaf == Leaf.INSERTION || kernels);
+        }
+
+        /** Writes cutoff of this sorter into profile. */
+        void write(@NotNull Properties profile, @NotNull Cutoff cutoff) {
+            profile.setProperty(key + ".cutoff", Integer.toString(cutoff.size));
+            profile.setProperty(key + ".leaf", cutoff.leaf.name());
+        }
+    }
+
+    /** Leaf sort of a sorter: parts up to size elements are sorted with leaf algorithm. Immutable. */
+    static final class Cutoff {
+
+        /** Maximal size of part, that is sorted with leaf sort, >= 1. */
+        final int size;
+        /** Leaf sort algorithm. */
+        final Leaf leaf;
+
+        Cutoff(int size, @NotNull Leaf leaf) {
+            this.size = size;
+            this.leaf = leaf;
+        }
+
+        /** Sorts input[left..right-1] with leaf algorithm, right - left must be <= size. */
+        void sort(@NotNull int[] input, int left, int right) {
+            if (leaf == Leaf.KERNEL) {
+                SortKernels.KERNEL.sort(input, left, right);
+            } else {
+                InsertionSort.sort(input, left, right);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Cutoff && ((Cutoff) other).size == size && ((Cutoff) other).leaf == leaf;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * size + leaf.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return size + " " + leaf;
+        }
+
+    }
+
+    /** Loads profile file, set by PROFILE_PROPERTY. If file is missing and calibration is enabled, calibrates
+     * sorters and saves profile. Errors of reading or writing profile are ignored, defaults are used instead.
+     *
+     * @return profile, or null if there is no profile
+     */
+    private static Properties loadOrCalibrate() {
+        String path = System.getProperty(PROFILE_PROPERTY);
+        Path file = path == null || path.isEmpty() ? null : Paths.get(path);
+        try {
+            if (file != null && Files.isRegularFile(file)) {
+                return load(file);
+            }
+            if (Boolean.getBoolean(CALIBRATE_PROPERTY)) {
+                Properties profile = SortCalibration.calibrate(
+                        Integer.getInteger(BUDGET_PROPERTY, CALIBRATION_MILLIS) * 1_000_000L);
+                if (file != null) {
+                    try {
+                        save(profile, file);
+                    } catch (IOException e) {
+                        // profile is used by this JVM only, next JVM calibrates again
+                    }
+                }
+                return profile;
+            }
+        } catch (IOException | RuntimeException e) {
+            // profile can not be read or written, sorters use defaults
+        }
+        return null;
+    }
+
+    /** Reads profile file.
+     *
+     * @param file Path of profile file
+     *
+     * @return entries of profile
+     *
+     * @throws IOException if file can not be read
+     */
+    static @NotNull Properties load(@NotNull Path file) throws IOException {
+        Properties profile = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            profile.load(in);
+        }
+        return profile;
+    }
+
+    /** Writes profile file, replacing existing file. Profile is written to temporary file in same directory, which
+     * then atomically replaces profile file, so concurrent JVMs never read partially written profile.
+     *
+     * @param profile Entries of profile
+     * @param file Path of profile file
+     *
+     * @throws IOException if file can not be written
+     */
+    static void save(@NotNull Properties profile, @NotNull Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                profile.store(out, "Leaf sorts of sorting package, calibrated on " + System.getProperty("os.arch")
+                        + ", " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+}
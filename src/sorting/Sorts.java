@@ -0,0 +1,170 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+import java.util.concurrent.ForkJoinPool;
+
+/** This class is entry point of sorting package: it picks sorting algorithm for input by its properties and sorts
+ * input with it, modifying input array such as for each i, input[i] <= input[i+1].
+ */
+public final class Sorts {
+
+    /** Defines maximal size of array, that is sorted with insertion sort. */
+    private static final int INSERTION_THRESHOLD = 32;
+    /** Defines minimal average length of natural runs, when input is sorted with adaptive merge sort. */
+    private static final int ADAPTIVE_RUN_LENGTH = 64;
+    /** Defines minimal size of array, that is sorted with radix sort, when keys are in narrow range. */
+    private static final int RADIX_THRESHOLD = 1 << 12;
+    /** Defines maximal range of keys, that is sorted with radix sort: at most 4 passes, keys vary in 3 lowest digits,
+     * and in the highest digit too, when range straddles its boundary (such as zero). */
+    private static final long RADIX_RANGE = 1L << 24;
+    /** Defines minimal size of array, that is sorted with parallel quick sort. */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /** Sorting algorithms, picked by sort(int[] input). */
+    public enum Strategy {
+        /** Insertion sort, used for tiny arrays. */
+        INSERTION,
+        /** Counting sort, used when range of keys is not greater than size of array. */
+        COUNTING,
+        /** LSD radix sort, used for large arrays with keys in narrow range. */
+        RADIX,
+        /** TimSort, used for nearly sorted arrays, made of long natural runs. */
+        ADAPTIVE_MERGE,
+        /** Quick sort, used for other arrays. */
+        QUICK,
+        /** Parallel quick sort, used for other large arrays, when common pool has more than one thread. */
+        PARALLEL_QUICK
+    }
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      Statistics are created for each call and are not shared between threads.
+
+    private Sorts() {
+        throw new RuntimeException("Sorts is noninstantiable");
+    }
+
+    /** Sorts input array, using algorithm picked by properties of input.
+     * One pass over input finds minimum, maximum and number of natural runs, share of duplicates is estimated from
+     * a small sample. Then:
+     *  - tiny arrays are sorted with insertion sort,
+     *  - arrays with range of keys not greater than size are sorted with counting sort,
+     *  - arrays with long natural runs (nearly sorted, backwards sorted, appended sorted batches) with TimSort,
+     *  - large arrays with keys in narrow range (up to 2^24) and few duplicates with radix sort,
+     *  - other arrays with quick sort, parallel for large arrays.
+     * Complexity: O(n) for choice, O(n log(n)) for sort
+     *
+     * @param input Array of ints
+     *
+     * @return strategy used for sorting input
+     */
+    public static @NotNull Strategy sort(@NotNull int[] input) {
+        SortMetrics.begin("Sorts", input == null ? 0 : input.length);
+        try {
+            Strategy strategy = sortWithStrategy(input);
+            SortMetrics.strategy(strategy.name());
+            return strategy;
+        } finally {
+            SortMetrics.end();
+        }
+    }
+
+    /** Picks strategy for input and sorts it, see sort(int[] input). */
+    private static @NotNull Strategy sortWithStrategy(int[] input) {
+        if (input == null || input.length <= INSERTION_THRESHOLD) {
+            if (input != null) {
+                InsertionSort.sort(input);
+            }
+            return Strategy.INSERTION;
+        }
+
+        Statistics statistics = new Statistics(input);
+        Strategy strategy = choose(input.length, statistics, ForkJoinPool.getCommonPoolParallelism());
+        switch (strategy) {
+            case COUNTING:
+                CountingSort.sort(input, statistics.min, statistics.max);
+                break;
+            case RADIX:
+                RadixSort.sort(input);
+                break;
+            case ADAPTIVE_MERGE:
+                TimSort.sort(input);
+                break;
+            case PARALLEL_QUICK:
+                QuickSort.parallelSort(input);
+                break;
+            default:
+                QuickSort.sort(input);
+                break;
+        }
+        return strategy;
+    }
+
+    /** Picks sorting algorithm for array.
+     *
+     * @param size Size of array, must be > INSERTION_THRESHOLD
+     * @param statistics Statistics of array
+     * @param parallelism Parallelism of common fork-join pool
+     *
+     * @return strategy for sorting array
+     */
+    static @NotNull Strategy choose(int size, @NotNull Statistics statistics, int parallelism) {
+        long range = (long) statistics.max - statistics.min + 1;
+        if (range <= size) {
+            return Strategy.COUNTING;
+        }
+        if (statistics.runs <= size / ADAPTIVE_RUN_LENGTH) {
+            return Strategy.ADAPTIVE_MERGE;
+        }
+        if (size >= RADIX_THRESHOLD && range <= RADIX_RANGE && statistics.duplicates < DuplicatesSample.THRESHOLD) {
+            return Strategy.RADIX;
+        }
+        return size >= PARALLEL_THRESHOLD && parallelism > 1 ? Strategy.PARALLEL_QUICK : Strategy.QUICK;
+    }
+
+    /** Properties of array, used for choosing sorting algorithm. */
+    static final class Statistics {
+
+        /** Minimal element of array. */
+        final int min;
+        /** Maximal element of array. */
+        final int max;
+        /** Number of natural runs (ascending or strictly descending), same as TimSort would find without extending. */
+        final int runs;
+        /** Number of equal neighbours in sorted sample of DuplicatesSample.SIZE elements. */
+        final int duplicates;
+
+        /** Computes statistics of input, making one pass over it.
+         *
+         * @param input Array of ints, must be not empty
+         */
+        Statistics(@NotNull int[] input) {
+            int min = input[0];
+            int max = input[0];
+            int runs = 1;
+            int direction = 0; // 0 == run has one element, 1 == ascending run, -1 == descending run
+            for (int i = 1; i < input.length; i++) {
+                int previous = input[i - 1];
+                int current = input[i];
+                if (current < min) {
+                    min = current;
+                } else if (current > max) {
+                    max = current;
+                }
+                if (direction == 0) {
+                    direction = current < previous ? -1 : 1;
+                } else if (direction > 0 ? current < previous : current >= previous) {
+                    runs++;
+                    direction = 0;
+                }
+            }
+            this.min = min;
+            this.max = max;
+            this.runs = runs;
+
+            this.duplicates = DuplicatesSample.count(input);
+        }
+    }
+}
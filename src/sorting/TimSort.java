@@ -0,0 +1,474 @@
+package sorting;
+
+import com.sun.istack.internal.NotNull;
+
+/** This class implementing adaptive natural merge sort (TimSort), modifying input array such as for each i,
+ * input[i] <= input[i+1].
+ */
+class TimSort {
+
+    /** Defines size of array when TimSort uses only binary insertion sort, also maximal minimal run length. */
+    private static final int MIN_MERGE = 32;
+    /** Defines initial number of consecutive wins of one run in merge, when merge switches to galloping mode. */
+    private static final int MIN_GALLOP = 7;
+    /** Defines size of stack of runs, enough for any int length of array when run stack invariants hold. */
+    private static final int MAX_RUNS = 49;
+
+    // Thread safety argument:
+    //      This class is thread safe, because it have no instances (everything static).
+    //      Noninstantiability is enforced with private constructor.
+    //      State is created for each call and is not shared between threads.
+
+    private TimSort() {
+        throw new RuntimeException("TimSort is noninstantiable");
+    }
+
+    /** Sorts input array, using TimSort
+     * This algorithm finds natural runs in input: ascending and strictly descending (which are reversed).
+     * Runs shorter than minimal run length (16..32) are extended with binary insertion sort. Runs are pushed to stack
+     * and merged, keeping lengths of runs on stack decreasing faster than Fibonacci numbers, so merges are balanced.
+     * Merges switch to galloping (exponential search and bulk copy) when one run wins many times in a row.
+     * Sort is stable.
+     * Complexity: O(n log(n)); Best case: O(n) for sorted, backwards sorted or few sorted runs
+     *
+     * @param input Array of ints
+     */
+    public static void sort(@NotNull int[] input) {
+        if (input != null && input.length > 1) {
+            SortMetrics.begin("TimSort", input.length);
+            try {
+                sort(input, 0, input.length);
+            } finally {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /** TimSort implementation that sorts part of input from index left to index right.
+     * See sort(int[] input) for more details.
+     *
+     * @param input Array of ints to be sorted
+     * @param left Left index (from, included), must be >= 0 && < right
+     * @param right Right index (to, excluded), must be <= input.length
+     */
+    static void sort(@NotNull int[] input, int left, int right) {
+        int remaining = right - left;
+        if (remaining < MIN_MERGE) {
+            binaryInsertionSort(input, left, right, left + countRunAndMakeAscending(input, left, right));
+            return;
+        }
+
+        State state = new State(input);
+        int minRun = minRunLength(remaining);
+        do {
+            int runLength = countRunAndMakeAscending(input, left, right);
+            if (runLength < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(input, left, left + force, left + runLength);
+                runLength = force;
+            }
+            state.pushRun(left, runLength);
+            state.mergeCollapse();
+            left += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        state.mergeForceCollapse();
+    }
+
+    /** Returns minimal run length for array of size n: number in [MIN_MERGE/2..MIN_MERGE], such as n / result is
+     * equal to or slightly less than power of 2, so merges of runs are balanced.
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /** Returns length of run, starting at input[left]. Strictly descending run is reversed.
+     *
+     * @param input Array of ints
+     * @param left Index of first element of run
+     * @param right Right index of array part (to, excluded), must be > left
+     *
+     * @return length of ascending run starting at input[left], >= 1
+     */
+    private static int countRunAndMakeAscending(@NotNull int[] input, int left, int right) {
+        int runRight = left + 1;
+        if (runRight == right) {
+            return 1;
+        }
+        if (input[runRight++] < input[left]) {
+            while (runRight < right && input[runRight] < input[runRight - 1]) {
+                runRight++;
+            }
+            for (int i = left, j = runRight - 1; i < j; i++, j--) {
+                int tmp = input[i];
+                input[i] = input[j];
+                input[j] = tmp;
+            }
+        } else {
+            while (runRight < right && input[runRight] >= input[runRight - 1]) {
+                runRight++;
+            }
+        }
+        return runRight - left;
+    }
+
+    /** Sorts input[left..right-1] with binary insertion sort, where input[left..start-1] is already sorted.
+     * Position of each element is found with binary search and elements after it are moved with arraycopy.
+     * Sort is stable: element is inserted after equal elements.
+     */
+    private static void binaryInsertionSort(@NotNull int[] input, int left, int right, int start) {
+        for (start = Math.max(start, left + 1); start < right; start++) {
+            int pivot = input[start];
+            int l = left;
+            int r = start;
+            while (l < r) {
+                int middle = (l + r) >>> 1;
+                if (pivot < input[middle]) {
+                    r = middle;
+                } else {
+                    l = middle + 1;
+                }
+            }
+            System.arraycopy(input, l, input, l + 1, start - l);
+            input[l] = pivot;
+        }
+    }
+
+    /** Returns position in sorted input[base..base+length-1] where key should be inserted before equal elements:
+     * result k is such as input[base+k-1] < key <= input[base+k].
+     * Search starts at base+hint and gallops (steps 1, 3, 7, 15...) before binary search, so it is fast when result
+     * is close to hint.
+     */
+    private static int gallopLeft(int key, @NotNull int[] input, int base, int length, int hint) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (key > input[base + hint]) {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && key > input[base + hint + offset]) {
+                lastOffset = offset;
+                offset = Math.max((offset << 1) + 1, offset); // keeps offset positive
+            }
+            offset = Math.min(offset, maxOffset);
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && key <= input[base + hint - offset]) {
+                lastOffset = offset;
+                offset = Math.max((offset << 1) + 1, offset);
+            }
+            offset = Math.min(offset, maxOffset);
+            int tmp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - tmp;
+        }
+        for (lastOffset++; lastOffset < offset; ) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (key > input[base + middle]) {
+                lastOffset = middle + 1;
+            } else {
+                offset = middle;
+            }
+        }
+        return offset;
+    }
+
+    /** Returns position in sorted input[base..base+length-1] where key should be inserted after equal elements:
+     * result k is such as input[base+k-1] <= key < input[base+k]. See gallopLeft for details.
+     */
+    private static int gallopRight(int key, @NotNull int[] input, int base, int length, int hint) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (key < input[base + hint]) {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && key < input[base + hint - offset]) {
+                lastOffset = offset;
+                offset = Math.max((offset << 1) + 1, offset);
+            }
+            offset = Math.min(offset, maxOffset);
+            int tmp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - tmp;
+        } else {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && key >= input[base + hint + offset]) {
+                lastOffset = offset;
+                offset = Math.max((offset << 1) + 1, offset);
+            }
+            offset = Math.min(offset, maxOffset);
+            lastOffset += hint;
+            offset += hint;
+        }
+        for (lastOffset++; lastOffset < offset; ) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (key < input[base + middle]) {
+                offset = middle;
+            } else {
+                lastOffset = middle + 1;
+            }
+        }
+        return offset;
+    }
+
+    /** State of one TimSort call: stack of pending runs, temporary array for merges and galloping threshold. */
+    private static class State {
+
+        private final int[] input;
+        private final int[] runBase = new int[MAX_RUNS];
+        private final int[] runLength = new int[MAX_RUNS];
+        private int stackSize = 0;
+        private int[] tmp = new int[0];
+        /** Number of consecutive wins before galloping, lower after successful galloping and higher after failed. */
+        private int minGallop = MIN_GALLOP;
+
+        State(@NotNull int[] input) {
+            this.input = input;
+        }
+
+        private void pushRun(int base, int length) {
+            runBase[stackSize] = base;
+            runLength[stackSize] = length;
+            stackSize++;
+        }
+
+        /** Merges runs on top of stack until invariants hold for all runs on stack:
+         * runLength[i - 2] > runLength[i - 1] + runLength[i] and runLength[i - 1] > runLength[i].
+         */
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+                        || n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1]) {
+                    if (runLength[n - 1] < runLength[n + 1]) {
+                        n--;
+                    }
+                } else if (runLength[n] > runLength[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /** Merges all runs on stack, until only one run remains. */
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLength[n - 1] < runLength[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /** Merges runs i and i + 1 on stack, i must be stackSize - 2 or stackSize - 3. */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int length1 = runLength[i];
+            int base2 = runBase[i + 1];
+            int length2 = runLength[i + 1];
+
+            runLength[i] = length1 + length2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLength[i + 1] = runLength[i + 2];
+            }
+            stackSize--;
+
+            // elements of run1 before first element of run2 and elements of run2 after last of run1 are in place
+            int k = gallopRight(input[base2], input, base1, length1, 0);
+            base1 += k;
+            length1 -= k;
+            if (length1 == 0) {
+                return;
+            }
+            length2 = gallopLeft(input[base1 + length1 - 1], input, base2, length2, length2 - 1);
+            if (length2 == 0) {
+                return;
+            }
+
+            if (length1 <= length2) {
+                mergeLow(base1, length1, base2, length2);
+            } else {
+                mergeHigh(base1, length1, base2, length2);
+            }
+        }
+
+        /** Returns temporary array of at least minCapacity elements. */
+        private @NotNull int[] tmp(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                tmp = new int[Math.max(minCapacity, Math.min(input.length / 2, 2 * minCapacity))];
+                SortMetrics.allocated((long) Integer.BYTES * tmp.length);
+            }
+            return tmp;
+        }
+
+        /** Merges adjacent runs input[base1..base1+length1-1] and input[base2..base2+length2-1] from left to right,
+         * first run is copied to temporary array, so length1 should be <= length2.
+         * First element of run2 must be < first element of run1 and last element of run1 must be > all of run2.
+         */
+        private void mergeLow(int base1, int length1, int base2, int length2) {
+            int[] tmp = tmp(length1);
+            System.arraycopy(input, base1, tmp, 0, length1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int destination = base1;
+
+            input[destination++] = input[cursor2++];
+            if (--length2 == 0 || length1 == 1) {
+                System.arraycopy(input, cursor2, input, destination, length2);
+                System.arraycopy(tmp, cursor1, input, destination + length2, length1);
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (input[cursor2] < tmp[cursor1]) {
+                        input[destination++] = input[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--length2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        input[destination++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--length1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = gallopRight(input[cursor2], tmp, cursor1, length1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, input, destination, count1);
+                        destination += count1;
+                        cursor1 += count1;
+                        length1 -= count1;
+                        if (length1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    input[destination++] = input[cursor2++];
+                    if (--length2 == 0) {
+                        break outer;
+                    }
+
+                    count2 = gallopLeft(tmp[cursor1], input, cursor2, length2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(input, cursor2, input, destination, count2);
+                        destination += count2;
+                        cursor2 += count2;
+                        length2 -= count2;
+                        if (length2 == 0) {
+                            break outer;
+                        }
+                    }
+                    input[destination++] = tmp[cursor1++];
+                    if (--length1 == 1) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                minGallop = Math.max(minGallop, 0) + 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            // rest of run2 (if any) is before last elements of run1
+            System.arraycopy(input, cursor2, input, destination, length2);
+            System.arraycopy(tmp, cursor1, input, destination + length2, length1);
+        }
+
+        /** Merges adjacent runs input[base1..base1+length1-1] and input[base2..base2+length2-1] from right to left,
+         * second run is copied to temporary array, so length2 should be <= length1.
+         * First element of run2 must be < first element of run1 and last element of run1 must be > all of run2.
+         */
+        private void mergeHigh(int base1, int length1, int base2, int length2) {
+            int[] tmp = tmp(length2);
+            System.arraycopy(input, base2, tmp, 0, length2);
+            int cursor1 = base1 + length1 - 1;
+            int cursor2 = length2 - 1;
+            int destination = base2 + length2 - 1;
+
+            input[destination--] = input[cursor1--];
+            if (--length1 == 0 || length2 == 1) {
+                System.arraycopy(input, cursor1 + 1 - length1, input, destination + 1 - length1, length1);
+                System.arraycopy(tmp, 0, input, destination + 1 - length1 - length2, length2);
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (tmp[cursor2] < input[cursor1]) {
+                        input[destination--] = input[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--length1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        input[destination--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--length2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = length1 - gallopRight(tmp[cursor2], input, base1, length1, length1 - 1);
+                    if (count1 != 0) {
+                        destination -= count1;
+                        cursor1 -= count1;
+                        length1 -= count1;
+                        System.arraycopy(input, cursor1 + 1, input, destination + 1, count1);
+                        if (length1 == 0) {
+                            break outer;
+                        }
+                    }
+                    input[destination--] = tmp[cursor2--];
+                    if (--length2 == 1) {
+                        break outer;
+                    }
+
+                    count2 = length2 - gallopLeft(input[cursor1], tmp, 0, length2, length2 - 1);
+                    if (count2 != 0) {
+                        destination -= count2;
+                        cursor2 -= count2;
+                        length2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, input, destination + 1, count2);
+                        if (length2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    input[destination--] = input[cursor1--];
+                    if (--length1 == 0) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                minGallop = Math.max(minGallop, 0) + 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            // rest of run1 (if any) is after first elements of run2
+            System.arraycopy(input, cursor1 + 1 - length1, input, destination + 1 - length1, length1);
+            System.arraycopy(tmp, 0, input, destination + 1 - length1 - length2, length2);
+        }
+    }
+}
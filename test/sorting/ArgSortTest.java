@@ -0,0 +1,223 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests argsort and permutation of columns in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class ArgSortTest {
+
+    /* Testing strategy
+     *      Keys: int, long, String.
+     *      Size: 0, 1, small (insertion sort of indices), large.
+     *      Random keys, frequently repeating keys (stability), sorted, MIN_VALUE and MAX_VALUE.
+     *      Result is compared with stable sort of boxed indices.
+     *      Permute: columns of all primitive types and objects, one cycle, identity, length mismatch, not array,
+     *              invalid column leaves all columns unchanged.
+     */
+
+    /** Sizes of keys. */
+    private static final int[] SIZES = { 0, 1, 2, 15, 17, 1000, 10000 };
+
+    /** Random generator for keys. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testInts() {
+        for (int size : SIZES) {
+            for (int bound : new int[] { 5, Integer.MAX_VALUE }) {
+                int[] keys = new int[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = randomizer.nextInt(bound) - bound / 2;
+                }
+                if (size > 2) {
+                    keys[0] = Integer.MAX_VALUE;
+                    keys[1] = Integer.MIN_VALUE;
+                }
+                int[] copy = keys.clone();
+                int[] perm = ArgSort.argsort(keys);
+                assertArrayEquals(copy, keys);
+                assertArrayEquals(expected(size, Comparator.comparingInt(i -> keys[i])), perm);
+            }
+        }
+    }
+
+    @Test
+    public void testLongs() {
+        for (int size : SIZES) {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = i % 2 == 0 ? randomizer.nextInt(5) : randomizer.nextLong();
+            }
+            if (size > 2) {
+                keys[0] = Long.MAX_VALUE;
+                keys[1] = Long.MIN_VALUE;
+            }
+            long[] copy = keys.clone();
+            int[] perm = ArgSort.argsort(keys);
+            assertArrayEquals(copy, keys);
+            assertArrayEquals(expected(size, Comparator.comparingLong(i -> keys[i])), perm);
+        }
+    }
+
+    @Test
+    public void testStrings() {
+        for (int size : SIZES) {
+            String[] keys = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = i % 3 == 0 ? "" : Integer.toString(randomizer.nextInt(100), 36);
+            }
+            String[] copy = keys.clone();
+            int[] perm = ArgSort.argsort(keys);
+            assertArrayEquals(copy, keys);
+            assertArrayEquals(expected(size, Comparator.comparing(i -> keys[i])), perm);
+        }
+    }
+
+    @Test
+    public void testSortedInput() {
+        int[] keys = new int[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i / 3;
+        }
+        assertArrayEquals(expected(keys.length, Comparator.naturalOrder()), ArgSort.argsort(keys));
+    }
+
+    @Test
+    public void testTable() {
+        // table of 4 columns, sorted by ages, rows with equal ages keep their order
+        int[] ages = { 30, 25, 30, 20, 25 };
+        String[] names = { "ann", "bob", "cid", "dan", "eve" };
+        double[] scores = { 1.5, 2.5, 3.5, 4.5, 5.5 };
+        boolean[] flags = { true, false, false, true, true };
+        int[] perm = ArgSort.argsort(ages);
+        assertArrayEquals(new int[] { 3, 1, 4, 0, 2 }, perm);
+        ArgSort.permuteAll(perm, ages, names, scores, flags);
+        assertArrayEquals(new int[] { 20, 25, 25, 30, 30 }, ages);
+        assertArrayEquals(new String[] { "dan", "bob", "eve", "ann", "cid" }, names);
+        assertArrayEquals(new double[] { 4.5, 2.5, 5.5, 1.5, 3.5 }, scores, 0);
+        assertEquals("[true, false, true, true, false]", Arrays.toString(flags));
+        // permutation is not changed by permute
+        assertArrayEquals(new int[] { 3, 1, 4, 0, 2 }, perm);
+    }
+
+    @Test
+    public void testPermuteAllTypes() {
+        for (int size : SIZES) {
+            int[] perm = randomPermutation(size);
+            int[] ints = new int[size];
+            long[] longs = new long[size];
+            double[] doubles = new double[size];
+            float[] floats = new float[size];
+            short[] shorts = new short[size];
+            char[] chars = new char[size];
+            byte[] bytes = new byte[size];
+            boolean[] booleans = new boolean[size];
+            Integer[] objects = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                ints[i] = i;
+                longs[i] = i;
+                doubles[i] = i;
+                floats[i] = i;
+                shorts[i] = (short) i;
+                chars[i] = (char) i;
+                bytes[i] = (byte) i;
+                booleans[i] = i % 3 == 0;
+                objects[i] = i;
+            }
+            ArgSort.permuteAll(perm, ints, longs, doubles, floats, shorts, chars, bytes, booleans, objects);
+            for (int i = 0; i < size; i++) {
+                assertEquals(perm[i], ints[i]);
+                assertEquals(perm[i], longs[i]);
+                assertEquals(perm[i], doubles[i], 0);
+                assertEquals(perm[i], floats[i], 0);
+                assertEquals((short) perm[i], shorts[i]);
+                assertEquals((char) perm[i], chars[i]);
+                assertEquals((byte) perm[i], bytes[i]);
+                assertEquals(perm[i] % 3 == 0, booleans[i]);
+                assertEquals(perm[i], (int) objects[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testPermuteCycleAndIdentity() {
+        int[] column = { 10, 11, 12, 13, 14 };
+        ArgSort.permute(new int[] { 1, 2, 3, 4, 0 }, column);
+        assertArrayEquals(new int[] { 11, 12, 13, 14, 10 }, column);
+        ArgSort.permute(new int[] { 0, 1, 2, 3, 4 }, column);
+        assertArrayEquals(new int[] { 11, 12, 13, 14, 10 }, column);
+    }
+
+    @Test
+    public void testArgsortThenPermuteSorts() {
+        long[] keys = new long[5000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = randomizer.nextLong();
+        }
+        long[] expected = keys.clone();
+        Arrays.sort(expected);
+        ArgSort.permute(ArgSort.argsort(keys), keys);
+        assertArrayEquals(expected, keys);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthMismatch() {
+        ArgSort.permute(new int[] { 0, 1 }, new long[3]);
+    }
+
+    @Test
+    public void testNotArray() {
+        try {
+            ArgSort.permuteAll(new int[] { 0 }, new int[1], "column");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Error @ ArgSort.permuteAll()"));
+            return;
+        }
+        throw new AssertionError("IllegalArgumentException expected");
+    }
+
+    @Test
+    public void testInvalidColumnChangesNothing() {
+        int[] first = { 10, 11, 12 };
+        try {
+            ArgSort.permuteAll(new int[] { 2, 0, 1 }, first, new long[3], new double[2]);
+        } catch (IllegalArgumentException e) {
+            assertArrayEquals(new int[] { 10, 11, 12 }, first);
+            return;
+        }
+        throw new AssertionError("IllegalArgumentException expected");
+    }
+
+    /** Returns indices 0..size-1, sorted by stable sort with comparator. */
+    private static int[] expected(int size, Comparator<Integer> comparator) {
+        Integer[] indices = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, comparator);
+        int[] expected = new int[size];
+        for (int i = 0; i < size; i++) {
+            expected[i] = indices[i];
+        }
+        return expected;
+    }
+
+    /** Returns random permutation of 0..size-1. */
+    private int[] randomPermutation(int size) {
+        int[] perm = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = randomizer.nextInt(i + 1);
+            perm[i] = perm[j];
+            perm[j] = i;
+        }
+        return perm;
+    }
+
+}
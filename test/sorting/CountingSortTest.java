@@ -1,6 +1,9 @@
 package sorting;
 
+import static org.junit.Assert.assertArrayEquals;
+
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Random;
 import org.junit.Test;
 
@@ -13,6 +16,8 @@ public class CountingSortTest {
      *      Random array.
      *      Frequently repeating numbers.
      *      Same numbers.
+     *      Objects with key extractor: dense keys, few distinct keys in whole int range (sparse), key out of range,
+     *      same workspace for many arrays, maximal key equal to keysTo.
      */
 
     /** Size of arrays, positive. */
@@ -78,13 +83,88 @@ public class CountingSortTest {
     /** Testing Counting sort. */
     @Test
     public void testCountingSort() {
-        testSortOnArray(SORTED_ARRAY, "SORTED_ARRAY", 0, KEYS_RANGE);
-        testSortOnArray(BACKWARDS_SORTED_ARRAY, "BACKWARDS_SORTED_ARRAY", 0, KEYS_RANGE);
-        testSortOnArray(SAME_NUMBERS_ARRAY, "SAME_NUM_ARRAY", 0, 5);
-        testSortOnArray(RANDOM_ARRAY, "RANDOM_ARRAY", -KEYS_RANGE / 2, KEYS_RANGE / 2);
-        testSortOnArray(RANDOM_REPEATING_ARRAY, "RANDOM_REP_ARRAY", 0, 12);
-        testSortOnArray(EMPTY_ARRAY, "EMPTY_ARRAY", 0, 0);
-        testSortOnArray(SIZE1_ARRAY, "SIZE1_ARRAY", 100, 102);
+        testAllArrays(false);
+    }
+
+    /** Testing parallel Counting sort. */
+    @Test
+    public void testParallelCountingSort() {
+        testAllArrays(true);
+    }
+
+    /** Testing Counting sort of objects with key extractor, all arrays share one workspace. */
+    @Test
+    public void testObjectCountingSort() {
+        CountingSort.Workspace workspace = new CountingSort.Workspace();
+        testSortOnObjects(SORTED_ARRAY, 0, KEYS_RANGE, workspace);
+        testSortOnObjects(BACKWARDS_SORTED_ARRAY, 0, KEYS_RANGE, workspace);
+        testSortOnObjects(SAME_NUMBERS_ARRAY, 1, 1, workspace);
+        testSortOnObjects(RANDOM_ARRAY, -KEYS_RANGE / 2, KEYS_RANGE / 2, workspace);
+        testSortOnObjects(RANDOM_REPEATING_ARRAY, 0, 12, workspace);
+        testSortOnObjects(EMPTY_ARRAY, 0, 0, workspace);
+        testSortOnObjects(SIZE1_ARRAY, 100, 102, workspace);
+    }
+
+    /** Testing Counting sort of objects with few distinct keys in wide range (sparse histogram). */
+    @Test
+    public void testSparseObjectCountingSort() {
+        CountingSort.Workspace workspace = new CountingSort.Workspace();
+        Random randomizer = new Random();
+        for (int distinct : new int[] { 1, 7, ARRAYS_SIZE, 1000 }) { // buffers grow, then are reused
+            int[] values = new int[distinct];
+            for (int i = 0; i < distinct; i++) {
+                values[i] = randomizer.nextInt();
+            }
+            values[0] = Integer.MIN_VALUE;
+            values[distinct - 1] = Integer.MAX_VALUE;
+            int[][] array = new int[ARRAYS_SIZE][];
+            for (int i = 0; i < ARRAYS_SIZE; i++) {
+                array[i] = new int[] { values[randomizer.nextInt(distinct)], i };
+            }
+            testSortOnObjects(array, Integer.MIN_VALUE, Integer.MAX_VALUE, workspace);
+        }
+    }
+
+    /** Testing Counting sort and parallel Counting sort of keys, where maximal key is keysTo. */
+    @Test
+    public void testKeysToIsMax() {
+        int[][] input = new int[ARRAYS_SIZE][];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            input[i] = new int[] { 9 - i % 10, i };
+        }
+        int[][] array = Arrays.copyOf(input, ARRAYS_SIZE);
+        CountingSort.sort(array, 0, 9, 0);
+        int[][] expected = Arrays.copyOf(input, ARRAYS_SIZE);
+        Arrays.sort(expected, Comparator.comparingInt(row -> row[0]));
+        assertArrayEquals(expected, array);
+        array = Arrays.copyOf(input, ARRAYS_SIZE);
+        CountingSort.parallelSort(array, 0, 9, 0);
+        assertArrayEquals(expected, array);
+    }
+
+    /** Testing Counting sort of objects with key out of range. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testObjectCountingSortKeyOutOfRange() {
+        CountingSort.sort(new Integer[] { 1, 5, 3 }, Integer::intValue, 1, 4);
+    }
+
+    /** Copy inputArray, sort rows by key row[0] as objects, test that result is sorted and stable. */
+    private void testSortOnObjects(int[][] inputArray, int keysFrom, int keysTo, CountingSort.Workspace workspace) {
+        int[][] array = Arrays.copyOf(inputArray, inputArray.length);
+        CountingSort.sort(array, row -> row[0], keysFrom, keysTo, workspace);
+        int[][] expected = Arrays.copyOf(inputArray, inputArray.length);
+        Arrays.sort(expected, Comparator.comparingInt(row -> row[0]));
+        assertArrayEquals(expected, array);
+    }
+
+    private void testAllArrays(boolean parallel) {
+        testSortOnArray(SORTED_ARRAY, "SORTED_ARRAY", 0, KEYS_RANGE, parallel);
+        testSortOnArray(BACKWARDS_SORTED_ARRAY, "BACKWARDS_SORTED_ARRAY", 0, KEYS_RANGE, parallel);
+        testSortOnArray(SAME_NUMBERS_ARRAY, "SAME_NUM_ARRAY", 0, 5, parallel);
+        testSortOnArray(RANDOM_ARRAY, "RANDOM_ARRAY", -KEYS_RANGE / 2, KEYS_RANGE / 2, parallel);
+        testSortOnArray(RANDOM_REPEATING_ARRAY, "RANDOM_REP_ARRAY", 0, 12, parallel);
+        testSortOnArray(EMPTY_ARRAY, "EMPTY_ARRAY", 0, 0, parallel);
+        testSortOnArray(SIZE1_ARRAY, "SIZE1_ARRAY", 100, 102, parallel);
     }
 
     /** Utility method for all tests.
@@ -94,16 +174,21 @@ public class CountingSortTest {
      * @param nameOfArray Name of array to print in results (if print is enabled)
      * @param keysFrom integer <= min( keys of input )
      * @param keysTo integer >= max( keys of input )
+     * @param parallel True == use parallel counting sort
      */
-    private void testSortOnArray(int[][] inputArray, String nameOfArray, int keysFrom, int keysTo) {
+    private void testSortOnArray(int[][] inputArray, String nameOfArray, int keysFrom, int keysTo, boolean parallel) {
         int[][] array = Arrays.copyOf(inputArray, inputArray.length);
         long start = System.currentTimeMillis();
-        CountingSort.sort(array, keysFrom, keysTo, 0);
+        if (parallel) {
+            CountingSort.parallelSort(array, keysFrom, keysTo, 0);
+        } else {
+            CountingSort.sort(array, keysFrom, keysTo, 0);
+        }
 
         long end = System.currentTimeMillis();
         if (PRINT_TIME) {
             System.out.println("SIZE: " + ARRAYS_SIZE_FORMATTED + " objects. TIME: " + (end - start) + " ms. Sorted "
-                    + nameOfArray);
+                    + nameOfArray + (parallel ? " in parallel" : ""));
         }
         for (int i = 0; i < inputArray.length - 1; i++) {
             assert array[i][0] <= array[i + 1][0];
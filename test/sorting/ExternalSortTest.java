@@ -0,0 +1,154 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests external sort algorithm in sortings package. */
+public class ExternalSortTest {
+
+    /* Testing strategy
+     *      Empty file.
+     *      File fits memory budget (one run).
+     *      File is larger than memory budget: runs are merged in one pass, runs are merged in several passes.
+     *      Keys: ints, longs, negative and positive.
+     *      Memory budget: minimal, too small, large; runs with buffer of writer and merge buffers fit budget.
+     */
+
+    /** Memory budget, that is enough for merging 15 runs in one pass. */
+    private static final long LARGE_BUDGET = 16L * ExternalSort.MIN_BUFFER_SIZE;
+    /** Memory budget, that is enough for merging only 2 runs in one pass. */
+    private static final long SMALL_BUDGET = ExternalSort.MIN_MEMORY_BUDGET;
+    /** Number of keys in large files. */
+    private static final int ARRAYS_SIZE = 200000;
+
+    /** Random generator for keys. */
+    private final Random randomizer = new Random();
+
+    // covers Empty file, ints, longs
+    @Test
+    public void testEmpty() throws IOException {
+        testInts(new int[0], SMALL_BUDGET);
+        testLongs(new long[0], SMALL_BUDGET);
+    }
+
+    // covers File fits memory budget, ints, longs
+    @Test
+    public void testOneRun() throws IOException {
+        testInts(randomInts(1000), SMALL_BUDGET);
+        testLongs(randomLongs(1000), SMALL_BUDGET);
+    }
+
+    // covers File is larger than memory budget and runs are merged in one pass, ints, longs
+    @Test
+    public void testOnePassMerge() throws IOException {
+        testInts(randomInts(ARRAYS_SIZE), LARGE_BUDGET);
+        testLongs(randomLongs(ARRAYS_SIZE), LARGE_BUDGET);
+    }
+
+    // covers File is larger than memory budget and runs are merged in several passes, ints, longs
+    @Test
+    public void testSeveralPassesMerge() throws IOException {
+        testInts(randomInts(ARRAYS_SIZE), SMALL_BUDGET);
+        testLongs(randomLongs(ARRAYS_SIZE), SMALL_BUDGET);
+    }
+
+    // covers Memory budget too small
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooSmallBudget() throws IOException {
+        testInts(randomInts(10), SMALL_BUDGET - 1);
+    }
+
+    // covers Memory budget minimal and large, runs and buffers fit budget
+    @Test
+    public void testMemoryAccounting() {
+        long[] budgets = { SMALL_BUDGET, SMALL_BUDGET + 1, LARGE_BUDGET - 1, LARGE_BUDGET, 100_000_007L, 1L << 40 };
+        for (long budget : budgets) {
+            long writer = ExternalSort.bufferSize(budget, 2);
+            // ints are sorted in place, radix sort of longs allocates buffer of run size
+            assertTrue(ExternalSort.runLength(budget, Integer.BYTES) > 0);
+            assertTrue(ExternalSort.runLength(budget, Integer.BYTES) * Integer.BYTES + writer <= budget);
+            assertTrue(ExternalSort.runLength(budget, Long.BYTES) > 0);
+            assertTrue(2 * ExternalSort.runLength(budget, Long.BYTES) * Long.BYTES + writer <= budget);
+
+            int fanIn = ExternalSort.fanIn(budget);
+            assertTrue(fanIn >= 2);
+            for (int runs = 1; runs <= fanIn; runs = runs < 100 ? runs + 1 : Math.max(runs + 1, fanIn)) {
+                int buffer = ExternalSort.bufferSize(budget, runs + 1);
+                assertTrue(buffer >= ExternalSort.MIN_BUFFER_SIZE);
+                assertTrue((runs + 1L) * buffer <= budget);
+            }
+        }
+    }
+
+    private int[] randomInts(int size) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = randomizer.nextInt();
+        }
+        return keys;
+    }
+
+    private long[] randomLongs(int size) {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = randomizer.nextLong();
+        }
+        return keys;
+    }
+
+    /** Writes keys to file, sorts it with ExternalSort.sortInts and compares result with sorted keys. */
+    private void testInts(int[] keys, long memoryBudget) throws IOException {
+        Path directory = Files.createTempDirectory("external-sort");
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(keys.length * Integer.BYTES);
+            buffer.asIntBuffer().put(keys);
+            Files.write(directory.resolve("input"), buffer.array());
+
+            ExternalSort.sortInts(directory.resolve("input"), directory.resolve("output"), memoryBudget, directory);
+
+            int[] result = new int[keys.length];
+            ByteBuffer.wrap(Files.readAllBytes(directory.resolve("output"))).asIntBuffer().get(result);
+            int[] expected = Arrays.copyOf(keys, keys.length);
+            Arrays.sort(expected);
+            assertArrayEquals(expected, result);
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    /** Writes keys to file, sorts it with ExternalSort.sortLongs and compares result with sorted keys. */
+    private void testLongs(long[] keys, long memoryBudget) throws IOException {
+        Path directory = Files.createTempDirectory("external-sort");
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(keys.length * Long.BYTES);
+            buffer.asLongBuffer().put(keys);
+            Files.write(directory.resolve("input"), buffer.array());
+
+            ExternalSort.sortLongs(directory.resolve("input"), directory.resolve("output"), memoryBudget, directory);
+
+            long[] result = new long[keys.length];
+            ByteBuffer.wrap(Files.readAllBytes(directory.resolve("output"))).asLongBuffer().get(result);
+            long[] expected = Arrays.copyOf(keys, keys.length);
+            Arrays.sort(expected);
+            assertArrayEquals(expected, result);
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    /** Deletes input and output files and directory, temporary files of runs must be already deleted. */
+    private void deleteDirectory(Path directory) throws IOException {
+        Files.deleteIfExists(directory.resolve("input"));
+        Files.deleteIfExists(directory.resolve("output"));
+        Files.delete(directory);
+    }
+
+}
@@ -0,0 +1,150 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+/** Tests incremental sorter in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class IncrementalSorterTest {
+
+    /* Testing strategy
+     *      No chunks, empty chunks.
+     *      Chunks fit memory budget: no spills.
+     *      Chunks exceed memory budget: spills, spilled runs are merged.
+     *      Chunks of random sizes, random ints and frequently repeating ints.
+     *      Output: iterator, stream, read twice, previous output is closed by next one and by close.
+     *      Chunks are not modified, chunks can not be added after reading.
+     *      Temporary files are deleted by close.
+     */
+
+    /** Memory budget, that is enough for merging only 2 spilled runs. */
+    private static final long SMALL_BUDGET = 4L * ExternalSort.MIN_BUFFER_SIZE;
+    /** Memory budget, that is enough for all test chunks. */
+    private static final long LARGE_BUDGET = 1L << 26;
+    /** Number of ints added to sorter. */
+    private static final int ARRAYS_SIZE = 300000;
+
+    /** Random generator for chunks. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testEmpty() throws IOException {
+        Path directory = Files.createTempDirectory("incremental-sort");
+        try (IncrementalSorter sorter = new IncrementalSorter(SMALL_BUDGET, directory)) {
+            sorter.add(new int[0]);
+            assertFalse(sorter.iterator().hasNext());
+            assertEquals(0, sorter.stream().count());
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testInMemory() throws IOException {
+        testSort(LARGE_BUDGET, Integer.MAX_VALUE);
+        testSort(LARGE_BUDGET, 10);
+    }
+
+    @Test
+    public void testSpills() throws IOException {
+        testSort(SMALL_BUDGET, Integer.MAX_VALUE);
+        testSort(SMALL_BUDGET, 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddAfterReading() throws IOException {
+        Path directory = Files.createTempDirectory("incremental-sort");
+        try (IncrementalSorter sorter = new IncrementalSorter(SMALL_BUDGET, directory)) {
+            sorter.add(new int[] { 2, 1 });
+            sorter.iterator();
+            sorter.add(new int[] { 3 });
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testPreviousOutputClosed() throws IOException {
+        Path directory = Files.createTempDirectory("incremental-sort");
+        PrimitiveIterator.OfInt iterator;
+        try (IncrementalSorter sorter = new IncrementalSorter(SMALL_BUDGET, directory)) {
+            int[] chunk = new int[ARRAYS_SIZE];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = chunk.length - i;
+            }
+            sorter.add(chunk);
+            PrimitiveIterator.OfInt previous = sorter.iterator();
+            assertEquals(1, previous.nextInt());
+            iterator = sorter.iterator();
+            assertClosed(previous);
+            assertEquals(ARRAYS_SIZE, sorter.stream().count());
+            assertClosed(iterator);
+            iterator = sorter.iterator();
+            for (int i = 1; i <= ARRAYS_SIZE; i++) {
+                assertEquals(i, iterator.nextInt());
+            }
+            assertFalse(iterator.hasNext());
+        } finally {
+            Files.delete(directory);
+        }
+        assertClosed(iterator); // closed by close() of sorter
+    }
+
+    /** Checks that iterator was closed by sorter. */
+    private static void assertClosed(PrimitiveIterator.OfInt iterator) {
+        try {
+            iterator.nextInt();
+            fail("closed iterator was read");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+
+    /** Adds chunks of random ints in range [0, bound) and compares sorted output with Arrays.sort. */
+    private void testSort(long memoryBudget, int bound) throws IOException {
+        Path directory = Files.createTempDirectory("incremental-sort");
+        try (IncrementalSorter sorter = new IncrementalSorter(memoryBudget, directory)) {
+            int[] expected = new int[ARRAYS_SIZE];
+            for (int from = 0; from < ARRAYS_SIZE; ) {
+                int[] chunk = new int[Math.min(ARRAYS_SIZE - from, randomizer.nextInt(20000))];
+                for (int i = 0; i < chunk.length; i++) {
+                    chunk[i] = bound == Integer.MAX_VALUE ? randomizer.nextInt() : randomizer.nextInt(bound);
+                }
+                int[] copy = Arrays.copyOf(chunk, chunk.length);
+                sorter.add(chunk);
+                assertArrayEquals(copy, chunk);
+                System.arraycopy(chunk, 0, expected, from, chunk.length);
+                from += chunk.length;
+            }
+            Arrays.sort(expected);
+
+            assertEquals(ARRAYS_SIZE, sorter.size());
+            int[] actual = new int[ARRAYS_SIZE];
+            PrimitiveIterator.OfInt iterator = sorter.iterator();
+            for (int i = 0; i < ARRAYS_SIZE; i++) {
+                actual[i] = iterator.nextInt();
+            }
+            assertFalse(iterator.hasNext());
+            assertArrayEquals(expected, actual);
+            assertArrayEquals(expected, sorter.stream().toArray());
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(0, files.count());
+            }
+            Files.delete(directory);
+        }
+    }
+
+}
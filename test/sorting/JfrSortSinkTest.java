@@ -0,0 +1,87 @@
+package sorting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+/** Tests JFR events of sorting calls in sortings package.
+ * Events are committed only when metrics are enabled, SortMetricsTest runs this class in a forked JVM with
+ * -Dsorting.metrics=true.
+ */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class JfrSortSinkTest {
+
+    /* Testing strategy
+     *      Metrics: disabled (no events are expected, nothing is checked), enabled.
+     *      Calls: outermost call with strategy and nested calls, call without strategy, several calls in a row.
+     *      Events: read back from dumped recording, one event for each outermost call with fields of its record.
+     */
+
+    /** Size of arrays. */
+    private static final int SIZE = 10000;
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testEventsOfRecording() throws IOException {
+        if (!SortMetrics.ENABLED) {
+            return;
+        }
+        Path file = Files.createTempFile("sorts", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("sorting.Sort");
+                recording.start();
+                SortMetrics.setSink(SortMetrics.jfrSink());
+                try {
+                    Sorts.sort(randomizer.ints(SIZE).toArray());
+                    HeapSort.sort(randomizer.ints(100).toArray());
+                } finally {
+                    SortMetrics.setSink(null);
+                }
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals("sorting.Sort")) {
+                    events.add(event);
+                }
+            }
+            assertEquals(2, events.size());
+
+            RecordedEvent sorts = events.get(0);
+            assertEquals("Sorts", sorts.getString("algorithm"));
+            assertEquals(Sorts.Strategy.QUICK.name(), sorts.getString("strategy"));
+            assertEquals(SIZE, sorts.getInt("size"));
+            assertTrue(sorts.getLong("comparisons") >= SIZE);
+            assertTrue(sorts.getLong("swaps") > 0);
+            assertTrue(sorts.getInt("maxDepth") > 0);
+            assertTrue(sorts.getLong("insertionCutoffs") > 0);
+            assertEquals(0, sorts.getLong("heapSortFallbacks"));
+            assertTrue(sorts.getDuration().toNanos() > 0);
+
+            RecordedEvent heapSort = events.get(1);
+            assertEquals("HeapSort", heapSort.getString("algorithm"));
+            assertNull(heapSort.getString("strategy"));
+            assertEquals(100, heapSort.getInt("size"));
+            assertTrue(heapSort.getLong("swaps") >= 99);
+            assertEquals(0, heapSort.getLong("bytesAllocated"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests k-way merge in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class KWayMergeTest {
+
+    /* Testing strategy
+     *      Number of sources: 0, 1, 2, power of 2, not power of 2, hundreds.
+     *      Sources: empty, size 1, random sizes, frequently repeating numbers, MIN_VALUE and MAX_VALUE.
+     *      Output: larger than needed, too small.
+     *      Sources: int arrays, long arrays, heap and direct int buffers.
+     *      Result is compared with Arrays.sort.
+     */
+
+    /** Numbers of sources. */
+    private static final int[] SOURCES = { 0, 1, 2, 7, 16, 300 };
+
+    /** Random generator for sources. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testInts() {
+        for (int k : SOURCES) {
+            int[][] sources = randomSources(k);
+            int[] expected = expected(sources);
+            int[] output = new int[expected.length + 5];
+            assertEquals(expected.length, KWayMerge.merge(sources, output));
+            assertArrayEquals(expected, Arrays.copyOf(output, expected.length));
+        }
+    }
+
+    @Test
+    public void testLongs() {
+        for (int k : SOURCES) {
+            int[][] ints = randomSources(k);
+            long[][] sources = new long[k][];
+            for (int i = 0; i < k; i++) {
+                sources[i] = new long[ints[i].length];
+                for (int j = 0; j < ints[i].length; j++) {
+                    sources[i][j] = (long) ints[i][j] << 20;
+                }
+            }
+            int[] expectedInts = expected(ints);
+            long[] expected = new long[expectedInts.length];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = (long) expectedInts[i] << 20;
+            }
+            long[] output = new long[expected.length];
+            assertEquals(expected.length, KWayMerge.merge(sources, output));
+            assertArrayEquals(expected, output);
+        }
+    }
+
+    @Test
+    public void testBuffers() {
+        for (int k : SOURCES) {
+            for (boolean direct : new boolean[] { false, true }) {
+                int[][] sources = randomSources(k);
+                int[] expected = expected(sources);
+                IntBuffer[] buffers = new IntBuffer[k];
+                for (int i = 0; i < k; i++) {
+                    buffers[i] = direct ? ByteBuffer.allocateDirect(4 * sources[i].length).asIntBuffer()
+                            : IntBuffer.allocate(sources[i].length);
+                    buffers[i].put(sources[i]).flip();
+                }
+                IntBuffer output = IntBuffer.allocate(expected.length + 1);
+                output.put(42);
+                assertEquals(expected.length, KWayMerge.merge(buffers, output));
+                for (IntBuffer buffer : buffers) {
+                    assertFalse(buffer.hasRemaining());
+                }
+                assertEquals(expected.length + 1, output.position());
+                assertEquals(42, output.get(0));
+                int[] actual = new int[expected.length];
+                output.position(1);
+                output.get(actual);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutputTooSmall() {
+        KWayMerge.merge(new int[][] { { 1, 2 }, { 3 } }, new int[2]);
+    }
+
+    /** Returns k sorted arrays of random sizes, some of them empty. */
+    private int[][] randomSources(int k) {
+        int[][] sources = new int[k][];
+        for (int i = 0; i < k; i++) {
+            int size = i % 5 == 0 ? 0 : i % 5 == 1 ? 1 : randomizer.nextInt(1000);
+            sources[i] = new int[size];
+            for (int j = 0; j < size; j++) {
+                sources[i][j] = i % 2 == 0 ? randomizer.nextInt(10) : randomizer.nextInt();
+            }
+            if (size > 2) {
+                sources[i][0] = Integer.MIN_VALUE;
+                sources[i][1] = Integer.MAX_VALUE;
+            }
+            Arrays.sort(sources[i]);
+        }
+        return sources;
+    }
+
+    /** Returns sorted concatenation of sources. */
+    private static int[] expected(int[][] sources) {
+        int[] expected = new int[0];
+        for (int[] source : sources) {
+            int from = expected.length;
+            expected = Arrays.copyOf(expected, from + source.length);
+            System.arraycopy(source, 0, expected, from, source.length);
+        }
+        Arrays.sort(expected);
+        return expected;
+    }
+
+}
@@ -0,0 +1,114 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests sorting of objects with comparator and with key extractor in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class ObjectSortsTest {
+
+    /* Testing strategy
+     *      Sorting: merge sort with comparator, quick sort with comparator, int key, long key.
+     *      Random keys, including MIN_VALUE and MAX_VALUE.
+     *      Frequently repeating keys: stable sorts keep order of equal elements.
+     *      Sorted array.
+     *      Empty array, size 1 array.
+     *      Result is compared with Arrays.sort, which is stable.
+     */
+
+    /** Size of arrays, positive. */
+    private static final int ARRAYS_SIZE = 10000;
+
+    /** Object with key and position in original array. */
+    private static class Record {
+
+        private final long key;
+        private final int position;
+
+        Record(long key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+
+        @Override
+        public String toString() {
+            return key + "@" + position;
+        }
+
+    }
+
+    /** Order of records by keys. */
+    private static final Comparator<Record> BY_KEY = Comparator.comparingLong(record -> record.key);
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testMergeSort() {
+        for (Record[] input : testArrays(true)) {
+            Record[] array = Arrays.copyOf(input, input.length);
+            MergeSort.sort(array, BY_KEY);
+            assertArrayEquals(expected(input), array);
+        }
+    }
+
+    @Test
+    public void testQuickSort() {
+        for (Record[] input : testArrays(true)) {
+            Record[] array = Arrays.copyOf(input, input.length);
+            QuickSort.sort(array, BY_KEY);
+            Record[] expected = expected(input);
+            for (int i = 0; i < array.length; i++) { // not stable, compare only keys
+                assert array[i].key == expected[i].key;
+            }
+        }
+    }
+
+    @Test
+    public void testIntKeySort() {
+        for (Record[] input : testArrays(false)) {
+            Record[] array = Arrays.copyOf(input, input.length);
+            KeySort.sortByIntKey(array, record -> (int) record.key);
+            assertArrayEquals(expected(input), array);
+        }
+    }
+
+    @Test
+    public void testLongKeySort() {
+        for (Record[] input : testArrays(true)) {
+            Record[] array = Arrays.copyOf(input, input.length);
+            KeySort.sortByLongKey(array, record -> record.key);
+            assertArrayEquals(expected(input), array);
+        }
+    }
+
+    /** Returns random, repeating, sorted, empty and size 1 arrays of records.
+     *
+     * @param longKeys true == keys are any longs, false == keys are ints
+     */
+    private Record[][] testArrays(boolean longKeys) {
+        Record[] random = new Record[ARRAYS_SIZE];
+        Record[] repeating = new Record[ARRAYS_SIZE];
+        Record[] sorted = new Record[ARRAYS_SIZE];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            random[i] = new Record(longKeys ? randomizer.nextLong() : randomizer.nextInt(), i);
+            repeating[i] = new Record(randomizer.nextInt(10) - 5, i);
+            sorted[i] = new Record(i, i);
+        }
+        random[0] = new Record(longKeys ? Long.MIN_VALUE : Integer.MIN_VALUE, 0);
+        random[1] = new Record(longKeys ? Long.MAX_VALUE : Integer.MAX_VALUE, 1);
+        return new Record[][] {random, repeating, sorted, new Record[0], new Record[] {new Record(1, 0)}};
+    }
+
+    /** Returns copy of input, sorted by keys with stable Arrays.sort. */
+    private Record[] expected(Record[] input) {
+        Record[] expected = Arrays.copyOf(input, input.length);
+        Arrays.sort(expected, BY_KEY);
+        return expected;
+    }
+
+}
@@ -0,0 +1,181 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests sorting algorithms for longs, doubles, floats, shorts and chars in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class PrimitiveSortsTest {
+
+    /* Testing strategy
+     *      Each type: long, double, float, short, char.
+     *      Each algorithm: sort, insertion, merge, quick.
+     *      Random array, larger than thresholds of quick sort and counting sort.
+     *      Frequently repeating numbers.
+     *      Special values: MIN_VALUE, MAX_VALUE, NaN, -0.0 and 0.0, infinities.
+     *      Empty array.
+     *      Result is compared with Arrays.sort, which orders doubles and floats same as Double.compare,
+     *              doubles and floats are compared by raw bits.
+     */
+
+    /** Size of arrays, positive. */
+    private static final int ARRAYS_SIZE = 10000;
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testLongs() {
+        long[] random = new long[ARRAYS_SIZE];
+        long[] repeating = new long[ARRAYS_SIZE];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            random[i] = randomizer.nextLong();
+            repeating[i] = randomizer.nextInt(10) - 5;
+        }
+        random[0] = Long.MIN_VALUE;
+        random[1] = Long.MAX_VALUE;
+        for (long[] input : new long[][] {random, repeating, new long[0]}) {
+            long[] expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            for (int algorithm = 0; algorithm < 4; algorithm++) {
+                long[] array = Arrays.copyOf(input, input.length);
+                switch (algorithm) {
+                    case 0: LongSort.sort(array); break;
+                    case 1: LongSort.insertionSort(array); break;
+                    case 2: LongSort.mergeSort(array); break;
+                    default: LongSort.quickSort(array); break;
+                }
+                assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void testDoubles() {
+        double[] random = new double[ARRAYS_SIZE];
+        double[] repeating = new double[ARRAYS_SIZE];
+        double[] special = {Double.NaN, 0.0, -0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            random[i] = randomizer.nextGaussian();
+            repeating[i] = special[randomizer.nextInt(special.length)];
+        }
+        for (double[] input : new double[][] {random, repeating, special, new double[0]}) {
+            double[] expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            for (int algorithm = 0; algorithm < 4; algorithm++) {
+                double[] array = Arrays.copyOf(input, input.length);
+                switch (algorithm) {
+                    case 0: DoubleSort.sort(array); break;
+                    case 1: DoubleSort.insertionSort(array); break;
+                    case 2: DoubleSort.mergeSort(array); break;
+                    default: DoubleSort.quickSort(array); break;
+                }
+                assertSameBits(expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void testFloats() {
+        float[] random = new float[ARRAYS_SIZE];
+        float[] repeating = new float[ARRAYS_SIZE];
+        float[] special = {Float.NaN, 0.0f, -0.0f, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                Float.MIN_VALUE, -Float.MIN_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            random[i] = (float) randomizer.nextGaussian();
+            repeating[i] = special[randomizer.nextInt(special.length)];
+        }
+        for (float[] input : new float[][] {random, repeating, special, new float[0]}) {
+            float[] expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            for (int algorithm = 0; algorithm < 4; algorithm++) {
+                float[] array = Arrays.copyOf(input, input.length);
+                switch (algorithm) {
+                    case 0: FloatSort.sort(array); break;
+                    case 1: FloatSort.insertionSort(array); break;
+                    case 2: FloatSort.mergeSort(array); break;
+                    default: FloatSort.quickSort(array); break;
+                }
+                assertSameBits(expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void testShorts() {
+        short[] random = new short[ARRAYS_SIZE];
+        short[] small = new short[50];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            random[i] = (short) randomizer.nextInt();
+        }
+        random[0] = Short.MIN_VALUE;
+        random[1] = Short.MAX_VALUE;
+        for (int i = 0; i < small.length; i++) {
+            small[i] = (short) randomizer.nextInt();
+        }
+        for (short[] input : new short[][] {random, small, new short[0]}) {
+            short[] expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            for (int algorithm = 0; algorithm < 4; algorithm++) {
+                short[] array = Arrays.copyOf(input, input.length);
+                switch (algorithm) {
+                    case 0: ShortSort.sort(array); break;
+                    case 1: ShortSort.insertionSort(array); break;
+                    case 2: ShortSort.mergeSort(array); break;
+                    default: ShortSort.quickSort(array); break;
+                }
+                assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void testChars() {
+        char[] random = new char[ARRAYS_SIZE];
+        char[] small = new char[50];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            random[i] = (char) randomizer.nextInt();
+        }
+        random[0] = Character.MIN_VALUE;
+        random[1] = Character.MAX_VALUE;
+        for (int i = 0; i < small.length; i++) {
+            small[i] = (char) randomizer.nextInt();
+        }
+        for (char[] input : new char[][] {random, small, new char[0]}) {
+            char[] expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            for (int algorithm = 0; algorithm < 4; algorithm++) {
+                char[] array = Arrays.copyOf(input, input.length);
+                switch (algorithm) {
+                    case 0: CharSort.sort(array); break;
+                    case 1: CharSort.insertionSort(array); break;
+                    case 2: CharSort.mergeSort(array); break;
+                    default: CharSort.quickSort(array); break;
+                }
+                assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    /** Compares doubles by raw bits, so -0.0 and 0.0 are different (delta comparison treats them as equal). */
+    private static void assertSameBits(double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("index " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+        }
+    }
+
+    /** Compares floats by raw bits, so -0.0f and 0.0f are different. */
+    private static void assertSameBits(float[] expected, float[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("index " + i, Float.floatToRawIntBits(expected[i]), Float.floatToRawIntBits(actual[i]));
+        }
+    }
+
+}
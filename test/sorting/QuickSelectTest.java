@@ -0,0 +1,111 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests selection, partial sort and top-k in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class QuickSelectTest {
+
+    /* Testing strategy
+     *      Random array, array with frequently repeating numbers, same numbers, sorted, backwards sorted.
+     *      k: 0, 1, middle, n - 1, n (partial sort and top-k only).
+     *      top-k: small k (heap) and large k (copy of input).
+     *      Size 1 array, empty array (partial sort and top-k only).
+     *      k out of bounds.
+     *      Result is compared with Arrays.sort.
+     */
+
+    /** Size of arrays, positive. */
+    private static final int ARRAYS_SIZE = 100000;
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testSelect() {
+        for (int[] input : testArrays()) {
+            int[] expected = sorted(input);
+            for (int k : ks(input.length)) {
+                if (k < input.length) {
+                    int[] array = Arrays.copyOf(input, input.length);
+                    assertEquals(expected[k], QuickSelect.select(array, k));
+                    for (int i = 0; i < array.length; i++) {
+                        assertTrue(i < k ? array[i] <= array[k] : array[i] >= array[k]);
+                    }
+                    assertArrayEquals(expected, sorted(array));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPartialSort() {
+        for (int[] input : testArrays()) {
+            int[] expected = sorted(input);
+            for (int k : ks(input.length)) {
+                int[] array = Arrays.copyOf(input, input.length);
+                QuickSelect.partialSort(array, k);
+                assertArrayEquals(Arrays.copyOf(expected, k), Arrays.copyOf(array, k));
+                assertArrayEquals(expected, sorted(array));
+            }
+        }
+    }
+
+    @Test
+    public void testTopK() {
+        for (int[] input : testArrays()) {
+            int[] expected = sorted(input);
+            int[] copy = Arrays.copyOf(input, input.length);
+            for (int k : ks(input.length)) {
+                assertArrayEquals(Arrays.copyOf(expected, k), QuickSelect.topK(input, k));
+            }
+            assertArrayEquals(copy, input);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectOutOfBounds() {
+        QuickSelect.select(new int[] { 1, 2, 3 }, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopKOutOfBounds() {
+        QuickSelect.topK(new int[] { 1, 2, 3 }, -1);
+    }
+
+    /** Returns array of k for array of specified size. */
+    private int[] ks(int size) {
+        return new int[] { 0, Math.min(1, size), size / 100, size / 2, Math.max(size - 1, 0), size };
+    }
+
+    /** Returns sorted copy of input. */
+    private static int[] sorted(int[] input) {
+        int[] array = Arrays.copyOf(input, input.length);
+        Arrays.sort(array);
+        return array;
+    }
+
+    /** Returns arrays for testing. */
+    private int[][] testArrays() {
+        int[] random = new int[ARRAYS_SIZE];
+        int[] repeating = new int[ARRAYS_SIZE];
+        int[] same = new int[ARRAYS_SIZE];
+        int[] sorted = new int[ARRAYS_SIZE];
+        int[] backwards = new int[ARRAYS_SIZE];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            random[i] = randomizer.nextInt();
+            repeating[i] = randomizer.nextInt(10);
+            same[i] = 7;
+            sorted[i] = i;
+            backwards[i] = ARRAYS_SIZE - i;
+        }
+        return new int[][] { random, repeating, same, sorted, backwards, new int[] { 5 }, new int[0] };
+    }
+
+}
@@ -1,8 +1,13 @@
 package sorting;
 
+import static org.junit.Assert.assertArrayEquals;
+
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 /** Tests radix sort algorithm in sortings package. */
@@ -14,12 +19,14 @@ public class RadixSortTest {
      *      Random array.
      *      Frequently repeating strings.
      *      Same strings.
+     *      Strings with characters charFrom and charTo, bounds of alphabet.
+     *      Parallel MSD radix sort: pool with several workers and common pool, URLs with skewed prefixes, stability.
      */
 
     /** Types of sortings. */
     private enum SortingTypes {
         ARRAYS_SORT("Built-in Arrays.sort()"), ARRAYS_PARALLEL_SORT("Built-in Arrays.parallelSort()"),
-        RADIX("Radix Sort");
+        RADIX("Radix Sort"), MSD_RADIX("MSD Radix Sort"), PARALLEL_MSD_RADIX("Parallel MSD Radix Sort");
 
         /** String representation of sorting type. */
         private final String representation;
@@ -45,6 +52,8 @@ public class RadixSortTest {
     private static final String ARRAYS_SIZE_FORMATTED = String.format("%.0e", (float) ARRAYS_SIZE);
     /** True == print execution time on out. */
     private static final boolean PRINT_TIME = true;
+    /** Pool for parallel sorts, with several workers even on one core. */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
 
     /** Sorted ASC array[ARRAYS_SIZE] of strings with each string length in STR_LENGTH. */
     private static final String[] SORTED_ARRAY;
@@ -58,6 +67,13 @@ public class RadixSortTest {
     /** Array length ARRAYS_SIZE of random strings with each string length in STR_LENGTH and frequently repeating. */
     private static final String[] RANDOM_REPEATING_ARRAY;
 
+    /** Array of random ints, both negative and positive, including Integer.MIN_VALUE and Integer.MAX_VALUE. */
+    private static final int[] RANDOM_INTS_ARRAY;
+    /** Array of random longs, both negative and positive, including Long.MIN_VALUE and Long.MAX_VALUE. */
+    private static final long[] RANDOM_LONGS_ARRAY;
+    /** Array of random small ints in [0..1000), where all high bytes are same. */
+    private static final int[] SMALL_INTS_ARRAY;
+
     /** Empty array. */
     private static final String[] EMPTY_ARRAY = new String[0];
     /** Size 1 array. */
@@ -93,6 +109,19 @@ public class RadixSortTest {
         Arrays.sort(SORTED_ARRAY);
         Arrays.sort(BACKWARDS_SORTED_ARRAY, Collections.reverseOrder());
 
+        RANDOM_INTS_ARRAY = new int[ARRAYS_SIZE];
+        RANDOM_LONGS_ARRAY = new long[ARRAYS_SIZE];
+        SMALL_INTS_ARRAY = new int[ARRAYS_SIZE];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            RANDOM_INTS_ARRAY[i] = randomizer.nextInt();
+            RANDOM_LONGS_ARRAY[i] = randomizer.nextLong();
+            SMALL_INTS_ARRAY[i] = randomizer.nextInt(1000);
+        }
+        RANDOM_INTS_ARRAY[0] = Integer.MIN_VALUE;
+        RANDOM_INTS_ARRAY[1] = Integer.MAX_VALUE;
+        RANDOM_LONGS_ARRAY[0] = Long.MIN_VALUE;
+        RANDOM_LONGS_ARRAY[1] = Long.MAX_VALUE;
+
     }
 
     @Test
@@ -111,6 +140,101 @@ public class RadixSortTest {
         testAllSorts(SortingTypes.RADIX);
     }
 
+    /** Testing LSD and MSD Radix sort of strings, containing first and last characters of alphabet. */
+    @Test
+    public void testAlphabetBounds() {
+        String[] input = { "fa0", "f", "0f", "", "00", "ff", "a", "0" };
+        String[] expected = input.clone();
+        Arrays.sort(expected);
+        String[] array = input.clone();
+        RadixSort.sort(array, '0', 'f', 3);
+        assertArrayEquals(expected, array);
+        array = input.clone();
+        MsdRadixSort.sort(array, '0', 'f');
+        assertArrayEquals(expected, array);
+    }
+
+    /** Testing Radix sort of ints and longs. */
+    @Test
+    public void testRadixSortPrimitives() {
+        int[] expected = Arrays.copyOf(RANDOM_INTS_ARRAY, ARRAYS_SIZE);
+        Arrays.sort(expected);
+        int[] array = Arrays.copyOf(RANDOM_INTS_ARRAY, ARRAYS_SIZE);
+        RadixSort.sort(array);
+        assertArrayEquals(expected, array);
+
+        expected = Arrays.copyOf(SMALL_INTS_ARRAY, ARRAYS_SIZE);
+        Arrays.sort(expected);
+        array = Arrays.copyOf(SMALL_INTS_ARRAY, ARRAYS_SIZE);
+        RadixSort.sort(array);
+        assertArrayEquals(expected, array);
+
+        long[] expectedLongs = Arrays.copyOf(RANDOM_LONGS_ARRAY, ARRAYS_SIZE);
+        Arrays.sort(expectedLongs);
+        long[] longs = Arrays.copyOf(RANDOM_LONGS_ARRAY, ARRAYS_SIZE);
+        RadixSort.sort(longs);
+        assertArrayEquals(expectedLongs, longs);
+
+        RadixSort.sort(new int[0]);
+        RadixSort.sort(new long[0]);
+
+        // prefix of array with reused buffer, elements after prefix are not changed
+        long[] buffer = new long[ARRAYS_SIZE];
+        for (int size : new int[] { ARRAYS_SIZE, ARRAYS_SIZE / 2, 1 }) {
+            longs = Arrays.copyOf(RANDOM_LONGS_ARRAY, ARRAYS_SIZE);
+            expectedLongs = Arrays.copyOf(RANDOM_LONGS_ARRAY, ARRAYS_SIZE);
+            Arrays.sort(expectedLongs, 0, size);
+            RadixSort.sort(longs, size, buffer);
+            assertArrayEquals(expectedLongs, longs);
+        }
+    }
+
+    /** Testing MSD Radix sort. */
+    @Test
+    public void testMsdRadixSort() {
+        testAllSorts(SortingTypes.MSD_RADIX);
+
+        // MSD radix sort moves references and keeps original instances
+        String[] array = Arrays.copyOf(RANDOM_ARRAY, ARRAYS_SIZE);
+        MsdRadixSort.sort(array, CHAR_FROM, ALPHABET_SIZE + CHAR_FROM);
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>());
+        instances.addAll(Arrays.asList(RANDOM_ARRAY));
+        for (String s : array) {
+            assert instances.contains(s);
+        }
+    }
+
+    /** Testing parallel MSD Radix sort. */
+    @Test
+    public void testParallelMsdRadixSort() {
+        testAllSorts(SortingTypes.PARALLEL_MSD_RADIX);
+    }
+
+    /** Testing parallel MSD Radix sort on URLs with long common and skewed prefixes, equal strings keep order. */
+    @Test
+    public void testParallelMsdRadixSortUrls() {
+        Random randomizer = new Random();
+        String[] hosts = { "http://a.com/", "http://a.com/b/", "https://a.com/", "http://www.example.org/x/" };
+        String[] urls = new String[100000];
+        for (int i = 0; i < urls.length; i++) {
+            // most URLs fall into one bucket, some strings are equal
+            String host = hosts[randomizer.nextInt(10) < 7 ? 0 : randomizer.nextInt(hosts.length)];
+            urls[i] = new String(host + Integer.toString(randomizer.nextInt(urls.length / 2), 36));
+        }
+        urls[0] = "";
+        urls[1] = new String(hosts[0]);
+        String[] expected = Arrays.copyOf(urls, urls.length);
+        Arrays.sort(expected);
+        for (ForkJoinPool pool : new ForkJoinPool[] { POOL, ForkJoinPool.commonPool() }) {
+            String[] array = Arrays.copyOf(urls, urls.length);
+            MsdRadixSort.parallelSort(array, 0, Character.MAX_VALUE, pool);
+            for (int i = 0; i < array.length; i++) {
+                assert array[i] == expected[i];
+            }
+        }
+        MsdRadixSort.parallelSort(new String[0], 0, 1);
+    }
+
     private void testAllSorts(SortingTypes sortingType) {
         testSortOnArray(SORTED_ARRAY, "SORTED_ARRAY", sortingType);
         testSortOnArray(BACKWARDS_SORTED_ARRAY, "BACKWARDS_SORTED_ARRAY", sortingType);
@@ -141,6 +265,12 @@ public class RadixSortTest {
             case RADIX:
                 RadixSort.sort(array, CHAR_FROM, ALPHABET_SIZE + CHAR_FROM, STR_LENGTH);
                 break;
+            case MSD_RADIX:
+                MsdRadixSort.sort(array, CHAR_FROM, ALPHABET_SIZE + CHAR_FROM);
+                break;
+            case PARALLEL_MSD_RADIX:
+                MsdRadixSort.parallelSort(array, CHAR_FROM, ALPHABET_SIZE + CHAR_FROM, POOL);
+                break;
             default:
                 throw new RuntimeException("unknown sorting type");
         }
@@ -0,0 +1,186 @@
+package sorting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests in-place sort of binary records in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class RecordSortTest {
+
+    /* Testing strategy
+     *      Buffer: heap, direct, mapped file, part of buffer between position and limit.
+     *      Layout: 16-byte records with 8-byte key at offset 8, odd widths (7-byte records with 3-byte key).
+     *      Keys: random, few unique (shared bytes skipped), equal, small sizes (insertion sort), zero key width.
+     *      Records: payload moves together with key.
+     *      Errors: invalid layout, partial record, read-only buffer.
+     */
+
+    /** Number of records. */
+    private static final int SIZE = 50000;
+
+    /** Random generator for records. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testHeapBuffer() {
+        for (int size : new int[] { 0, 1, 2, 31, 33, 1000, SIZE }) {
+            check(ByteBuffer.allocate(16 * size), 16, 8, 8, -1);
+        }
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        check(ByteBuffer.allocateDirect(16 * SIZE), 16, 8, 8, -1);
+        check(ByteBuffer.allocateDirect(16 * SIZE), 16, 8, 8, 5);
+    }
+
+    @Test
+    public void testFewUniqueAndEqualKeys() {
+        check(ByteBuffer.allocate(16 * SIZE), 16, 8, 8, 3);
+        check(ByteBuffer.allocate(16 * SIZE), 16, 8, 8, 1);
+    }
+
+    @Test
+    public void testOddLayout() {
+        check(ByteBuffer.allocate(7 * SIZE), 7, 2, 3, -1);
+        check(ByteBuffer.allocate(7 * SIZE), 7, 0, 7, 100);
+    }
+
+    @Test
+    public void testPartOfBuffer() {
+        byte[] array = new byte[3 + 16 * 1000 + 2];
+        randomizer.nextBytes(array);
+        byte[] original = array.clone();
+        ByteBuffer buffer = ByteBuffer.wrap(array, 3, 16 * 1000);
+
+        byte[][] expected = sortedRecords(buffer, 16, 8, 8);
+        RecordSort.sort(buffer, 16, 8, 8);
+        assertEquals(3, buffer.position());
+        assertEquals(array.length - 2, buffer.limit());
+        assertSorted(expected, buffer, 16, 8, 8);
+        for (int i : new int[] { 0, 1, 2, array.length - 2, array.length - 1 }) {
+            assertEquals(original[i], array[i]); // bytes out of position..limit are not modified
+        }
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        Path file = Files.createTempFile("records", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16 * SIZE);
+            check(buffer, 16, 8, 8, -1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testZeroKeyWidth() {
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 100);
+        fill(buffer, 16, 8, 8, -1);
+        byte[][] before = records(buffer, 16);
+        RecordSort.sort(buffer, 16, 8, 0);
+        assertTrue(Arrays.deepEquals(before, records(buffer, 16)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyOutsideOfRecord() {
+        RecordSort.sort(ByteBuffer.allocate(160), 16, 10, 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartialRecord() {
+        RecordSort.sort(ByteBuffer.allocate(161), 16, 8, 8);
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void testReadOnlyBuffer() {
+        RecordSort.sort(ByteBuffer.allocate(160).asReadOnlyBuffer(), 16, 8, 8);
+    }
+
+    /** Fills buffer with records, sorts it and compares records with records sorted by Arrays.sort.
+     *
+     * @param uniqueKeys Number of distinct keys, -1 == random keys
+     */
+    private void check(ByteBuffer buffer, int recordWidth, int keyOffset, int keyWidth, int uniqueKeys) {
+        fill(buffer, recordWidth, keyOffset, keyWidth, uniqueKeys);
+        byte[][] expected = sortedRecords(buffer, recordWidth, keyOffset, keyWidth);
+        RecordSort.sort(buffer, recordWidth, keyOffset, keyWidth);
+        assertEquals(0, buffer.position());
+        assertSorted(expected, buffer, recordWidth, keyOffset, keyWidth);
+    }
+
+    /** Checks that keys of buffer are in order and buffer contains same records as expected. */
+    private static void assertSorted(byte[][] expected, ByteBuffer buffer, int recordWidth, int keyOffset,
+                                     int keyWidth) {
+        byte[][] actual = records(buffer, recordWidth);
+        for (int i = 1; i < actual.length; i++) {
+            assertTrue(compareUnsigned(actual[i - 1], actual[i], keyOffset, keyOffset + keyWidth) <= 0);
+        }
+        assertTrue(Arrays.deepEquals(expected, sortedRecords(buffer, recordWidth, keyOffset, keyWidth)));
+    }
+
+    /** Fills records of buffer with random payload and keys, keys are drawn from uniqueKeys random keys. */
+    private void fill(ByteBuffer buffer, int recordWidth, int keyOffset, int keyWidth, int uniqueKeys) {
+        byte[][] keys = new byte[Math.max(uniqueKeys, 0)][keyWidth];
+        for (byte[] key : keys) {
+            randomizer.nextBytes(key);
+        }
+        byte[] record = new byte[recordWidth];
+        for (int i = 0; i < buffer.capacity() / recordWidth; i++) {
+            randomizer.nextBytes(record);
+            if (uniqueKeys > 0) {
+                System.arraycopy(keys[randomizer.nextInt(uniqueKeys)], 0, record, keyOffset, keyWidth);
+            }
+            for (int j = 0; j < recordWidth; j++) {
+                buffer.put(i * recordWidth + j, record[j]);
+            }
+        }
+    }
+
+    /** Returns records between position and limit of buffer, sorted by keys and then by whole records.
+     * Sort is not stable, so records with equal keys are compared as sorted by whole record.
+     */
+    private static byte[][] sortedRecords(ByteBuffer buffer, int recordWidth, int keyOffset, int keyWidth) {
+        byte[][] records = records(buffer, recordWidth);
+        Arrays.sort(records, (a, b) -> {
+            int result = compareUnsigned(a, b, keyOffset, keyOffset + keyWidth);
+            return result != 0 ? result : compareUnsigned(a, b, 0, recordWidth);
+        });
+        return records;
+    }
+
+    /** Returns copies of records between position and limit of buffer. */
+    private static byte[][] records(ByteBuffer buffer, int recordWidth) {
+        byte[][] records = new byte[buffer.remaining() / recordWidth][recordWidth];
+        for (int i = 0; i < records.length; i++) {
+            for (int j = 0; j < recordWidth; j++) {
+                records[i][j] = buffer.get(buffer.position() + i * recordWidth + j);
+            }
+        }
+        return records;
+    }
+
+    /** Compares bytes from..to-1 of a and b as unsigned. */
+    private static int compareUnsigned(byte[] a, byte[] b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (a[i] != b[i]) {
+                return (a[i] & 0xFF) - (b[i] & 0xFF);
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,131 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/** Tests parallel sample sort algorithm in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class SampleSortTest {
+
+    /* Testing strategy
+     *      Size: empty, small (sequential path), large (parallel path).
+     *      Keys: random, sorted, reversed, few unique keys (equal splitters), one key, extreme values.
+     *      Pool: several workers, one worker (sequential path), common pool.
+     *      Types: ints, longs.
+     */
+
+    /** Size of arrays sorted by parallel path. */
+    private static final int SIZE = 300000;
+    /** Pool with several workers, so parallel path runs on machines with one core too. */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @AfterClass
+    public static void tearDown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testEmptyAndSmall() {
+        check(new int[0], POOL);
+        check(new int[] { 1 }, POOL);
+        check(randomInts(1000, Integer.MAX_VALUE), POOL);
+        SampleSort.parallelSort((int[]) null, POOL);
+    }
+
+    @Test
+    public void testRandom() {
+        check(randomInts(SIZE, Integer.MAX_VALUE), POOL);
+        check(randomInts(SIZE, 1000000), POOL);
+    }
+
+    @Test
+    public void testSortedAndReversed() {
+        int[] input = randomInts(SIZE, Integer.MAX_VALUE);
+        Arrays.sort(input);
+        check(input, POOL);
+        for (int i = 0, j = input.length - 1; i < j; i++, j--) {
+            int tmp = input[i];
+            input[i] = input[j];
+            input[j] = tmp;
+        }
+        check(input, POOL);
+    }
+
+    @Test
+    public void testFewUniqueKeys() {
+        check(randomInts(SIZE, 3), POOL);
+        check(randomInts(SIZE, 200), POOL);
+        check(new int[SIZE], POOL);
+        int[] input = randomInts(SIZE, 1000000);
+        for (int i = 0; i < SIZE; i += 2) {
+            input[i] = 42; // half of keys are equal
+        }
+        check(input, POOL);
+    }
+
+    @Test
+    public void testExtremeValues() {
+        int[] input = randomInts(SIZE, Integer.MAX_VALUE);
+        for (int i = 0; i < SIZE; i += 3) {
+            input[i] = i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        }
+        check(input, POOL);
+    }
+
+    @Test
+    public void testPools() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            check(randomInts(SIZE, Integer.MAX_VALUE), single);
+        } finally {
+            single.shutdown();
+        }
+        int[] input = randomInts(SIZE, Integer.MAX_VALUE);
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        SampleSort.parallelSort(input);
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    public void testLongs() {
+        long[] input = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            input[i] = i % 5 == 0 ? Long.MIN_VALUE + randomizer.nextInt(4) : randomizer.nextLong();
+        }
+        long[] expected = input.clone();
+        Arrays.sort(expected);
+        SampleSort.parallelSort(input, POOL);
+        assertArrayEquals(expected, input);
+
+        input = new long[] { 3, -1, 2 };
+        SampleSort.parallelSort(input);
+        assertArrayEquals(new long[] { -1, 2, 3 }, input);
+    }
+
+    /** Sorts input with sample sort and compares result with Arrays.sort of its copy. */
+    private static void check(int[] input, ForkJoinPool pool) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        SampleSort.parallelSort(input, pool);
+        assertArrayEquals(expected, input);
+    }
+
+    /** Returns array of random ints from [0..bound-1], or from whole range if bound == Integer.MAX_VALUE. */
+    private int[] randomInts(int size, int bound) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = bound == Integer.MAX_VALUE ? randomizer.nextInt() : randomizer.nextInt(bound);
+        }
+        return array;
+    }
+
+}
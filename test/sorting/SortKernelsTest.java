@@ -0,0 +1,139 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests kernels of quick sort: leaf sorts and partitions (including block partition) in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class SortKernelsTest {
+
+    /* Testing strategy
+     *      Kernels: scalar, chosen at startup (vectorized, if Vector API is available), block partition.
+     *      Sizes of parts: 0..LEAF_SIZE for sort, 2..700 for partition (below and above 2 vectors and 2 blocks).
+     *      Random numbers, frequently repeating numbers, same numbers, sorted, backwards sorted,
+     *      MIN_VALUE and MAX_VALUE.
+     *      Parts in the middle of array: elements outside of part are not changed.
+     */
+
+    /** Number of random arrays for each size. */
+    private static final int REPEATS = 20;
+    /** Size of margins around part. */
+    private static final int MARGIN = 3;
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testScalarSort() {
+        testSort(new SortKernels.Scalar());
+    }
+
+    @Test
+    public void testScalarPartition() {
+        SortKernel kernel = new SortKernels.Scalar();
+        testPartition(kernel.toString(), kernel::partition);
+    }
+
+    @Test
+    public void testBlockPartition() {
+        testPartition("block partition", (input, left, right) -> {
+            int part = BlockPartition.partition(input, left, right);
+            return (long) part << Integer.SIZE | part + 1; // bounds of part equal to pivot: just pivot itself
+        });
+    }
+
+    @Test
+    public void testKernelSort() {
+        testSort(SortKernels.KERNEL);
+    }
+
+    @Test
+    public void testKernelPartition() {
+        testPartition(SortKernels.KERNEL.toString(), SortKernels.KERNEL::partition);
+    }
+
+    /** Sorts parts of all sizes up to LEAF_SIZE and compares them with Arrays.sort. */
+    private void testSort(SortKernel kernel) {
+        for (int size = 0; size <= SortKernel.LEAF_SIZE; size++) {
+            for (int repeat = 0; repeat < REPEATS; repeat++) {
+                int[] input = randomArray(size + 2 * MARGIN, repeat);
+                int[] expected = Arrays.copyOf(input, input.length);
+                Arrays.sort(expected, MARGIN, MARGIN + size);
+                kernel.sort(input, MARGIN, MARGIN + size);
+                assertArrayEquals(kernel + " size " + size, expected, input);
+            }
+        }
+    }
+
+    /** Partitions parts of various sizes and checks contract of SortKernel.partition. */
+    private void testPartition(String name, Partition partition) {
+        for (int size = 2; size <= 700; size++) {
+            for (int repeat = 0; repeat < REPEATS; repeat++) {
+                int[] input = randomArray(size + 2 * MARGIN, repeat);
+                int[] copy = Arrays.copyOf(input, input.length);
+                int pivot = input[MARGIN + size - 1];
+                long bounds = partition.partition(input, MARGIN, MARGIN + size);
+                int leftTo = (int) (bounds >>> Integer.SIZE);
+                int rightFrom = (int) bounds;
+
+                assertTrue(name, MARGIN <= leftTo && leftTo <= rightFrom && rightFrom <= MARGIN + size);
+                assertTrue(name, leftTo - MARGIN < size && MARGIN + size - rightFrom < size);
+                for (int i = MARGIN; i < leftTo; i++) {
+                    assertTrue(input[i] <= pivot);
+                }
+                for (int i = leftTo; i < rightFrom; i++) {
+                    assertEquals(pivot, input[i]);
+                }
+                for (int i = rightFrom; i < MARGIN + size; i++) {
+                    assertTrue(input[i] >= pivot);
+                }
+                assertArrayEquals(name, Arrays.copyOfRange(copy, 0, MARGIN), Arrays.copyOfRange(input, 0, MARGIN));
+                assertArrayEquals(name, Arrays.copyOfRange(copy, MARGIN + size, copy.length),
+                        Arrays.copyOfRange(input, MARGIN + size, input.length));
+                Arrays.sort(input, MARGIN, MARGIN + size); // part is permutation of itself
+                Arrays.sort(copy, MARGIN, MARGIN + size);
+                assertArrayEquals(name, copy, input);
+            }
+        }
+    }
+
+    /** Partition under test, returns bounds of part equal to pivot as SortKernel.partition. */
+    private interface Partition {
+        long partition(int[] input, int left, int right);
+    }
+
+    /** Returns array of specified size, kind of numbers depends on repeat. */
+    private int[] randomArray(int size, int repeat) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            switch (repeat % 5) {
+                case 0:
+                    array[i] = randomizer.nextInt(5);
+                    break;
+                case 1:
+                    array[i] = 7;
+                    break;
+                case 2:
+                    array[i] = i;
+                    break;
+                case 3:
+                    array[i] = -i;
+                    break;
+                default:
+                    array[i] = randomizer.nextInt();
+                    break;
+            }
+        }
+        if (size > MARGIN + 1 && repeat % 5 == 4) {
+            array[MARGIN] = Integer.MAX_VALUE;
+            array[size - MARGIN - 1] = Integer.MIN_VALUE;
+        }
+        return array;
+    }
+
+}
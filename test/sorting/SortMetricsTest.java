@@ -0,0 +1,269 @@
+package sorting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/** Tests metrics of sorting calls in sortings package.
+ * Metrics are switched at startup, so checks of counters are made only when tests run with -Dsorting.metrics=true,
+ * otherwise tests check that nothing is recorded, and testMetricsEnabled runs this class and JfrSortSinkTest again
+ * in a forked JVM with metrics enabled.
+ */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class SortMetricsTest {
+
+    /* Testing strategy
+     *      Metrics: disabled (no records, comparator is not wrapped), enabled (in this JVM or in forked JVM).
+     *      Calls: Sorts.sort with nested calls of sorters (one record), quick sort (no heap sort fallback on random
+     *      input), merge sort, object sort with counting comparator, several calls in a row, not instrumented call,
+     *      quick sort with VECTOR partition of all equal and few unique keys (no heap sort fallback),
+     *      sink throwing at start of call.
+     *      Partitions: each partition algorithm of quick sort reports swaps.
+     *      Entry points: each instrumented sorter called directly has own record with its name and size.
+     */
+
+    /** Size of arrays. */
+    private static final int SIZE = 10000;
+    /** Time limit of tests in forked JVM in seconds. */
+    private static final int FORK_TIMEOUT = 120;
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testSortsRecordsOuterCall() {
+        List<SortMetrics.Record> records = record(() -> Sorts.sort(randomArray(SIZE)));
+        if (!SortMetrics.ENABLED) {
+            assertTrue(records.isEmpty());
+            return;
+        }
+        assertEquals(1, records.size());
+        SortMetrics.Record record = records.get(0);
+        assertEquals("Sorts", record.algorithm);
+        assertEquals(Sorts.Strategy.QUICK.name(), record.strategy);
+        assertEquals(SIZE, record.size);
+        assertTrue(record.comparisons >= SIZE);
+        assertTrue(record.maxDepth > 0);
+        assertTrue(record.fallbacks(SortMetrics.Fallback.INSERTION_CUTOFF) > 0);
+        assertTrue(record.nanos > 0);
+    }
+
+    @Test
+    public void testQuickSort() {
+        List<SortMetrics.Record> records = record(() -> {
+            QuickSort.sort(randomArray(SIZE));
+            QuickSort.sort(randomArray(10));
+        });
+        if (!SortMetrics.ENABLED) {
+            assertTrue(records.isEmpty());
+            return;
+        }
+        assertEquals(2, records.size());
+        assertEquals("QuickSort", records.get(0).algorithm);
+        assertNull(records.get(0).strategy);
+        assertTrue(records.get(0).maxDepth <= 2 * 14);
+        assertEquals(0, records.get(0).fallbacks(SortMetrics.Fallback.HEAP_SORT));
+        assertEquals(10, records.get(1).size);
+        assertEquals(1, records.get(1).maxDepth);
+        assertEquals(1, records.get(1).fallbacks(SortMetrics.Fallback.INSERTION_CUTOFF));
+    }
+
+    @Test
+    public void testVectorPartitionOfEqualKeys() {
+        int[] equal = new int[SIZE];
+        int[] fewUnique = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            equal[i] = 7;
+            fewUnique[i] = randomizer.nextInt(4);
+        }
+        List<SortMetrics.Record> records = record(() -> {
+            QuickSort.sort(equal, QuickSort.Partition.VECTOR);
+            QuickSort.sort(fewUnique, QuickSort.Partition.VECTOR);
+        });
+        for (int i = 1; i < SIZE; i++) {
+            assertTrue(equal[i - 1] <= equal[i] && fewUnique[i - 1] <= fewUnique[i]);
+        }
+        if (!SortMetrics.ENABLED) {
+            assertTrue(records.isEmpty());
+            return;
+        }
+        assertEquals(2, records.size());
+        for (SortMetrics.Record record : records) {
+            assertEquals(0, record.fallbacks(SortMetrics.Fallback.HEAP_SORT));
+        }
+    }
+
+    @Test
+    public void testPartitionsReportSwaps() {
+        for (QuickSort.Partition partition : QuickSort.Partition.values()) {
+            List<SortMetrics.Record> records = record(() -> QuickSort.sort(randomArray(SIZE), partition));
+            if (!SortMetrics.ENABLED) {
+                assertTrue(records.isEmpty());
+                continue;
+            }
+            assertEquals(1, records.size());
+            assertTrue(partition.name(), records.get(0).swaps + records.get(0).moves >= SIZE);
+        }
+    }
+
+    @Test
+    public void testEntryPoints() {
+        Integer[] objects = new Integer[SIZE];
+        String[] strings = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            objects[i] = randomizer.nextInt(100);
+            strings[i] = Integer.toString(randomizer.nextInt(1000));
+        }
+        List<SortMetrics.Record> records = record(() -> {
+            HeapSort.sort(randomArray(SIZE));
+            InsertionSort.sort(randomArray(100));
+            RadixSort.sort(randomArray(SIZE));
+            RadixSort.sort(randomizer.longs(SIZE).toArray());
+            CountingSort.sort(randomizer.ints(SIZE, 0, 100).toArray(), 0, 99);
+            CountingSort.sort(objects.clone(), Integer::intValue, 0, 99);
+            MsdRadixSort.sort(strings.clone(), '0', '9');
+            KeySort.sortByIntKey(objects.clone(), Integer::intValue);
+            KeySort.sortByLongKey(objects.clone(), Integer::longValue);
+            LongSort.sort(randomizer.longs(SIZE).toArray());
+            DoubleSort.mergeSort(randomizer.doubles(SIZE).toArray());
+            ShortSort.sort(new short[SIZE]);
+        });
+        if (!SortMetrics.ENABLED) {
+            assertTrue(records.isEmpty());
+            return;
+        }
+        String[] algorithms = { "HeapSort", "InsertionSort", "RadixSort", "RadixSort", "CountingSort", "CountingSort",
+                "MsdRadixSort", "KeySort", "KeySort", "LongSort.quick", "DoubleSort.merge", "ShortSort" };
+        assertEquals(algorithms.length, records.size());
+        for (int i = 0; i < algorithms.length; i++) {
+            assertEquals(algorithms[i], records.get(i).algorithm);
+            assertEquals(i == 1 ? 100 : SIZE, records.get(i).size);
+        }
+        assertTrue(records.get(0).swaps >= SIZE - 1);
+        assertTrue(records.get(1).comparisons > 0);
+        assertEquals(4L * SIZE, records.get(2).bytesAllocated);
+        assertEquals(8L * SIZE, records.get(10).bytesAllocated);
+    }
+
+    @Test
+    public void testMergeSort() {
+        List<SortMetrics.Record> records = record(() -> MergeSort.sort(randomArray(SIZE)));
+        if (!SortMetrics.ENABLED) {
+            assertTrue(records.isEmpty());
+            return;
+        }
+        assertEquals(1, records.size());
+        assertEquals(4L * SIZE, records.get(0).bytesAllocated);
+        assertTrue(records.get(0).moves >= SIZE);
+    }
+
+    @Test
+    public void testCountingComparator() {
+        Comparator<Integer> natural = Comparator.naturalOrder();
+        Comparator<Integer> counting = SortMetrics.counting(natural);
+        if (!SortMetrics.ENABLED) {
+            assertSame(natural, counting);
+            return;
+        }
+        Integer[] input = new Integer[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            input[i] = randomizer.nextInt();
+        }
+        List<SortMetrics.Record> records = record(() -> QuickSort.sort(input, counting));
+        assertEquals(1, records.size());
+        assertTrue(records.get(0).comparisons >= SIZE);
+    }
+
+    @Test
+    public void testThrowingSink() {
+        SortMetrics.setSink(new SortMetrics.Sink() {
+            @Override
+            public void started(String algorithm, int size) {
+                throw new IllegalStateException("sink failed");
+            }
+
+            @Override
+            public void accept(SortMetrics.Record record) {
+            }
+        });
+        try {
+            QuickSort.sort(randomArray(10));
+            assertFalse(SortMetrics.ENABLED); // sink is called only if metrics are enabled
+        } catch (IllegalStateException e) {
+            assertEquals("sink failed", e.getMessage());
+        } finally {
+            SortMetrics.setSink(null);
+        }
+        // failed call is not left in progress, so next call is outermost and has own record
+        List<SortMetrics.Record> records = record(() -> MergeSort.sort(randomArray(10)));
+        assertEquals(SortMetrics.ENABLED ? 1 : 0, records.size());
+    }
+
+    @Test
+    public void testRecordToString() {
+        List<SortMetrics.Record> records = record(() -> HeapSort.sort(randomArray(100)));
+        assertEquals(SortMetrics.ENABLED ? 1 : 0, records.size());
+        if (SortMetrics.ENABLED) {
+            assertTrue(records.get(0).toString().startsWith("HeapSort size=100"));
+        }
+        records = record(() -> Sorts.sort(randomArray(20)));
+        if (SortMetrics.ENABLED) {
+            assertTrue(records.get(0).toString().startsWith("Sorts(INSERTION) size=20"));
+        }
+    }
+
+    @Test
+    public void testMetricsEnabled() throws IOException, InterruptedException {
+        if (SortMetrics.ENABLED) {
+            return; // tests of this JVM check enabled metrics already
+        }
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dsorting.metrics=true", "-cp", System.getProperty("java.class.path"), "org.junit.runner.JUnitCore",
+                SortMetricsTest.class.getName(), "sorting.JfrSortSinkTest").redirectErrorStream(true).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            byte[] buffer = new byte[1 << 12];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                output.write(buffer, 0, read);
+            }
+        }
+        assertTrue("forked JVM timed out", process.waitFor(FORK_TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(new String(output.toByteArray(), StandardCharsets.UTF_8), 0, process.exitValue());
+    }
+
+    /** Runs action with sink, collecting records, and removes sink. */
+    private static List<SortMetrics.Record> record(Runnable action) {
+        List<SortMetrics.Record> records = new ArrayList<>();
+        SortMetrics.setSink(records::add);
+        try {
+            action.run();
+        } finally {
+            SortMetrics.setSink(null);
+        }
+        return records;
+    }
+
+    /** Returns array of random ints. */
+    private int[] randomArray(int size) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = randomizer.nextInt();
+        }
+        return array;
+    }
+
+}
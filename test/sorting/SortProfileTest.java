@@ -0,0 +1,145 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+/** Tests profile of leaf sorts and its calibration in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class SortProfileTest {
+
+    /* Testing strategy
+     *      Profile entries: valid, missing, malformed, unknown leaf, too large leaf, KERNEL leaf for longs.
+     *      Profile file: written, replaced and read back, no temporary files left.
+     *      Calibration: zero budget (defaults), small budget (valid cutoff for each sorter).
+     *      Sorters with explicit cutoffs: sizes from 1 to larger than input, insertion and kernel leaf sorts.
+     */
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testCutoffFromProfile() {
+        Properties profile = new Properties();
+        profile.setProperty("quick.int.cutoff", "48");
+        profile.setProperty("quick.int.leaf", "KERNEL");
+        profile.setProperty("merge.int.cutoff", " 32 ");
+        profile.setProperty("quick.long.cutoff", "32");
+        profile.setProperty("quick.long.leaf", "KERNEL");
+        profile.setProperty("merge.long.cutoff", "many");
+        assertEquals(new SortProfile.Cutoff(48, SortProfile.Leaf.KERNEL), SortProfile.Sorter.QUICK_INT.cutoff(profile));
+        assertEquals(new SortProfile.Cutoff(32, SortProfile.Leaf.INSERTION),
+                SortProfile.Sorter.MERGE_INT.cutoff(profile));
+        // kernels sort ints only, malformed size falls back to default
+        assertEquals(SortProfile.Sorter.QUICK_LONG.defaultCutoff, SortProfile.Sorter.QUICK_LONG.cutoff(profile));
+        assertEquals(SortProfile.Sorter.MERGE_LONG.defaultCutoff, SortProfile.Sorter.MERGE_LONG.cutoff(profile));
+        assertEquals(SortProfile.Sorter.MERGE_LONG.defaultCutoff, SortProfile.Sorter.MERGE_LONG.cutoff(null));
+    }
+
+    @Test
+    public void testInvalidCutoffs() {
+        Properties profile = new Properties();
+        profile.setProperty("quick.int.cutoff", "100");
+        profile.setProperty("quick.int.leaf", "KERNEL");
+        profile.setProperty("merge.int.cutoff", "0");
+        profile.setProperty("merge.long.cutoff", "16");
+        profile.setProperty("merge.long.leaf", "NETWORK");
+        for (SortProfile.Sorter sorter : SortProfile.Sorter.values()) {
+            assertEquals(sorter.defaultCutoff, sorter.cutoff(profile));
+        }
+        assertTrue(SortProfile.Sorter.QUICK_INT.isValid(SortKernel.LEAF_SIZE, SortProfile.Leaf.KERNEL));
+        assertFalse(SortProfile.Sorter.QUICK_INT.isValid(SortKernel.LEAF_SIZE + 1, SortProfile.Leaf.KERNEL));
+        assertFalse(SortProfile.Sorter.MERGE_LONG.isValid(16, SortProfile.Leaf.KERNEL));
+        assertTrue(SortProfile.Sorter.QUICK_LONG.isValid(SortProfile.MAX_INSERTION_SIZE, SortProfile.Leaf.INSERTION));
+        assertFalse(SortProfile.Sorter.QUICK_LONG.isValid(SortProfile.MAX_INSERTION_SIZE + 1,
+                SortProfile.Leaf.INSERTION));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Properties profile = new Properties();
+        SortProfile.Sorter.QUICK_INT.write(profile, new SortProfile.Cutoff(24, SortProfile.Leaf.INSERTION));
+        SortProfile.Sorter.MERGE_LONG.write(profile, new SortProfile.Cutoff(8, SortProfile.Leaf.INSERTION));
+        Path directory = Files.createTempDirectory("sort");
+        Path file = directory.resolve("sort.profile");
+        try {
+            SortProfile.save(new Properties(), file);
+            SortProfile.save(profile, file); // replaces existing file
+            Properties loaded = SortProfile.load(file);
+            assertEquals(profile, loaded);
+            assertEquals(new SortProfile.Cutoff(24, SortProfile.Leaf.INSERTION),
+                    SortProfile.Sorter.QUICK_INT.cutoff(loaded));
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.count()); // no temporary files are left
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testCalibrateWithoutBudget() {
+        Properties profile = SortCalibration.calibrate(0);
+        for (SortProfile.Sorter sorter : SortProfile.Sorter.values()) {
+            assertEquals(sorter.defaultCutoff, sorter.cutoff(profile));
+        }
+    }
+
+    @Test
+    public void testCalibrate() {
+        long start = System.nanoTime();
+        Properties profile = SortCalibration.calibrate(200_000_000L);
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        assertEquals(2 * SortProfile.Sorter.values().length, profile.size());
+        for (SortProfile.Sorter sorter : SortProfile.Sorter.values()) {
+            SortProfile.Cutoff cutoff = sorter.cutoff(profile);
+            assertTrue(sorter.isValid(cutoff.size, cutoff.leaf));
+            assertEquals(Integer.toString(cutoff.size), profile.getProperty(sorter.key + ".cutoff"));
+        }
+    }
+
+    @Test
+    public void testSortersWithCutoffs() {
+        for (int size : new int[] { 0, 1, 5, 100, 1000 }) {
+            for (int cutoffSize : new int[] { 1, 2, 7, 16, 64, 1000 }) {
+                for (SortProfile.Leaf leaf : SortProfile.Leaf.values()) {
+                    if (leaf == SortProfile.Leaf.KERNEL && cutoffSize > SortKernel.LEAF_SIZE) {
+                        continue;
+                    }
+                    SortProfile.Cutoff cutoff = new SortProfile.Cutoff(cutoffSize, leaf);
+                    int[] input = randomizer.ints(size, 0, 50).toArray();
+                    int[] expected = input.clone();
+                    Arrays.sort(expected);
+                    int[] copy = input.clone();
+                    QuickSort.sort(copy, 0, size, cutoff);
+                    assertArrayEquals(expected, copy);
+                    copy = input.clone();
+                    MergeSort.sort(copy, cutoff);
+                    assertArrayEquals(expected, copy);
+                }
+                long[] input = randomizer.longs(size).toArray();
+                long[] expected = input.clone();
+                Arrays.sort(expected);
+                SortProfile.Cutoff cutoff = new SortProfile.Cutoff(cutoffSize, SortProfile.Leaf.INSERTION);
+                long[] copy = input.clone();
+                LongSort.quickSort(copy, 0, size, cutoff);
+                assertArrayEquals(expected, copy);
+                copy = input.clone();
+                LongSort.mergeSort(copy, cutoff);
+                assertArrayEquals(expected, copy);
+            }
+        }
+    }
+
+}
@@ -26,8 +26,11 @@ public class SortingsTest {
     /** Types of sortings. */
     private enum SortingTypes {
         ARRAYS_SORT("Built-in Arrays.sort()"), ARRAYS_PARALLEL_SORT("Built-in Arrays.parallelSort()"),
-        MERGE("Merge Sort"), QUICK("Quick Sort"),
-        INSERTION("Insertion Sort"), SELECTION("Selection Sort"), BUBBLE("Bubble Sort");
+        MERGE("Merge Sort"), PARALLEL_MERGE("Parallel Merge Sort"), TIM("TimSort"),
+        QUICK("Quick Sort"), PARALLEL_QUICK("Parallel Quick Sort"),
+        QUICK_LOMUTO("Quick Sort (Lomuto)"), QUICK_THREE_WAY("Quick Sort (three-way)"),
+        QUICK_VECTOR("Quick Sort (vector kernels)"), QUICK_BLOCK("Quick Sort (block partition)"),
+        HEAP("Heap Sort"), INSERTION("Insertion Sort"), SELECTION("Selection Sort"), BUBBLE("Bubble Sort");
 
         /** String representation of sorting type. */
         private final String representation;
@@ -51,6 +54,10 @@ public class SortingsTest {
     private static final int[] SORTED_ARRAY;
     /** Array of ints from ARRAYS_SIZE - 1 to 0, all numbers are unique. */
     private static final int[] BACKWARDS_SORTED_ARRAY;
+    /** Array of ints from 0 to ARRAYS_SIZE / 2 - 1 and back to 0 (organ pipe), every number is repeated twice. */
+    private static final int[] ORGAN_PIPE_ARRAY;
+    /** Array of ARRAYS_SIZE / 100 sorted runs, each run contains ints from 0 to 99 (sawtooth). */
+    private static final int[] SAWTOOTH_ARRAY;
     /** Empty array. */
     private static final int[] EMPTY_ARRAY = new int[0];
     /** Size 1 array. */
@@ -63,6 +70,8 @@ public class SortingsTest {
         SAME_NUMBERS_ARRAY = new int[ARRAYS_SIZE];
         SORTED_ARRAY = new int[ARRAYS_SIZE];
         BACKWARDS_SORTED_ARRAY = new int[ARRAYS_SIZE];
+        ORGAN_PIPE_ARRAY = new int[ARRAYS_SIZE];
+        SAWTOOTH_ARRAY = new int[ARRAYS_SIZE];
         Random randomizer = new Random();
         for (int i = 0; i < ARRAYS_SIZE; i++) {
             SAME_NUMBERS_ARRAY[i] = 1;
@@ -70,6 +79,8 @@ public class SortingsTest {
             BACKWARDS_SORTED_ARRAY[ARRAYS_SIZE - 1 - i] = i;
             RANDOM_ARRAY[i] = randomizer.nextInt();
             RANDOM_REPEATING_ARRAY[i] = randomizer.nextInt(10);
+            ORGAN_PIPE_ARRAY[i] = i < ARRAYS_SIZE / 2 ? i : ARRAYS_SIZE - 1 - i;
+            SAWTOOTH_ARRAY[i] = i % 100;
         }
     }
 
@@ -85,6 +96,12 @@ public class SortingsTest {
         testAllSorts(SortingTypes.ARRAYS_PARALLEL_SORT);
     }
 
+    /** Testing heap sort algorithm. */
+    @Test
+    public void testHeapSort() {
+        testAllSorts(SortingTypes.HEAP);
+    }
+
     /** Testing insertion sort algorithm. */
     @Test
     public void testInsertionSort() {
@@ -97,6 +114,18 @@ public class SortingsTest {
         testAllSorts(SortingTypes.MERGE);
     }
 
+    /** Testing parallel merge sort algorithm. */
+    @Test
+    public void testParallelMergeSort() {
+        testAllSorts(SortingTypes.PARALLEL_MERGE);
+    }
+
+    /** Testing TimSort algorithm. */
+    @Test
+    public void testTimSort() {
+        testAllSorts(SortingTypes.TIM);
+    }
+
     /** Testing selection sort algorithm. */
     @Test // this test is long
     @SuppressWarnings("unused")
@@ -117,12 +146,44 @@ public class SortingsTest {
         testAllSorts(SortingTypes.QUICK);
     }
 
+    /** Testing quick sort algorithm with Lomuto partition. */
+    @Test
+    public void testQuickSortLomuto() {
+        testAllSorts(SortingTypes.QUICK_LOMUTO);
+    }
+
+    /** Testing quick sort algorithm with three-way partition. */
+    @Test
+    public void testQuickSortThreeWay() {
+        testAllSorts(SortingTypes.QUICK_THREE_WAY);
+    }
+
+    /** Testing quick sort algorithm with kernels of SortKernels. */
+    @Test
+    public void testQuickSortVector() {
+        testAllSorts(SortingTypes.QUICK_VECTOR);
+    }
+
+    /** Testing quick sort algorithm with block partition. */
+    @Test
+    public void testQuickSortBlock() {
+        testAllSorts(SortingTypes.QUICK_BLOCK);
+    }
+
+    /** Testing parallel quick sort algorithm. */
+    @Test
+    public void testParallelQuickSort() {
+        testAllSorts(SortingTypes.PARALLEL_QUICK);
+    }
+
     private void testAllSorts(SortingTypes sortingType) {
         testSortOnArray(SORTED_ARRAY, "SORTED_ARRAY", sortingType);
         testSortOnArray(SAME_NUMBERS_ARRAY, "SAME_NUM_ARRAY", sortingType);
         testSortOnArray(RANDOM_ARRAY, "RANDOM_ARRAY", sortingType);
         testSortOnArray(RANDOM_REPEATING_ARRAY, "RANDOM_REP_ARRAY", sortingType);
         testSortOnArray(BACKWARDS_SORTED_ARRAY, "BACKWARDS_SORTED_ARRAY", sortingType);
+        testSortOnArray(ORGAN_PIPE_ARRAY, "ORGAN_PIPE_ARRAY", sortingType);
+        testSortOnArray(SAWTOOTH_ARRAY, "SAWTOOTH_ARRAY", sortingType);
         testSortOnArray(EMPTY_ARRAY, "EMPTY_ARRAY", sortingType);
         testSortOnArray(SIZE1_ARRAY, "SIZE1_ARRAY", sortingType);
     }
@@ -144,12 +205,21 @@ public class SortingsTest {
             case ARRAYS_PARALLEL_SORT:
                 Arrays.parallelSort(array);
                 break;
+            case HEAP:
+                HeapSort.sort(array);
+                break;
             case INSERTION:
                 InsertionSort.sort(array);
                 break;
             case MERGE:
                 MergeSort.sort(array);
                 break;
+            case PARALLEL_MERGE:
+                MergeSort.parallelSort(array);
+                break;
+            case TIM:
+                TimSort.sort(array);
+                break;
             case SELECTION:
                 SelectionSort.sort(array);
                 break;
@@ -159,6 +229,21 @@ public class SortingsTest {
             case QUICK:
                 QuickSort.sort(array);
                 break;
+            case QUICK_LOMUTO:
+                QuickSort.sort(array, QuickSort.Partition.LOMUTO);
+                break;
+            case QUICK_THREE_WAY:
+                QuickSort.sort(array, QuickSort.Partition.THREE_WAY);
+                break;
+            case QUICK_VECTOR:
+                QuickSort.sort(array, QuickSort.Partition.VECTOR);
+                break;
+            case QUICK_BLOCK:
+                QuickSort.sort(array, QuickSort.Partition.BLOCK);
+                break;
+            case PARALLEL_QUICK:
+                QuickSort.parallelSort(array);
+                break;
             default:
                 throw new RuntimeException("unknown sorting type");
         }
@@ -0,0 +1,121 @@
+package sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/** Tests choice of sorting algorithm in sortings package. */
+@SuppressWarnings("CheckStyle") // suppress magic numbers
+public class SortsTest {
+
+    /* Testing strategy
+     *      Tiny array: insertion sort.
+     *      Keys in range not greater than size: counting sort, including negative keys.
+     *      Sorted, backwards sorted and appended sorted batches: adaptive merge sort.
+     *      Large array with keys in narrow range: radix sort, including range straddling zero.
+     *      Random array: quick sort, parallel quick sort when common pool has more threads.
+     *      Keys MIN_VALUE and MAX_VALUE.
+     *      Sample of duplicates: shorter than sample, all equal, distinct.
+     *      Null and empty array.
+     *      Result is compared with Arrays.sort.
+     */
+
+    /** Size of arrays, positive. */
+    private static final int ARRAYS_SIZE = 100000;
+
+    /** Random generator for arrays. */
+    private final Random randomizer = new Random();
+
+    @Test
+    public void testInsertion() {
+        assertEquals(Sorts.Strategy.INSERTION, Sorts.sort(null));
+        testSort(Sorts.Strategy.INSERTION, new int[0]);
+        testSort(Sorts.Strategy.INSERTION, new int[] { 3, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 3 });
+    }
+
+    @Test
+    public void testCounting() {
+        int[] array = new int[ARRAYS_SIZE];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = randomizer.nextInt(1000) - 500;
+        }
+        testSort(Sorts.Strategy.COUNTING, array);
+    }
+
+    @Test
+    public void testAdaptiveMerge() {
+        int[] sorted = new int[ARRAYS_SIZE];
+        int[] backwards = new int[ARRAYS_SIZE];
+        int[] batches = new int[ARRAYS_SIZE];
+        for (int i = 0; i < ARRAYS_SIZE; i++) {
+            sorted[i] = 2 * i;
+            backwards[i] = 2 * (ARRAYS_SIZE - i);
+            batches[i] = randomizer.nextInt();
+        }
+        for (int i = 0; i < ARRAYS_SIZE; i += 1000) {
+            Arrays.sort(batches, i, i + 1000);
+        }
+        testSort(Sorts.Strategy.ADAPTIVE_MERGE, sorted);
+        testSort(Sorts.Strategy.ADAPTIVE_MERGE, backwards);
+        testSort(Sorts.Strategy.ADAPTIVE_MERGE, batches);
+    }
+
+    @Test
+    public void testRadix() {
+        int[] array = new int[ARRAYS_SIZE];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = randomizer.nextInt(1 << 20);
+        }
+        testSort(Sorts.Strategy.RADIX, array);
+        for (int i = 0; i < array.length; i++) {
+            array[i] = randomizer.nextInt(1 << 20) - (1 << 19); // range straddles zero, all 4 digits vary
+        }
+        testSort(Sorts.Strategy.RADIX, array);
+    }
+
+    @Test
+    public void testQuick() {
+        int[] array = new int[ARRAYS_SIZE];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = randomizer.nextInt();
+        }
+        array[0] = Integer.MIN_VALUE;
+        array[1] = Integer.MAX_VALUE;
+        Sorts.Statistics statistics = new Sorts.Statistics(array);
+        assertEquals(Sorts.Strategy.QUICK, Sorts.choose(array.length, statistics, 1));
+        assertEquals(Sorts.Strategy.PARALLEL_QUICK, Sorts.choose(array.length, statistics, 4));
+        testSort(ForkJoinPool.getCommonPoolParallelism() > 1 ? Sorts.Strategy.PARALLEL_QUICK : Sorts.Strategy.QUICK,
+                array);
+    }
+
+    @Test
+    public void testDuplicatesSample() {
+        int[] array = new int[DuplicatesSample.SIZE - 1];
+        assertEquals(0, DuplicatesSample.count(array)); // shorter than sample, although all equal
+        array = new int[ARRAYS_SIZE];
+        assertEquals(DuplicatesSample.SIZE - 1, DuplicatesSample.count(array));
+        assertTrue(DuplicatesSample.isFrequent(array));
+        for (int i = 0; i < array.length; i++) {
+            array[i] = array.length - i;
+        }
+        assertEquals(0, DuplicatesSample.count(array));
+        assertFalse(DuplicatesSample.isFrequent(array));
+        assertEquals(array.length, array[0]); // input is only read
+    }
+
+    /** Sorts copy of input and checks strategy and result. */
+    private void testSort(Sorts.Strategy expectedStrategy, int[] input) {
+        int[] array = Arrays.copyOf(input, input.length);
+        int[] expected = Arrays.copyOf(input, input.length);
+        Arrays.sort(expected);
+        assertEquals(expectedStrategy, Sorts.sort(array));
+        assertArrayEquals(expected, array);
+    }
+
+}